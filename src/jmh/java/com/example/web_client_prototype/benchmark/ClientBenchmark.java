@@ -0,0 +1,95 @@
+package com.example.web_client_prototype.benchmark;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+import com.example.web_client_prototype.biz.WebApiClient;
+import com.example.web_client_prototype.biz.WebClientHelper;
+import com.example.web_client_prototype.biz.WebClientRequest;
+import com.example.web_client_prototype.resource.Resource;
+
+/**
+ * WebApiClient / WebClientHelperのベンチマーク（スタブサーバーとの往復を含む）
+ *  - payloadSize：レスポンスのResource件数
+ *  - logging：通信ログ（ExchangeLoggingFilter）の有効 / 無効
+ *  - 同時実行数はJMHの-tオプションで指定する（例：-Djmh.args="ClientBenchmark -t 16"）
+ * レスポンスキャッシュ・リクエストの集約は、通信そのものを省略してしまうため無効にする
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ClientBenchmark {
+
+	private static final ParameterizedTypeReference<List<Resource>> RESOURCE_LIST =
+			new ParameterizedTypeReference<List<Resource>>() {};
+
+	@Param({ "1", "100", "1000" })
+	private int payloadSize;
+
+	@Param({ "false", "true" })
+	private boolean logging;
+
+	private StubServer server;
+	private ClassPathXmlApplicationContext context;
+	private WebApiClient webApiClient;
+	private WebClientHelper webClientHelper;
+	private URI listUri;
+	private WebClientRequest listRequest;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		// webclient.propertiesよりシステムプロパティが優先される
+		System.setProperty("webclient.logging.exchange.enabled", String.valueOf(logging));
+		System.setProperty("webclient.cache.enabled", "false");
+		System.setProperty("webclient.coalescing.enabled", "false");
+
+		server = new StubServer();
+		context = new ClassPathXmlApplicationContext("classpath:/META-INF/spring/applicationContext.xml");
+		webApiClient = context.getBean(WebApiClient.class);
+		webClientHelper = context.getBean(WebClientHelper.class);
+
+		listUri = URI.create(server.baseUrl() + "/resources?size=" + payloadSize);
+		listRequest = WebClientRequest.builder()
+				.method(HttpMethod.GET)
+				.url(server.baseUrl() + "/resources")
+				.queryParam("size", String.valueOf(payloadSize))
+				.build();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+		server.stop();
+	}
+
+	@Benchmark
+	public Resource[] getBody() {
+		return webApiClient.getBody(listUri, Resource[].class);
+	}
+
+	@Benchmark
+	public ResponseEntity<List<Resource>> getEntityList() {
+		return webApiClient.getEntityList(listUri, Resource.class);
+	}
+
+	@Benchmark
+	public ResponseEntity<List<Resource>> callForEntity() {
+		return webClientHelper.callForEntity(listRequest, RESOURCE_LIST);
+	}
+}
@@ -0,0 +1,99 @@
+package com.example.web_client_prototype.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.web_client_prototype.biz.codec.CachingJackson2JsonDecoder;
+import com.example.web_client_prototype.biz.codec.CachingJackson2JsonEncoder;
+import com.example.web_client_prototype.biz.codec.LocalDateFastPathModule;
+import com.example.web_client_prototype.resource.Resource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * JSONコーデックのベンチマーク（List&lt;Resource&gt;のデコード / エンコード）
+ *  - default：ExchangeStrategies.withDefaults()と同じJackson2JsonDecoder / Jackson2JsonEncoder
+ *  - tuned：CodecConfigの初期値（ObjectReader / ObjectWriterのキャッシュ、LocalDateの高速な変換）
+ *  - blackbird：tuned + Blackbird
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CodecBenchmark {
+
+	private static final ResolvableType LIST_TYPE = ResolvableType.forType(
+			new ParameterizedTypeReference<List<Resource>>() {
+			});
+
+	@Param({ "default", "tuned", "blackbird" })
+	public String codec;
+
+	/** リストの要素数 */
+	@Param({ "100", "1000" })
+	public int payloadSize;
+
+	private Jackson2JsonDecoder decoder;
+	private Jackson2JsonEncoder encoder;
+	private List<Resource> resources;
+	private byte[] json;
+
+	@Setup
+	public void setUp() throws Exception {
+		if ("default".equals(codec)) {
+			decoder = new Jackson2JsonDecoder();
+			encoder = new Jackson2JsonEncoder();
+		} else {
+			ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+			mapper.registerModule(new LocalDateFastPathModule());
+			if ("blackbird".equals(codec)) {
+				mapper.registerModule(new BlackbirdModule());
+			}
+			decoder = new CachingJackson2JsonDecoder(mapper, 256);
+			encoder = new CachingJackson2JsonEncoder(mapper, 256);
+		}
+		resources = new ArrayList<>(payloadSize);
+		for (int i = 0; i < payloadSize; i++) {
+			resources.add(new Resource(String.valueOf(i), "名前" + i, LocalDate.of(2022, 1, 1).plusDays(i)));
+		}
+		json = Jackson2ObjectMapperBuilder.json().build().writeValueAsBytes(resources);
+	}
+
+	@Benchmark
+	public Object decode() {
+		DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.wrap(json);
+		return decoder.decodeToMono(Flux.just(buffer), LIST_TYPE, MediaType.APPLICATION_JSON,
+				Collections.emptyMap()).block();
+	}
+
+	@Benchmark
+	public int encode() {
+		DataBuffer buffer = encoder.encodeValue(resources, DefaultDataBufferFactory.sharedInstance, LIST_TYPE,
+				MediaType.APPLICATION_JSON, Collections.emptyMap());
+		int size = buffer.readableByteCount();
+		DataBufferUtils.release(buffer);
+		return size;
+	}
+}
@@ -0,0 +1,83 @@
+package com.example.web_client_prototype.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+
+import com.example.web_client_prototype.biz.WebClientHelper;
+import com.example.web_client_prototype.biz.WebClientRequest;
+import com.example.web_client_prototype.biz.error.ErrorHandlingMode;
+import com.example.web_client_prototype.exception.ErrorStatusException;
+
+/**
+ * 2xx系以外のレスポンスの処理の比較（スタブサーバーとの往復を含む）
+ *  - mode：webclient.error.mode の値（WebClientRequest.Builder#errorHandlingで指定する）
+ *  - bodyBytes：エラーレスポンスのボディのバイト数
+ * リトライ・サーキットブレーカー等、エラーに反応する機能は無効にする
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ErrorPathBenchmark {
+
+	private static final ParameterizedTypeReference<String> STRING = new ParameterizedTypeReference<String>() {};
+
+	@Param({ "FULL", "STACKLESS", "RETURN_STATUS" })
+	private ErrorHandlingMode mode;
+
+	@Param({ "128", "8192" })
+	private int bodyBytes;
+
+	private StubServer server;
+	private ClassPathXmlApplicationContext context;
+	private WebClientHelper webClientHelper;
+	private WebClientRequest request;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		// webclient.propertiesよりシステムプロパティが優先される
+		System.setProperty("webclient.logging.exchange.enabled", "false");
+		System.setProperty("webclient.cache.enabled", "false");
+		System.setProperty("webclient.coalescing.enabled", "false");
+		System.setProperty("webclient.retry.enabled", "false");
+		System.setProperty("webclient.circuit-breaker.enabled", "false");
+		System.setProperty("webclient.limiter.enabled", "false");
+
+		server = new StubServer();
+		context = new ClassPathXmlApplicationContext("classpath:/META-INF/spring/applicationContext.xml");
+		webClientHelper = context.getBean(WebClientHelper.class);
+		request = WebClientRequest.builder()
+				.method(HttpMethod.GET)
+				.url(server.baseUrl() + "/status/404")
+				.queryParam("bodyBytes", String.valueOf(bodyBytes))
+				.errorHandling(mode)
+				.build();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+		server.stop();
+	}
+
+	@Benchmark
+	public Object notFound() {
+		try {
+			return webClientHelper.callForEntity(request, STRING);
+		} catch (ErrorStatusException e) {
+			return e;
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package com.example.web_client_prototype.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+
+import com.example.web_client_prototype.biz.BatchResult;
+import com.example.web_client_prototype.biz.WebClientHelper;
+import com.example.web_client_prototype.biz.WebClientRequest;
+import com.example.web_client_prototype.biz.metrics.ConnectionPoolGauges;
+
+/**
+ * HTTP/1.1とHTTP/2（h2c）のファンアウトの比較（スタブサーバーとの往復を含む）
+ *  - protocol：webclient.http.protocols の値
+ *  - fanOut：1回の操作で同時に送信するリクエスト数（WebClientHelper#callForEntities）
+ *  - serverDelayMillis：スタブサーバーの応答までの待機時間（同時に送信中となるリクエスト数を増やす）
+ * 試行の終了時に、スタブサーバーが受け付けたTCP接続数とプールの接続数を出力する
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.AverageTime, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class Http2Benchmark {
+
+	private static final ParameterizedTypeReference<byte[]> BYTES = new ParameterizedTypeReference<byte[]>() {};
+
+	@Param({ "HTTP11", "H2C" })
+	private String protocol;
+
+	@Param({ "10", "100" })
+	private int fanOut;
+
+	@Param({ "5" })
+	private int serverDelayMillis;
+
+	private StubServer server;
+	private ClassPathXmlApplicationContext context;
+	private WebClientHelper webClientHelper;
+	private List<WebClientRequest> requests;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		// webclient.propertiesよりシステムプロパティが優先される
+		System.setProperty("webclient.http.protocols", protocol);
+		System.setProperty("webclient.logging.exchange.enabled", "false");
+		System.setProperty("webclient.cache.enabled", "false");
+		System.setProperty("webclient.coalescing.enabled", "false");
+		// 同時実行数の制御は通信方式によらず送信数を絞ってしまうため無効にする
+		System.setProperty("webclient.limiter.enabled", "false");
+
+		server = new StubServer();
+		context = new ClassPathXmlApplicationContext("classpath:/META-INF/spring/applicationContext.xml");
+		webClientHelper = context.getBean(WebClientHelper.class);
+
+		requests = new ArrayList<>();
+		for (int i = 1; i <= fanOut; i++) {
+			requests.add(WebClientRequest.builder()
+					.method(HttpMethod.GET)
+					.url(server.baseUrl() + "/resources/{id}")
+					.pathParam("id", String.valueOf(i))
+					.queryParam("delayMillis", String.valueOf(serverDelayMillis))
+					.build());
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		System.out.println();
+		System.out.println("server connections: " + server.connectionCount());
+		context.getBean(ConnectionPoolGauges.class).snapshot()
+				.forEach(pool -> System.out.println("client pool allocated: " + pool.getAllocated()));
+		context.close();
+		server.stop();
+	}
+
+	@Benchmark
+	public List<BatchResult<byte[]>> fanOut() {
+		return webClientHelper.callForEntities(requests, BYTES, fanOut);
+	}
+}
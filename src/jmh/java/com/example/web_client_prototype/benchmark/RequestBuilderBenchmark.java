@@ -0,0 +1,81 @@
+package com.example.web_client_prototype.benchmark;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.example.web_client_prototype.biz.CompiledUriTemplate;
+import com.example.web_client_prototype.biz.WebClientRequest;
+
+/**
+ * WebClientRequest.Builder#buildのベンチマーク（URIテンプレートの展開・エンコードを含む）
+ *  - withParams：URIテンプレートを文字列で指定（解析結果はキャッシュ）
+ *  - precompiled：解析済みのURIテンプレート（定数）を指定
+ *  - uriComponentsBuilder：比較用（毎回UriComponentsBuilderで解析・展開・エンコードする）
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RequestBuilderBenchmark {
+
+	private static final String URL_TEMPLATE = "http://localhost:8080/rest_prototype/type1/{id}/items/{itemId}";
+
+	private static final CompiledUriTemplate COMPILED_TEMPLATE = CompiledUriTemplate.compile(URL_TEMPLATE);
+
+	@Benchmark
+	public WebClientRequest plain() {
+		return WebClientRequest.builder()
+				.method(HttpMethod.GET)
+				.url("http://localhost:8080/rest_prototype/type1/")
+				.build();
+	}
+
+	@Benchmark
+	public WebClientRequest withParams() {
+		return WebClientRequest.builder()
+				.method(HttpMethod.GET)
+				.url(URL_TEMPLATE)
+				.header("Accept", "application/json")
+				.pathParam("id", "12345")
+				.pathParam("itemId", "あいう")
+				.queryParam("q", "a b&c")
+				.queryParam("page", "2")
+				.build();
+	}
+
+	@Benchmark
+	public WebClientRequest precompiled() {
+		return WebClientRequest.builder()
+				.method(HttpMethod.GET)
+				.url(COMPILED_TEMPLATE)
+				.header("Accept", "application/json")
+				.pathParam("id", "12345")
+				.pathParam("itemId", "あいう")
+				.queryParam("q", "a b&c")
+				.queryParam("page", "2")
+				.build();
+	}
+
+	@Benchmark
+	public URI uriComponentsBuilder() {
+		Map<String, Object> pathParams = new HashMap<>();
+		pathParams.put("id", "12345");
+		pathParams.put("itemId", "あいう");
+		return UriComponentsBuilder.fromUriString(URL_TEMPLATE)
+				.queryParam("q", "a b&c")
+				.queryParam("page", "2")
+				.buildAndExpand(pathParams)
+				.encode()
+				.toUri();
+	}
+}
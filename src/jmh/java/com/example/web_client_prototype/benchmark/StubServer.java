@@ -0,0 +1,106 @@
+package com.example.web_client_prototype.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.netty.handler.codec.http.QueryStringDecoder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * ベンチマーク用のスタブサーバー（同一JVM内で起動するReactor Nettyサーバー）
+ *  - GET /resources?size=N：Resource（JSON）N件のリストを返却する
+ *  - GET /resources/{id}：Resource（JSON）1件を返却する（?delayMillis=Nを指定した場合はNミリ秒待ってから返却する）
+ *  - POST /resources：リクエストボディを読み捨てて201を返却する
+ *  - GET /status/{code}：指定したステータスコードを返却する（?bodyBytes=Nを指定した場合はNバイトのボディを付与する）
+ * レスポンスボディはサイズごとに事前に生成しておき、サーバー側の処理時間を最小にする
+ * HTTP/1.1とh2c（prior knowledge / Upgrade）の両方で受け付ける
+ */
+public class StubServer {
+
+	private final Map<Integer, byte[]> lists = new ConcurrentHashMap<>();
+	private final Map<Integer, byte[]> errors = new ConcurrentHashMap<>();
+	private final LongAdder connections = new LongAdder();
+	private final DisposableServer server;
+
+	public StubServer() {
+		byte[] single = resource(1).getBytes(StandardCharsets.UTF_8);
+		this.server = HttpServer.create()
+				.host("localhost")
+				.port(0) // 空いているポートを使用する
+				.protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+				.doOnChannelInit((observer, channel, remoteAddress) -> connections.increment())
+				.route(routes -> routes
+						.get("/resources", (req, res) -> {
+							String size = new QueryStringDecoder(req.uri())
+									.parameters().getOrDefault("size", List.of("1")).get(0);
+							byte[] body = lists.computeIfAbsent(Integer.valueOf(size), StubServer::list);
+							return res.header("Content-Type", "application/json")
+									.sendByteArray(Mono.just(body));
+						})
+						.get("/resources/{id}", (req, res) -> {
+							long delayMillis = Long.parseLong(new QueryStringDecoder(req.uri())
+									.parameters().getOrDefault("delayMillis", List.of("0")).get(0));
+							Mono<Void> send = res.header("Content-Type", "application/json")
+									.sendByteArray(Mono.just(single)).then();
+							return delayMillis > 0 ? Mono.delay(Duration.ofMillis(delayMillis)).then(send) : send;
+						})
+						.post("/resources", (req, res) -> req.receive().then(res.status(201).send().then()))
+						.get("/status/{code}", (req, res) -> {
+							int bodyBytes = Integer.parseInt(new QueryStringDecoder(req.uri())
+									.parameters().getOrDefault("bodyBytes", List.of("0")).get(0));
+							return res.status(Integer.parseInt(req.param("code")))
+									.header("Content-Type", "application/problem+json")
+									.sendByteArray(Mono.just(errors.computeIfAbsent(bodyBytes, StubServer::error)));
+						}))
+				.bindNow();
+	}
+
+	/**
+	 * ベースURL（例：http://localhost:12345）
+	 * @return
+	 */
+	public String baseUrl() {
+		return "http://localhost:" + server.port();
+	}
+
+	/**
+	 * 起動してから受け付けたTCP接続の数（HTTP/2のストリームは含まない）
+	 * @return
+	 */
+	public long connectionCount() {
+		return connections.sum();
+	}
+
+	public void stop() {
+		server.disposeNow();
+	}
+
+	private static byte[] error(int bodyBytes) {
+		byte[] body = new byte[bodyBytes];
+		Arrays.fill(body, (byte) 'x');
+		return body;
+	}
+
+	private static byte[] list(int size) {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 1; i <= size; i++) {
+			if (i > 1) {
+				sb.append(',');
+			}
+			sb.append(resource(i));
+		}
+		return sb.append(']').toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static String resource(int id) {
+		return "{\"id\":\"" + id + "\",\"name\":\"name-" + id + "\",\"hogeDate\":\"2025-01-01\"}";
+	}
+}
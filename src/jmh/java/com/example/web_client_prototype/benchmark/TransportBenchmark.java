@@ -0,0 +1,113 @@
+package com.example.web_client_prototype.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+import com.example.web_client_prototype.biz.BatchResult;
+import com.example.web_client_prototype.biz.WebClientHelper;
+import com.example.web_client_prototype.biz.WebClientRequest;
+
+/**
+ * イベントループのトランスポート（NIO / ネイティブ（Linuxはepoll））の比較（スタブサーバーとの往復を含む）
+ *  - nativeTransport：webclient.loop.native の値（ネイティブを使用できない環境では両方ともNIOになる）
+ *  - workerCount：webclient.loop.worker-count の値（0の場合はReactor Nettyのデフォルト）
+ *  - fanOut：1回の操作で同時に送信するリクエスト数（WebClientHelper#callForEntities）
+ * callForEntity の同時実行数はJMHの-tオプションで指定する
+ * fanOut は -t 1 で実行する（同時送信数がプールの上限（最大接続数 + 取得待ち）を超えると、取得待ちで失敗した分も計測されるため）
+ * 試行の終了時に、WebClientのイベントループのスレッド名を出力する（使用したトランスポートの確認用）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TransportBenchmark {
+
+	private static final ParameterizedTypeReference<byte[]> BYTES = new ParameterizedTypeReference<byte[]>() {};
+
+	private static final String THREAD_PREFIX = "bench-client";
+
+	@Param({ "false", "true" })
+	private boolean nativeTransport;
+
+	@Param({ "0" })
+	private int workerCount;
+
+	@Param({ "100" })
+	private int fanOut;
+
+	private StubServer server;
+	private ClassPathXmlApplicationContext context;
+	private WebClientHelper webClientHelper;
+	private WebClientRequest request;
+	private List<WebClientRequest> requests;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		// webclient.propertiesよりシステムプロパティが優先される
+		System.setProperty("webclient.loop.native", String.valueOf(nativeTransport));
+		System.setProperty("webclient.loop.worker-count", String.valueOf(workerCount));
+		System.setProperty("webclient.loop.thread-prefix", THREAD_PREFIX);
+		System.setProperty("webclient.logging.exchange.enabled", "false");
+		System.setProperty("webclient.cache.enabled", "false");
+		System.setProperty("webclient.coalescing.enabled", "false");
+		// 同時実行数の制御はトランスポートによらず送信数を絞ってしまうため無効にする
+		System.setProperty("webclient.limiter.enabled", "false");
+
+		server = new StubServer();
+		context = new ClassPathXmlApplicationContext("classpath:/META-INF/spring/applicationContext.xml");
+		webClientHelper = context.getBean(WebClientHelper.class);
+
+		request = WebClientRequest.builder()
+				.method(HttpMethod.GET)
+				.url(server.baseUrl() + "/resources/{id}")
+				.pathParam("id", "1")
+				.build();
+		requests = new ArrayList<>();
+		for (int i = 1; i <= fanOut; i++) {
+			requests.add(WebClientRequest.builder()
+					.method(HttpMethod.GET)
+					.url(server.baseUrl() + "/resources/{id}")
+					.pathParam("id", String.valueOf(i))
+					.build());
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		TreeSet<String> loopThreads = new TreeSet<>();
+		Thread.getAllStackTraces().keySet().stream()
+				.map(Thread::getName)
+				.filter(name -> name.startsWith(THREAD_PREFIX))
+				.forEach(loopThreads::add);
+		System.out.println();
+		System.out.println("client loop threads: " + loopThreads);
+		context.close();
+		server.stop();
+	}
+
+	@Benchmark
+	public ResponseEntity<byte[]> callForEntity() {
+		return webClientHelper.callForEntity(request, BYTES);
+	}
+
+	@Benchmark
+	public List<BatchResult<byte[]>> fanOut() {
+		return webClientHelper.callForEntities(requests, BYTES, fanOut);
+	}
+}
@@ -0,0 +1,39 @@
+package com.example.web_client_prototype.biz;
+
+import org.springframework.http.ResponseEntity;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 一括API通信（WebClientHelper#callForEntities）における1リクエスト分の結果
+ * 成功時はentity、失敗時はerrorを保持する
+ */
+@Getter
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class BatchResult<T> {
+	/** 入力コレクション内の位置（0始まり） */
+	private final long index;
+	/** リクエスト */
+	private final WebClientRequest request;
+	/** レスポンス（失敗時はnull） */
+	private final ResponseEntity<T> entity;
+	/** 発生した例外（成功時はnull） */
+	private final Throwable error;
+
+	public static <T> BatchResult<T> success(long index, WebClientRequest request, ResponseEntity<T> entity) {
+		return new BatchResult<>(index, request, entity, null);
+	}
+
+	public static <T> BatchResult<T> failure(long index, WebClientRequest request, Throwable error) {
+		return new BatchResult<>(index, request, null, error);
+	}
+
+	/** 成功したか */
+	public boolean isSuccess() {
+		return error == null;
+	}
+}
@@ -0,0 +1,44 @@
+package com.example.web_client_prototype.biz;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 途中で読み込みをやめる場合に、通信を終了（キャンセル）できるIterator
+ * try-with-resourcesで使用する
+ * @param <T>
+ */
+public interface CloseableIterator<T> extends Iterator<T>, AutoCloseable {
+
+	/**
+	 * 通信を終了する（最後まで読み込んだ場合は何もしない）
+	 */
+	@Override
+	void close();
+
+	/**
+	 * Streamから生成する（closeでStreamをcloseする）
+	 * @param <T>
+	 * @param stream
+	 * @return
+	 */
+	static <T> CloseableIterator<T> of(Stream<T> stream) {
+		Iterator<T> iterator = stream.iterator();
+		return new CloseableIterator<T>() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public T next() {
+				return iterator.next();
+			}
+
+			@Override
+			public void close() {
+				stream.close();
+			}
+		};
+	}
+}
@@ -0,0 +1,356 @@
+package com.example.web_client_prototype.biz;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+/**
+ * 解析済みのURIテンプレート（スレッドセーフ、使い回し可能）
+ * 「UriComponentsBuilder.fromUriString → buildAndExpand → encode → toUri」と同じURIを生成する
+ *  - テンプレートの解析は生成時の1回のみとし、固定部分は事前にエンコードしておく
+ *  - 展開時はパスパラメータの値のみをエンコードして連結する
+ * テンプレートの文字列ごとにキャッシュする場合は of、定数として保持する場合は compile で生成する
+ * 以下のテンプレートは解析済みにできないため、展開のたびにUriComponentsBuilderで生成する
+ *  - スキーム固有部分のみのURI（mailto:など） / IPv6のホスト
+ *  - スキーム・ユーザー情報・ホスト・ポート・クエリパラメータ名にパスパラメータを含むもの
+ */
+public final class CompiledUriTemplate {
+
+	/** キャッシュするテンプレートの最大数 */
+	private static final int CACHE_SIZE = 256;
+
+	/** UriComponentsと同じ変数の記法（{name} / {name:regex}） */
+	private static final Pattern NAMES_PATTERN = Pattern.compile("\\{([^/]+?)\\}");
+
+	private static final ConcurrentLruCache<String, CompiledUriTemplate> CACHE =
+			new ConcurrentLruCache<>(CACHE_SIZE, CompiledUriTemplate::compile);
+
+	/** テンプレート */
+	private final String template;
+	/** スキーム〜ポート（エンコード済み、ない場合は空文字） */
+	private final String prefix;
+	/** パス */
+	private final Part[] path;
+	/** テンプレートに記載されたクエリパラメータ名（エンコード済み） */
+	private final String[] queryNames;
+	/** テンプレートに記載されたクエリパラメータ値（値のない「name」のみの場合はnull） */
+	private final Part[][] queryValues;
+	/** フラグメント（ない場合はnull） */
+	private final Part[] fragment;
+	/** 解析済みにできないテンプレートの場合はtrue */
+	private final boolean uncompiled;
+
+	private CompiledUriTemplate(String template, String prefix, Part[] path, String[] queryNames,
+			Part[][] queryValues, Part[] fragment, boolean uncompiled) {
+		this.template = template;
+		this.prefix = prefix;
+		this.path = path;
+		this.queryNames = queryNames;
+		this.queryValues = queryValues;
+		this.fragment = fragment;
+		this.uncompiled = uncompiled;
+	}
+
+	/**
+	 * キャッシュから取得する（ない場合は解析してキャッシュする）
+	 * @param template
+	 * @return
+	 */
+	public static CompiledUriTemplate of(String template) {
+		return CACHE.get(template);
+	}
+
+	/**
+	 * テンプレートを解析する（キャッシュしない）
+	 * @param template
+	 * @return
+	 */
+	public static CompiledUriTemplate compile(String template) {
+		UriComponents components = UriComponentsBuilder.fromUriString(template).build();
+		String host = components.getHost();
+		MultiValueMap<String, String> query = components.getQueryParams();
+		int port;
+		try {
+			port = components.getPort();
+		} catch (IllegalStateException e) {
+			// ポートに変数を含む（または数値でない）
+			return uncompiled(template);
+		}
+		if (components.getSchemeSpecificPart() != null // スキーム固有部分のみのURI
+				|| (host != null && host.startsWith("["))
+				|| hasVariable(components.getScheme()) || hasVariable(components.getUserInfo()) || hasVariable(host)
+				|| query.keySet().stream().anyMatch(CompiledUriTemplate::hasVariable)) {
+			return uncompiled(template);
+		}
+
+		StringBuilder prefix = new StringBuilder();
+		if (components.getScheme() != null) {
+			prefix.append(UriUtils.encodeScheme(components.getScheme(), StandardCharsets.UTF_8)).append(':');
+		}
+		if (components.getUserInfo() != null || host != null) {
+			prefix.append("//");
+			if (components.getUserInfo() != null) {
+				prefix.append(UriUtils.encodeUserInfo(components.getUserInfo(), StandardCharsets.UTF_8)).append('@');
+			}
+			if (host != null) {
+				prefix.append(UriUtils.encodeHost(host, StandardCharsets.UTF_8));
+			}
+			if (port != -1) {
+				prefix.append(':').append(port);
+			}
+		}
+
+		String[] queryNames = new String[countValues(query)];
+		Part[][] queryValues = new Part[queryNames.length][];
+		int i = 0;
+		for (Map.Entry<String, List<String>> entry : query.entrySet()) {
+			for (String value : entry.getValue()) {
+				queryNames[i] = UriUtils.encodeQueryParam(entry.getKey(), StandardCharsets.UTF_8);
+				queryValues[i++] = value != null ? parse(value, CompiledUriTemplate::encodeQueryParam) : null;
+			}
+		}
+
+		return new CompiledUriTemplate(template, prefix.toString(),
+				parse(components.getPath(), CompiledUriTemplate::encodePath),
+				queryNames, queryValues,
+				components.getFragment() != null ? parse(components.getFragment(), CompiledUriTemplate::encodeFragment) : null,
+				false);
+	}
+
+	private static CompiledUriTemplate uncompiled(String template) {
+		return new CompiledUriTemplate(template, null, null, null, null, null, true);
+	}
+
+	public String getTemplate() {
+		return template;
+	}
+
+	/**
+	 * URIを生成する
+	 * @param pathParamNames パスパラメータ名
+	 * @param pathParamValues パスパラメータ値（pathParamNamesと同じ順）
+	 * @param queryParamNames 追加するクエリパラメータ名（テンプレートに同名のパラメータがある場合はその直後に追加する）
+	 * @param queryParamValues 追加するクエリパラメータ値（queryParamNamesと同じ順、nullの場合は「name」のみ）
+	 * @return エンコード済みのURI
+	 * @throws IllegalArgumentException テンプレートの変数に対応するパスパラメータがない場合
+	 */
+	public URI expand(List<String> pathParamNames, List<?> pathParamValues,
+			List<String> queryParamNames, List<?> queryParamValues) {
+		if (uncompiled) {
+			return expandUncompiled(pathParamNames, pathParamValues, queryParamNames, queryParamValues);
+		}
+
+		StringBuilder sb = new StringBuilder(template.length() + 32);
+		sb.append(prefix);
+		int pathStart = sb.length();
+		append(sb, path, pathParamNames, pathParamValues);
+		if (sb.length() > pathStart && pathStart > 0 && sb.charAt(pathStart) != '/') {
+			sb.insert(pathStart, '/');
+		}
+
+		// クエリ（テンプレートのパラメータと同名のものは、テンプレートの同名のパラメータの直後に並べる）
+		boolean first = true;
+		boolean[] appended = queryNames.length > 0 ? new boolean[queryParamNames.size()] : null;
+		for (int i = 0; i < queryNames.length; i++) {
+			first = appendQueryParam(sb, first, queryNames[i]);
+			if (queryValues[i] != null) {
+				sb.append('=');
+				append(sb, queryValues[i], pathParamNames, pathParamValues);
+			}
+			if (i + 1 == queryNames.length || !queryNames[i + 1].equals(queryNames[i])) {
+				for (int j = 0; j < queryParamNames.size(); j++) {
+					if (!appended[j] && encodeQueryParam(queryParamNames.get(j)).equals(queryNames[i])) {
+						first = appendQueryParam(sb, first, queryParamNames.get(j), queryParamValues.get(j));
+						appended[j] = true;
+					}
+				}
+			}
+		}
+		for (int j = 0; j < queryParamNames.size(); j++) {
+			if (appended == null || !appended[j]) {
+				first = appendQueryParam(sb, first, queryParamNames.get(j), queryParamValues.get(j));
+			}
+		}
+
+		if (fragment != null) {
+			sb.append('#');
+			append(sb, fragment, pathParamNames, pathParamValues);
+		}
+		return toUri(sb.toString());
+	}
+
+	/**
+	 * UriComponentsBuilderでURIを生成する（解析済みにできないテンプレート）
+	 */
+	private URI expandUncompiled(List<String> pathParamNames, List<?> pathParamValues,
+			List<String> queryParamNames, List<?> queryParamValues) {
+		UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUriString(template);
+		for (int i = 0; i < queryParamNames.size(); i++) {
+			uriBuilder.queryParam(queryParamNames.get(i), queryParamValues.get(i));
+		}
+		return uriBuilder.build()
+				.expand(name -> valueOf(name, pathParamNames, pathParamValues))
+				.encode()
+				.toUri();
+	}
+
+	private static boolean appendQueryParam(StringBuilder sb, boolean first, String encodedName) {
+		sb.append(first ? '?' : '&').append(encodedName);
+		return false;
+	}
+
+	private static boolean appendQueryParam(StringBuilder sb, boolean first, String name, Object value) {
+		appendQueryParam(sb, first, encodeQueryParam(name));
+		if (value != null) {
+			sb.append('=').append(encodeQueryParam(value.toString()));
+		}
+		return false;
+	}
+
+	private static void append(StringBuilder sb, Part[] parts, List<String> names, List<?> values) {
+		for (Part part : parts) {
+			if (part.variable == null) {
+				sb.append(part.literal);
+			} else {
+				Object value = valueOf(part.variable, names, values);
+				sb.append(part.encoder.apply(value != null ? value.toString() : ""));
+			}
+		}
+	}
+
+	private static Object valueOf(String name, List<String> names, List<?> values) {
+		for (int i = 0; i < names.size(); i++) {
+			if (names.get(i).equals(name)) {
+				return values.get(i);
+			}
+		}
+		// UriComponents#expand(Map)と同じメッセージ
+		throw new IllegalArgumentException("Map has no value for '" + name + "'");
+	}
+
+	private static URI toUri(String uri) {
+		try {
+			return new URI(uri);
+		} catch (URISyntaxException e) {
+			throw new IllegalStateException("Could not create URI object: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * 固定部分と変数に分割する（固定部分はエンコードしておく）
+	 * @param source
+	 * @param encoder
+	 * @return
+	 */
+	private static Part[] parse(String source, UnaryOperator<String> encoder) {
+		if (source == null || source.isEmpty()) {
+			return new Part[0];
+		}
+		if (source.indexOf('{') == -1) {
+			return new Part[] { new Part(encoder.apply(source), null, null) };
+		}
+		if (source.indexOf(':') != -1) {
+			source = sanitize(source);
+		}
+
+		List<Part> parts = new ArrayList<>();
+		Matcher matcher = NAMES_PATTERN.matcher(source);
+		int last = 0;
+		while (matcher.find()) {
+			if (matcher.start() > last) {
+				parts.add(new Part(encoder.apply(source.substring(last, matcher.start())), null, null));
+			}
+			String match = matcher.group(1);
+			int colon = match.indexOf(':');
+			parts.add(new Part(null, colon != -1 ? match.substring(0, colon) : match, encoder));
+			last = matcher.end();
+		}
+		if (last < source.length()) {
+			parts.add(new Part(encoder.apply(source.substring(last)), null, null));
+		}
+		return parts.toArray(new Part[0]);
+	}
+
+	/**
+	 * 正規表現付きの変数（{name:\d{3}}）の入れ子の括弧を除く（UriComponentsと同じ処理）
+	 * @param source
+	 * @return
+	 */
+	private static String sanitize(String source) {
+		int level = 0;
+		StringBuilder sb = new StringBuilder(source.length());
+		for (int i = 0; i < source.length(); i++) {
+			char c = source.charAt(i);
+			if (c == '{') {
+				level++;
+			}
+			if (c == '}') {
+				level--;
+			}
+			if (level > 1 || (level == 1 && c == '}')) {
+				continue;
+			}
+			sb.append(c);
+		}
+		return sb.toString();
+	}
+
+	private static boolean hasVariable(String source) {
+		return source != null && NAMES_PATTERN.matcher(source).find();
+	}
+
+	private static int countValues(MultiValueMap<String, String> query) {
+		int count = 0;
+		for (List<String> values : query.values()) {
+			count += values.size();
+		}
+		return count;
+	}
+
+	private static String encodePath(String source) {
+		return UriUtils.encodePath(source, StandardCharsets.UTF_8);
+	}
+
+	private static String encodeQueryParam(String source) {
+		return UriUtils.encodeQueryParam(source, StandardCharsets.UTF_8);
+	}
+
+	private static String encodeFragment(String source) {
+		return UriUtils.encodeFragment(source, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public String toString() {
+		return template;
+	}
+
+	/**
+	 * テンプレートの構成要素（固定部分、または変数）
+	 */
+	private static final class Part {
+		/** エンコード済みの固定部分（変数の場合はnull） */
+		private final String literal;
+		/** 変数名（固定部分の場合はnull） */
+		private final String variable;
+		/** 変数の値のエンコード */
+		private final UnaryOperator<String> encoder;
+
+		private Part(String literal, String variable, UnaryOperator<String> encoder) {
+			this.literal = literal;
+			this.variable = variable;
+			this.encoder = encoder;
+		}
+	}
+}
@@ -2,34 +2,54 @@ package com.example.web_client_prototype.biz;
 
 import java.net.URI;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import com.example.web_client_prototype.biz.error.ErrorResponseHandler;
 import com.example.web_client_prototype.biz.logging.LoggingBodyInserter;
-import com.example.web_client_prototype.exception.ClientErrorException;
-import com.example.web_client_prototype.exception.ServerErrorException;
-import com.example.web_client_prototype.exception.UnknownErrorException;
+import com.example.web_client_prototype.exception.CircuitBreakerOpenException;
+import com.example.web_client_prototype.exception.ConcurrencyLimitExceededException;
+import com.example.web_client_prototype.exception.DeadlineExceededException;
+import com.example.web_client_prototype.exception.ErrorStatusException;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
  * WebClientを使用したAPI疎通クラス
+ * 各メソッドは以下の3種類を提供する
+ *  - 同期版：block()で結果を待つ（非同期版の薄いラッパー）
+ *  - 非同期版（〜Async / 〜Flux）：Mono / Fluxを返却し、呼び出し元で合成できる
+ *  - Future版（〜Future）：CompletableFutureを返却する
+ * 〜WithHandleの2xx系以外の扱いはErrorResponseHandler（webclient.error.mode）に従う
+ * （RETURN_STATUSの場合、ResponseEntityを返却するメソッドは例外にせず、ステータス・ヘッダーのみのResponseEntityを返却する）
  */
 @Component
 public class WebApiClient {
 
 	private static final Logger logger = LoggerFactory.getLogger(WebApiClient.class);
-	
+
+	/** 要素ごとの取得（〜FluxWithHandle / 〜StreamWithHandle / 〜IteratorWithHandle）で先読みする要素数（デフォルト） */
+	public static final int DEFAULT_STREAM_PREFETCH = 256;
+
 	@Autowired
 	private WebClient webClient;
 
+	/** 2xx系以外のレスポンスの処理（webclient.error.〜） */
+	@Autowired
+	private ErrorResponseHandler errorResponseHandler;
+
 	/**
 	 * GETリクエストを行ない、レスポンスボディを指定した型で取得
 	 * @param uri
@@ -37,11 +57,43 @@ public class WebApiClient {
 	 * @return
 	 */
 	public <T> T getBody(URI uri, Class<T> responseType) {
+		return getBodyAsync(uri, responseType).block();
+	}
+
+	/**
+	 * GETリクエストを行ない、レスポンスボディを指定した型で取得（非同期）
+	 * @param uri
+	 * @param responseType
+	 * @return
+	 */
+	public <T> Mono<T> getBodyAsync(URI uri, Class<T> responseType) {
 		return webClient.get()
 				.uri(uri)
 				.retrieve() // リクエスト送信
-				.bodyToMono(responseType) // レスポンスボディを指定した型で受け取る
-				.block();
+				.bodyToMono(responseType); // レスポンスボディを指定した型で受け取る
+	}
+
+	/**
+	 * GETリクエストを行ない、レスポンスボディを指定した型で取得（Future）
+	 * @param uri
+	 * @param responseType
+	 * @return
+	 */
+	public <T> CompletableFuture<T> getBodyFuture(URI uri, Class<T> responseType) {
+		return getBodyAsync(uri, responseType).toFuture();
+	}
+
+	/**
+	 * GETリクエストを行ない、レスポンスボディ（配列）を指定した型の要素ごとに取得（非同期）
+	 * @param uri
+	 * @param elementType
+	 * @return
+	 */
+	public <T> Flux<T> getBodyFlux(URI uri, Class<T> elementType) {
+		return webClient.get()
+				.uri(uri)
+				.retrieve()
+				.bodyToFlux(elementType);
 	}
 
 	/**
@@ -51,27 +103,32 @@ public class WebApiClient {
 	 * @return
 	 */
 	public <T> T getBodyWithHandleStatus(URI uri, Class<T> responseType) {
+		return getBodyWithHandleStatusAsync(uri, responseType).block();
+	}
+
+	/**
+	 * GETリクエストを行ない、レスポンスボディを指定した型で取得（非同期）
+	 * @param uri
+	 * @param responseType
+	 * @return
+	 */
+	public <T> Mono<T> getBodyWithHandleStatusAsync(URI uri, Class<T> responseType) {
 		return webClient.get()
 				.uri(uri)
 				.retrieve() // リクエスト送信
-				.onStatus(status -> status.is4xxClientError(), res -> {
-					// 4xx系エラー
-					return res.createException().flatMap(ex -> Mono
-							.error(new ClientErrorException("Client Error: " + ex.getMessage(), ex.getStatusCode())));
-				})
-				.onStatus(status -> status.is5xxServerError(), res -> {
-					// 5xx系エラー
-					return res.createException()
-							.flatMap(ex -> Mono.error(new ServerErrorException("Server Error: " + ex.getMessage())));
-				})
-				.onStatus(status-> !status.is2xxSuccessful(), res -> {
-					// 2xx系以外
-					return res.createException()
-							.flatMap(ex -> Mono
-									.error(new UnknownErrorException("Unexpected Error: " + ex.getMessage())));
-				})
-				.bodyToMono(responseType) // レスポンスボディを指定した型で受け取る
-				.block();
+				.onStatus(status -> !status.is2xxSuccessful(), // 2xx系以外はカスタム例外
+						res -> errorResponseHandler.createException(res, HttpMethod.GET, uri))
+				.bodyToMono(responseType); // レスポンスボディを指定した型で受け取る
+	}
+
+	/**
+	 * GETリクエストを行ない、レスポンスボディを指定した型で取得（Future）
+	 * @param uri
+	 * @param responseType
+	 * @return
+	 */
+	public <T> CompletableFuture<T> getBodyWithHandleStatusFuture(URI uri, Class<T> responseType) {
+		return getBodyWithHandleStatusAsync(uri, responseType).toFuture();
 	}
 
 	/**
@@ -82,11 +139,30 @@ public class WebApiClient {
 	 * @return
 	 */
 	public <T> T getBody(URI uri, ParameterizedTypeReference<T> responseType) {
+		return getBodyAsync(uri, responseType).block();
+	}
+
+	/**
+	 * GETリクエストを行ない、レスポンスボディを指定した型で取得（ジェネリクスを含む、非同期）
+	 * @param uri
+	 * @param responseType
+	 * @return
+	 */
+	public <T> Mono<T> getBodyAsync(URI uri, ParameterizedTypeReference<T> responseType) {
 		return webClient.get()
 				.uri(uri)
 				.retrieve()
-				.bodyToMono(responseType)
-				.block();
+				.bodyToMono(responseType);
+	}
+
+	/**
+	 * GETリクエストを行ない、レスポンスボディを指定した型で取得（ジェネリクスを含む、Future）
+	 * @param uri
+	 * @param responseType
+	 * @return
+	 */
+	public <T> CompletableFuture<T> getBodyFuture(URI uri, ParameterizedTypeReference<T> responseType) {
+		return getBodyAsync(uri, responseType).toFuture();
 	}
 
 	/**
@@ -96,11 +172,30 @@ public class WebApiClient {
 	 * @return
 	 */
 	public <T> ResponseEntity<T> getEntity(URI uri, Class<T> responseType) {
+		return getEntityAsync(uri, responseType).block();
+	}
+
+	/**
+	 * GETリクエストを行ない、指定した型のボディをもつResponseEntityを取得する（非同期）
+	 * @param uri
+	 * @param responseType
+	 * @return
+	 */
+	public <T> Mono<ResponseEntity<T>> getEntityAsync(URI uri, Class<T> responseType) {
 		return webClient.get()
 				.uri(uri)
 				.retrieve()
-				.toEntity(responseType)
-				.block();
+				.toEntity(responseType);
+	}
+
+	/**
+	 * GETリクエストを行ない、指定した型のボディをもつResponseEntityを取得する（Future）
+	 * @param uri
+	 * @param responseType
+	 * @return
+	 */
+	public <T> CompletableFuture<ResponseEntity<T>> getEntityFuture(URI uri, Class<T> responseType) {
+		return getEntityAsync(uri, responseType).toFuture();
 	}
 
 	/**
@@ -111,11 +206,32 @@ public class WebApiClient {
 	 * @return
 	 */
 	public <T> ResponseEntity<List<T>> getEntityList(URI uri, Class<T> responseType) {
+		return getEntityListAsync(uri, responseType).block();
+	}
+
+	/**
+	 * GETリクエストを行ない、指定した型のリストのボディをもつResponseEntityを取得する（非同期）
+	 * @param <T>
+	 * @param uri
+	 * @param responseType
+	 * @return
+	 */
+	public <T> Mono<ResponseEntity<List<T>>> getEntityListAsync(URI uri, Class<T> responseType) {
 		return webClient.get()
 				.uri(uri)
 				.retrieve()
-				.toEntityList(responseType)
-				.block();
+				.toEntityList(responseType);
+	}
+
+	/**
+	 * GETリクエストを行ない、指定した型のリストのボディをもつResponseEntityを取得する（Future）
+	 * @param <T>
+	 * @param uri
+	 * @param responseType
+	 * @return
+	 */
+	public <T> CompletableFuture<ResponseEntity<List<T>>> getEntityListFuture(URI uri, Class<T> responseType) {
+		return getEntityListAsync(uri, responseType).toFuture();
 	}
 
 	/**
@@ -127,31 +243,41 @@ public class WebApiClient {
 	 * @return
 	 */
 	public <T> T getBodyWithHandle(URI uri, Class<T> responseType) {
+		return getBodyWithHandleAsync(uri, responseType).block();
+	}
+
+	/**
+	 * GETリクエストを行ない、レスポンスボディを指定した型で取得（非同期）
+	 * エラー時はカスタム例外をエラーシグナルとして通知する
+	 * @param <T>
+	 * @param uri
+	 * @param responseType
+	 * @return
+	 */
+	public <T> Mono<T> getBodyWithHandleAsync(URI uri, Class<T> responseType) {
 		return webClient.get()
 				.uri(uri)
 				.exchangeToMono(res -> { // ClientResponseが返却される
-					if (res.statusCode().is4xxClientError()) {
-						// 4xxエラー
-						return res.createException()
-								.flatMap(
-										ex -> Mono.error(new ClientErrorException("Client Error: " + ex.getMessage(),
-												ex.getStatusCode())));
-					} else if (res.statusCode().is5xxServerError()) {
-						// 5xxエラー
-						return res.createException()
-								.flatMap(
-										ex -> Mono.error(new ServerErrorException("Server Error: " + ex.getMessage())));
-					} else if (!res.statusCode().is2xxSuccessful()) {
-						// 想定外エラー（2xx, 4xx, 5xx以外）
-						return res.createException()
-								.flatMap(ex -> Mono
-										.error(new UnknownErrorException("Unexpected Error: " + ex.getMessage())));
+					if (errorResponseHandler.isError(res)) {
+						// 2xx系以外
+						return errorResponseHandler.handleError(res, HttpMethod.GET, uri);
 					}
 
 					// 2xxステータス
 					return res.bodyToMono(responseType);
-				})
-				.block();
+				});
+	}
+
+	/**
+	 * GETリクエストを行ない、レスポンスボディを指定した型で取得（Future）
+	 * エラー時はカスタム例外で例外完了する
+	 * @param <T>
+	 * @param uri
+	 * @param responseType
+	 * @return
+	 */
+	public <T> CompletableFuture<T> getBodyWithHandleFuture(URI uri, Class<T> responseType) {
+		return getBodyWithHandleAsync(uri, responseType).toFuture();
 	}
 
 	/**
@@ -163,31 +289,120 @@ public class WebApiClient {
 	 * @return
 	 */
 	public <T> List<T> getBodyListWithHandle(URI uri, Class<T> responseType) {
+		return getBodyListWithHandleAsync(uri, responseType).block();
+	}
+
+	/**
+	 * GETリクエストを行ない、レスポンスボディを指定した型のリストで取得（非同期）
+	 * エラー時はカスタム例外をエラーシグナルとして通知する
+	 * @param <T>
+	 * @param uri
+	 * @param responseType
+	 * @return
+	 */
+	public <T> Mono<List<T>> getBodyListWithHandleAsync(URI uri, Class<T> responseType) {
+		return getBodyFluxWithHandle(uri, responseType).collectList();
+	}
+
+	/**
+	 * GETリクエストを行ない、レスポンスボディを指定した型のリストで取得（Future）
+	 * エラー時はカスタム例外で例外完了する
+	 * @param <T>
+	 * @param uri
+	 * @param responseType
+	 * @return
+	 */
+	public <T> CompletableFuture<List<T>> getBodyListWithHandleFuture(URI uri, Class<T> responseType) {
+		return getBodyListWithHandleAsync(uri, responseType).toFuture();
+	}
+
+	/**
+	 * GETリクエストを行ない、レスポンスボディ（配列）を指定した型の要素ごとに取得（非同期）
+	 * エラー時はカスタム例外をエラーシグナルとして通知する
+	 * @param <T>
+	 * @param uri
+	 * @param elementType
+	 * @return
+	 */
+	public <T> Flux<T> getBodyFluxWithHandle(URI uri, Class<T> elementType) {
+		return getBodyFluxWithHandle(uri, elementType, DEFAULT_STREAM_PREFETCH);
+	}
+
+	/**
+	 * GETリクエストを行ない、レスポンスボディ（配列）を指定した型の要素ごとに取得（非同期）
+	 * 要素は受信したDataBufferからパースした順に通知し、レスポンス全体をメモリに保持しない
+	 * 呼び出し元が処理していない要素はprefetch件までしか要求しない（超えた分は受信を待たせる）
+	 * エラー時はカスタム例外をエラーシグナルとして通知する
+	 * @param <T>
+	 * @param uri
+	 * @param elementType
+	 * @param prefetch 先読みする要素数の上限
+	 * @return
+	 */
+	public <T> Flux<T> getBodyFluxWithHandle(URI uri, Class<T> elementType, int prefetch) {
 		return webClient.get()
 				.uri(uri)
-				.exchangeToMono(res -> { // ClientResponseが返却される
-					if (res.statusCode().is4xxClientError()) {
-						// 4xxエラー
-						return res.createException()
-								.flatMap(
-										ex -> Mono.error(new ClientErrorException("Client Error: " + ex.getMessage(),
-												ex.getStatusCode())));
-					} else if (res.statusCode().is5xxServerError()) {
-						// 5xxエラー
-						return res.createException()
-								.flatMap(
-										ex -> Mono.error(new ServerErrorException("Server Error: " + ex.getMessage())));
-					} else if (!res.statusCode().is2xxSuccessful()) {
-						// 想定外エラー（2xx, 4xx, 5xx以外）
-						return res.createException()
-								.flatMap(ex -> Mono
-										.error(new UnknownErrorException("Unexpected Error: " + ex.getMessage())));
+				.exchangeToFlux(res -> { // ClientResponseが返却される
+					if (errorResponseHandler.isError(res)) {
+						// 2xx系以外
+						return errorResponseHandler.<T>handleError(res, HttpMethod.GET, uri).flux();
 					}
 
 					// 2xxステータス
-					return res.bodyToFlux(responseType).collectList();
+					return res.bodyToFlux(elementType);
 				})
-				.block();
+				.limitRate(prefetch);
+	}
+
+	/**
+	 * GETリクエストを行ない、レスポンスボディ（配列）を指定した型の要素ごとのStreamで取得
+	 * 要素は受信した順に返却する（レスポンス全体をメモリに保持しない）
+	 * 途中で読み込みをやめる場合に通信を終了するため、try-with-resourcesで使用する
+	 * エラー時はカスタム例外をスローする（Streamの読み込み中）
+	 * @param <T>
+	 * @param uri
+	 * @param elementType
+	 * @return
+	 */
+	public <T> Stream<T> getBodyStreamWithHandle(URI uri, Class<T> elementType) {
+		return getBodyStreamWithHandle(uri, elementType, DEFAULT_STREAM_PREFETCH);
+	}
+
+	/**
+	 * GETリクエストを行ない、レスポンスボディ（配列）を指定した型の要素ごとのStreamで取得
+	 * @param <T>
+	 * @param uri
+	 * @param elementType
+	 * @param prefetch 先読みする要素数の上限
+	 * @return
+	 */
+	public <T> Stream<T> getBodyStreamWithHandle(URI uri, Class<T> elementType, int prefetch) {
+		return getBodyFluxWithHandle(uri, elementType, prefetch).toStream(prefetch);
+	}
+
+	/**
+	 * GETリクエストを行ない、レスポンスボディ（配列）を指定した型の要素ごとのIteratorで取得
+	 * 途中で読み込みをやめる場合に通信を終了するため、try-with-resourcesで使用する
+	 * エラー時はカスタム例外をスローする（Iteratorの読み込み中）
+	 * @param <T>
+	 * @param uri
+	 * @param elementType
+	 * @return
+	 */
+	public <T> CloseableIterator<T> getBodyIteratorWithHandle(URI uri, Class<T> elementType) {
+		return getBodyIteratorWithHandle(uri, elementType, DEFAULT_STREAM_PREFETCH);
+	}
+
+	/**
+	 * GETリクエストを行ない、レスポンスボディ（配列）を指定した型の要素ごとのIteratorで取得
+	 * @param <T>
+	 * @param uri
+	 * @param elementType
+	 * @param prefetch 先読みする要素数の上限
+	 * @return
+	 */
+	public <T> CloseableIterator<T> getBodyIteratorWithHandle(URI uri, Class<T> elementType, int prefetch) {
+		return CloseableIterator.of(getBodyStreamWithHandle(uri, elementType, prefetch));
 	}
 
 	/**
@@ -199,31 +414,41 @@ public class WebApiClient {
 	 * @return
 	 */
 	public <T> ResponseEntity<T> getEntityWithHandle(URI uri, Class<T> responseType) {
+		return getEntityWithHandleAsync(uri, responseType).block();
+	}
+
+	/**
+	 * GETリクエストを行ない、指定した型のレスポンスボディを保持するResponseEntityで取得（非同期）
+	 * エラー時はカスタム例外をエラーシグナルとして通知する
+	 * @param <T>
+	 * @param uri
+	 * @param responseType
+	 * @return
+	 */
+	public <T> Mono<ResponseEntity<T>> getEntityWithHandleAsync(URI uri, Class<T> responseType) {
 		return webClient.get()
 				.uri(uri)
 				.exchangeToMono(res -> { // ClientResponseが返却される
-					if (res.statusCode().is4xxClientError()) {
-						// 4xxエラー
-						return res.createException()
-								.flatMap(
-										ex -> Mono.error(new ClientErrorException("Client Error: " + ex.getMessage(),
-												ex.getStatusCode())));
-					} else if (res.statusCode().is5xxServerError()) {
-						// 5xxエラー
-						return res.createException()
-								.flatMap(
-										ex -> Mono.error(new ServerErrorException("Server Error: " + ex.getMessage())));
-					} else if (!res.statusCode().is2xxSuccessful()) {
-						// 想定外エラー（2xx, 4xx, 5xx以外）
-						return res.createException()
-								.flatMap(ex -> Mono
-										.error(new UnknownErrorException("Unexpected Error: " + ex.getMessage())));
+					if (errorResponseHandler.isError(res)) {
+						// 2xx系以外
+						return errorResponseHandler.handleEntityError(res, HttpMethod.GET, uri);
 					}
 
 					// 2xxステータス
 					return res.toEntity(responseType);
-				})
-				.block();
+				});
+	}
+
+	/**
+	 * GETリクエストを行ない、指定した型のレスポンスボディを保持するResponseEntityで取得（Future）
+	 * エラー時はカスタム例外で例外完了する
+	 * @param <T>
+	 * @param uri
+	 * @param responseType
+	 * @return
+	 */
+	public <T> CompletableFuture<ResponseEntity<T>> getEntityWithHandleFuture(URI uri, Class<T> responseType) {
+		return getEntityWithHandleAsync(uri, responseType).toFuture();
 	}
 
 	/**
@@ -235,33 +460,44 @@ public class WebApiClient {
 	 * @return
 	 */
 	public <T> ResponseEntity<List<T>> getEntityListWithHandle(URI uri, Class<T> responseType) {
+		return getEntityListWithHandleAsync(uri, responseType).block();
+	}
+
+	/**
+	 * GETリクエストを行ない、指定した型のレスポンスボディのリストを保持するResponseEntityで取得（非同期）
+	 * エラー時はカスタム例外をエラーシグナルとして通知する
+	 * @param <T>
+	 * @param uri
+	 * @param responseType
+	 * @return
+	 */
+	public <T> Mono<ResponseEntity<List<T>>> getEntityListWithHandleAsync(URI uri, Class<T> responseType) {
 		return webClient.get()
 				.uri(uri)
 				.exchangeToMono(res -> { // ClientResponseが返却される
-					if (res.statusCode().is4xxClientError()) {
-						// 4xxエラー
-						return res.createException()
-								.flatMap(
-										ex -> Mono.error(new ClientErrorException("Client Error: " + ex.getMessage(),
-												ex.getStatusCode())));
-					} else if (res.statusCode().is5xxServerError()) {
-						// 5xxエラー
-						return res.createException()
-								.flatMap(
-										ex -> Mono.error(new ServerErrorException("Server Error: " + ex.getMessage())));
-					} else if (!res.statusCode().is2xxSuccessful()) {
-						// 想定外エラー（2xx, 4xx, 5xx以外）
-						return res.createException()
-								.flatMap(ex -> Mono
-										.error(new UnknownErrorException("Unexpected Error: " + ex.getMessage())));
+					if (errorResponseHandler.isError(res)) {
+						// 2xx系以外
+						return errorResponseHandler.handleEntityError(res, HttpMethod.GET, uri);
 					}
 
 					// 2xxステータス
 					return res.toEntityList(responseType);
-				})
-				.block();
+				});
+	}
+
+	/**
+	 * GETリクエストを行ない、指定した型のレスポンスボディのリストを保持するResponseEntityで取得（Future）
+	 * エラー時はカスタム例外で例外完了する
+	 * @param <T>
+	 * @param uri
+	 * @param responseType
+	 * @return
+	 */
+	public <T> CompletableFuture<ResponseEntity<List<T>>> getEntityListWithHandleFuture(URI uri,
+			Class<T> responseType) {
+		return getEntityListWithHandleAsync(uri, responseType).toFuture();
 	}
-	
+
 	/**
 	 * POST通信を行う
 	 * レスポンスはボディ部なしのResponseEntityで取得
@@ -270,57 +506,112 @@ public class WebApiClient {
 	 * @return
 	 */
 	public ResponseEntity<Void> postForEntityWithNoBody(URI uri, Object requestBody) {
+		return postForEntityWithNoBodyAsync(uri, requestBody).block();
+	}
+
+	/**
+	 * POST通信を行う（非同期）
+	 * レスポンスはボディ部なしのResponseEntityで取得
+	 * @param uri
+	 * @param requestBody
+	 * @return
+	 */
+	public Mono<ResponseEntity<Void>> postForEntityWithNoBodyAsync(URI uri, Object requestBody) {
 	    return webClient.post()
 	            .uri(uri)
 	            .bodyValue(requestBody)
 	            .retrieve()
-	            .toBodilessEntity() // レスポンスボディを無視
-	            .block();
+	            .toBodilessEntity(); // レスポンスボディを無視
 	}
-	
+
+	/**
+	 * POST通信を行う（Future）
+	 * レスポンスはボディ部なしのResponseEntityで取得
+	 * @param uri
+	 * @param requestBody
+	 * @return
+	 */
+	public CompletableFuture<ResponseEntity<Void>> postForEntityWithNoBodyFuture(URI uri, Object requestBody) {
+		return postForEntityWithNoBodyAsync(uri, requestBody).toFuture();
+	}
+
 	/**
 	 * POST通信を行う
 	 * HTTPステータスを返却
 	 * @param requestBody
 	 */
 	public HttpStatus postForStatus(URI uri, Object requestBody) {
+		return postForStatusAsync(uri, requestBody).block();
+	}
+
+	/**
+	 * POST通信を行う（非同期）
+	 * HTTPステータスを返却
+	 * @param requestBody
+	 */
+	public Mono<HttpStatus> postForStatusAsync(URI uri, Object requestBody) {
 	    return webClient.post()
 	            .uri(uri)
 	            .bodyValue(requestBody)
-	            .exchangeToMono(response -> Mono.just(response.statusCode()))
-	            .block();
+	            .exchangeToMono(response -> Mono.just(response.statusCode()));
+	}
+
+	/**
+	 * POST通信を行う（Future）
+	 * HTTPステータスを返却
+	 * @param requestBody
+	 */
+	public CompletableFuture<HttpStatus> postForStatusFuture(URI uri, Object requestBody) {
+		return postForStatusAsync(uri, requestBody).toFuture();
 	}
-	
 
+	/**
+	 * POST通信を行う
+	 * レスポンスはボディ部なしのResponseEntityで取得
+	 * エラー時はカスタム例外をスローする
+	 * @param uri
+	 * @param requestBody
+	 * @return
+	 */
 	public ResponseEntity<Void> postForEntityWithHandle(URI uri, Object requestBody) {
+		return postForEntityWithHandleAsync(uri, requestBody).block();
+	}
+
+	/**
+	 * POST通信を行う（非同期）
+	 * レスポンスはボディ部なしのResponseEntityで取得
+	 * エラー時はカスタム例外をエラーシグナルとして通知する
+	 * @param uri
+	 * @param requestBody
+	 * @return
+	 */
+	public Mono<ResponseEntity<Void>> postForEntityWithHandleAsync(URI uri, Object requestBody) {
 		return webClient.post()
 				.uri(uri)
 				.body(LoggingBodyInserter.fromObject(requestBody)) // リクエストボディをログ出力
 				.exchangeToMono(res -> { // ClientResponseが返却される
-					if (res.statusCode().is4xxClientError()) {
-						// 4xxエラー
-						return res.createException()
-								.flatMap(
-										ex -> Mono.error(new ClientErrorException("Client Error: " + ex.getMessage(),
-												ex.getStatusCode())));
-					} else if (res.statusCode().is5xxServerError()) {
-						// 5xxエラー
-						return res.createException()
-								.flatMap(
-										ex -> Mono.error(new ServerErrorException("Server Error: " + ex.getMessage())));
-					} else if (!res.statusCode().is2xxSuccessful()) {
-						// 想定外エラー（2xx, 4xx, 5xx以外）
-						return res.createException()
-								.flatMap(ex -> Mono
-										.error(new UnknownErrorException("Unexpected Error: " + ex.getMessage())));
+					if (errorResponseHandler.isError(res)) {
+						// 2xx系以外
+						return errorResponseHandler.handleEntityError(res, HttpMethod.POST, uri);
 					}
 
 					// 2xxステータス
 					return res.toEntity(Void.class);
-				})
-				.block();
+				});
 	}
-	
+
+	/**
+	 * POST通信を行う（Future）
+	 * レスポンスはボディ部なしのResponseEntityで取得
+	 * エラー時はカスタム例外で例外完了する
+	 * @param uri
+	 * @param requestBody
+	 * @return
+	 */
+	public CompletableFuture<ResponseEntity<Void>> postForEntityWithHandleFuture(URI uri, Object requestBody) {
+		return postForEntityWithHandleAsync(uri, requestBody).toFuture();
+	}
+
 	/**
 	 * GETリクエストを行ない、レスポンスボディを指定した型で取得
 	 * エラー時はカスタム例外をスローする
@@ -330,35 +621,35 @@ public class WebApiClient {
 	 * @return
 	 */
 	public <T> T getBodyWithHandleError(URI uri, Class<T> responseType) {
-		return webClient.get()
-				.uri(uri)
-				.exchangeToMono(res -> { // ClientResponseが返却される
-					if (res.statusCode().is4xxClientError()) {
-						// 4xxエラー
-						return res.createException()
-								.flatMap(
-										ex -> Mono.error(new ClientErrorException("Client Error: " + ex.getMessage(),
-												ex.getStatusCode())));
-					} else if (res.statusCode().is5xxServerError()) {
-						// 5xxエラー
-						return res.createException()
-								.flatMap(
-										ex -> Mono.error(new ServerErrorException("Server Error: " + ex.getMessage())));
-					} else if (!res.statusCode().is2xxSuccessful()) {
-						// 想定外エラー（2xx, 4xx, 5xx以外）
-						return res.createException()
-								.flatMap(ex -> Mono
-										.error(new UnknownErrorException("Unexpected Error: " + ex.getMessage())));
-					}
+		return getBodyWithHandleErrorAsync(uri, responseType).block();
+	}
 
-					// 2xxステータス
-					return res.bodyToMono(responseType);
-				})
+	/**
+	 * GETリクエストを行ない、レスポンスボディを指定した型で取得（非同期）
+	 * エラー時はカスタム例外をエラーシグナルとして通知する
+	 * @param <T>
+	 * @param uri
+	 * @param responseType
+	 * @return
+	 */
+	public <T> Mono<T> getBodyWithHandleErrorAsync(URI uri, Class<T> responseType) {
+		return getBodyWithHandleAsync(uri, responseType)
 				.doOnError(e -> {
 					// doOnError：エラーが発生したときにログ出力や通知などの副作用（ログ、監視）を行うだけ
 					logger.warn("WebClientエラー発生: {}", e.toString());
-				})
-				.block();
+				});
+	}
+
+	/**
+	 * GETリクエストを行ない、レスポンスボディを指定した型で取得（Future）
+	 * エラー時はカスタム例外で例外完了する
+	 * @param <T>
+	 * @param uri
+	 * @param responseType
+	 * @return
+	 */
+	public <T> CompletableFuture<T> getBodyWithHandleErrorFuture(URI uri, Class<T> responseType) {
+		return getBodyWithHandleErrorAsync(uri, responseType).toFuture();
 	}
 
 	/**
@@ -370,41 +661,43 @@ public class WebApiClient {
 	 * @return
 	 */
 	public <T> T getBodyWithHandleError2(URI uri, Class<T> responseType) {
-		return webClient.get()
-				.uri(uri)
-				.exchangeToMono(res -> { // ClientResponseが返却される
-					if (res.statusCode().is4xxClientError()) {
-						// 4xxエラー
-						return res.createException()
-								.flatMap(
-										ex -> Mono.error(new ClientErrorException("Client Error: " + ex.getMessage(),
-												ex.getStatusCode())));
-					} else if (res.statusCode().is5xxServerError()) {
-						// 5xxエラー
-						return res.createException()
-								.flatMap(
-										ex -> Mono.error(new ServerErrorException("Server Error: " + ex.getMessage())));
-					} else if (!res.statusCode().is2xxSuccessful()) {
-						// 想定外エラー（2xx, 4xx, 5xx以外）
-						return res.createException()
-								.flatMap(ex -> Mono
-										.error(new UnknownErrorException("Unexpected Error: " + ex.getMessage())));
-					}
+		return getBodyWithHandleError2Async(uri, responseType).block();
+	}
 
-					// 2xxステータス
-					return res.bodyToMono(responseType);
-				})
+	/**
+	 * GETリクエストを行ない、レスポンスボディを指定した型で取得（非同期）
+	 * エラー時はカスタム例外をエラーシグナルとして通知する
+	 * @param <T>
+	 * @param uri
+	 * @param responseType
+	 * @return
+	 */
+	public <T> Mono<T> getBodyWithHandleError2Async(URI uri, Class<T> responseType) {
+		return getBodyWithHandleAsync(uri, responseType)
 				.doOnError(e -> { // doOnError：エラーが発生したときにログ出力や通知などの副作用（ログ、監視）を行うだけ
 					logger.warn("WebClientエラー発生: {}", e.toString());
 				})
 				.onErrorResume(e -> { // リアクティブストリーム（Mono / Flux）内で発生した あらゆる例外（Throwable）をキャッチして処理する
-					if (e instanceof ClientErrorException || e instanceof ServerErrorException || e instanceof UnknownErrorException) {
+					if (e instanceof ErrorStatusException
+							|| e instanceof CircuitBreakerOpenException || e instanceof ConcurrencyLimitExceededException
+							|| e instanceof DeadlineExceededException) {
 						return Mono.error(e);
 					} else {
 						return Mono.error(new IllegalStateException("想定外エラー", e));
 					}
-				})
-				.block();
+				});
 	}
-	
+
+	/**
+	 * GETリクエストを行ない、レスポンスボディを指定した型で取得（Future）
+	 * エラー時はカスタム例外で例外完了する
+	 * @param <T>
+	 * @param uri
+	 * @param responseType
+	 * @return
+	 */
+	public <T> CompletableFuture<T> getBodyWithHandleError2Future(URI uri, Class<T> responseType) {
+		return getBodyWithHandleError2Async(uri, responseType).toFuture();
+	}
+
 }
@@ -1,20 +1,36 @@
 package com.example.web_client_prototype.biz;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import com.example.web_client_prototype.biz.cache.RequestCoalescer;
+import com.example.web_client_prototype.biz.error.ErrorHandlingMode;
+import com.example.web_client_prototype.biz.error.ErrorResponseHandler;
 import com.example.web_client_prototype.biz.logging.LoggingBodyInserter;
-import com.example.web_client_prototype.exception.ClientErrorException;
-import com.example.web_client_prototype.exception.ServerErrorException;
-import com.example.web_client_prototype.exception.UnknownErrorException;
+import com.example.web_client_prototype.biz.metrics.ExchangeMetricsFilter;
+import com.example.web_client_prototype.biz.resilience.Deadline;
+import com.example.web_client_prototype.biz.resilience.RequestHedger;
+import com.example.web_client_prototype.biz.resilience.TimeoutFilter;
+import com.example.web_client_prototype.exception.CircuitBreakerOpenException;
+import com.example.web_client_prototype.exception.ConcurrencyLimitExceededException;
+import com.example.web_client_prototype.exception.DeadlineExceededException;
+import com.example.web_client_prototype.exception.ErrorStatusException;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
 
 /**
  * 汎用的なAPIアクセスを行うヘルパー
@@ -23,10 +39,26 @@ import reactor.core.publisher.Mono;
 public class WebClientHelper {
 	/** ロガー */
 	private static final Logger logger = LoggerFactory.getLogger(WebClientHelper.class);
-	
+
+	/** 一括API通信の同時実行数（デフォルト） */
+	public static final int DEFAULT_BATCH_CONCURRENCY = 16;
+
 	@Autowired
 	private WebClient webClient;
-	
+
+	@Autowired
+	private RequestCoalescer requestCoalescer;
+
+	@Autowired
+	private RequestHedger requestHedger;
+
+	@Autowired
+	private ErrorResponseHandler errorResponseHandler;
+
+	/** 全体のタイムアウト（ミリ秒、WebClientRequestで指定がない場合。0の場合はなし） */
+	@Value("${webclient.timeout.total-millis:0}")
+	private long defaultTimeoutMillis;
+
 	/**
 	 * 汎用的なAPI通信を行う
 	 * @param <T>
@@ -35,63 +67,280 @@ public class WebClientHelper {
 	 * @return
 	 */
 	public <T> ResponseEntity<T> callForEntity(WebClientRequest req, ParameterizedTypeReference<T> typeRef) {
+		return call(req, typeRef).block();
+	}
+
+	/**
+	 * 汎用的なAPI通信を行う（非同期）
+	 * @param <T>
+	 * @param req
+	 * @param typeRef
+	 * @return
+	 */
+	public <T> Mono<ResponseEntity<T>> callForEntityAsync(WebClientRequest req,
+			ParameterizedTypeReference<T> typeRef) {
 		return call(req, typeRef);
 	}
-	
+
+	/**
+	 * 汎用的なAPI通信を行う（Future）
+	 * @param <T>
+	 * @param req
+	 * @param typeRef
+	 * @return
+	 */
+	public <T> CompletableFuture<ResponseEntity<T>> callForEntityFuture(WebClientRequest req,
+			ParameterizedTypeReference<T> typeRef) {
+		return call(req, typeRef).toFuture();
+	}
+
+	/**
+	 * 複数のAPI通信を同時実行数を制限して並行に行う
+	 * 結果は入力順に返却し、失敗したリクエストはBatchResult#getErrorで通知する（一括では失敗させない）
+	 * @param <T>
+	 * @param reqs
+	 * @param typeRef
+	 * @param maxConcurrency 同時に送信中とするリクエストの上限
+	 * @return
+	 */
+	public <T> List<BatchResult<T>> callForEntities(Collection<WebClientRequest> reqs,
+			ParameterizedTypeReference<T> typeRef, int maxConcurrency) {
+		return callForEntitiesAsync(reqs, typeRef, maxConcurrency).collectList().block();
+	}
+
+	/**
+	 * 複数のAPI通信を同時実行数（デフォルト）を制限して並行に行う
+	 * @param <T>
+	 * @param reqs
+	 * @param typeRef
+	 * @return
+	 */
+	public <T> List<BatchResult<T>> callForEntities(Collection<WebClientRequest> reqs,
+			ParameterizedTypeReference<T> typeRef) {
+		return callForEntities(reqs, typeRef, DEFAULT_BATCH_CONCURRENCY);
+	}
+
+	/**
+	 * 複数のAPI通信を同時実行数を制限して並行に行う（全体のタイムアウトあり）
+	 * 期限までに完了しなかったリクエスト（送信待ちを含む）はDeadlineExceededExceptionで失敗とする
+	 * @param <T>
+	 * @param reqs
+	 * @param typeRef
+	 * @param maxConcurrency 同時に送信中とするリクエストの上限
+	 * @param timeout 一括API通信全体のタイムアウト（各リクエストの期限は、これとリクエストごとのタイムアウトの早い方）
+	 * @return
+	 */
+	public <T> List<BatchResult<T>> callForEntities(Collection<WebClientRequest> reqs,
+			ParameterizedTypeReference<T> typeRef, int maxConcurrency, Duration timeout) {
+		return callForEntitiesAsync(reqs, typeRef, maxConcurrency, timeout).collectList().block();
+	}
+
+	/**
+	 * 複数のAPI通信を同時実行数を制限して並行に行う（非同期）
+	 * 結果は入力順に通知する
+	 * @param <T>
+	 * @param reqs
+	 * @param typeRef
+	 * @param maxConcurrency 同時に送信中とするリクエストの上限
+	 * @return
+	 */
+	public <T> Flux<BatchResult<T>> callForEntitiesAsync(Collection<WebClientRequest> reqs,
+			ParameterizedTypeReference<T> typeRef, int maxConcurrency) {
+		// flatMapSequential：並行に実行しつつ、先に完了した結果はバッファして入力順に並べ替える
+		return Flux.fromIterable(reqs)
+				.index()
+				.flatMapSequential(t -> callForBatchResult(t.getT1(), t.getT2(), typeRef), maxConcurrency);
+	}
+
+	/**
+	 * 複数のAPI通信を同時実行数を制限して並行に行う（非同期、全体のタイムアウトあり）
+	 * 結果は入力順に通知する
+	 * @param <T>
+	 * @param reqs
+	 * @param typeRef
+	 * @param maxConcurrency 同時に送信中とするリクエストの上限
+	 * @param timeout 一括API通信全体のタイムアウト（購読した時点から期限とする）
+	 * @return
+	 */
+	public <T> Flux<BatchResult<T>> callForEntitiesAsync(Collection<WebClientRequest> reqs,
+			ParameterizedTypeReference<T> typeRef, int maxConcurrency, Duration timeout) {
+		return callForEntitiesAsync(reqs, typeRef, maxConcurrency)
+				.contextWrite(ctx -> withDeadline(ctx, timeout));
+	}
+
+	/**
+	 * 複数のAPI通信を同時実行数を制限して並行に行う（非同期）
+	 * 結果は完了した順に通知する（入力順はBatchResult#getIndexで判別する）
+	 * @param <T>
+	 * @param reqs
+	 * @param typeRef
+	 * @param maxConcurrency 同時に送信中とするリクエストの上限
+	 * @return
+	 */
+	public <T> Flux<BatchResult<T>> callForEntitiesAsCompleted(Collection<WebClientRequest> reqs,
+			ParameterizedTypeReference<T> typeRef, int maxConcurrency) {
+		return Flux.fromIterable(reqs)
+				.index()
+				.flatMap(t -> callForBatchResult(t.getT1(), t.getT2(), typeRef), maxConcurrency);
+	}
+
+	/**
+	 * 複数のAPI通信を同時実行数を制限して並行に行う（非同期、全体のタイムアウトあり）
+	 * 結果は完了した順に通知する
+	 * @param <T>
+	 * @param reqs
+	 * @param typeRef
+	 * @param maxConcurrency 同時に送信中とするリクエストの上限
+	 * @param timeout 一括API通信全体のタイムアウト（購読した時点から期限とする）
+	 * @return
+	 */
+	public <T> Flux<BatchResult<T>> callForEntitiesAsCompleted(Collection<WebClientRequest> reqs,
+			ParameterizedTypeReference<T> typeRef, int maxConcurrency, Duration timeout) {
+		return callForEntitiesAsCompleted(reqs, typeRef, maxConcurrency)
+				.contextWrite(ctx -> withDeadline(ctx, timeout));
+	}
+
+	/**
+	 * 呼び出し元の期限とタイムアウトの早い方を期限とする
+	 * @param ctx
+	 * @param timeout
+	 * @return
+	 */
+	private static Context withDeadline(Context ctx, Duration timeout) {
+		return ctx.put(Deadline.CONTEXT_KEY, Deadline.earliest(Deadline.from(ctx), Deadline.after(timeout)));
+	}
+
+	/**
+	 * 1リクエスト分の通信を行い、成否をBatchResultに詰める
+	 * @param <T>
+	 * @param index
+	 * @param req
+	 * @param typeRef
+	 * @return
+	 */
+	private <T> Mono<BatchResult<T>> callForBatchResult(long index, WebClientRequest req,
+			ParameterizedTypeReference<T> typeRef) {
+		return call(req, typeRef)
+				.map(entity -> BatchResult.success(index, req, entity))
+				.onErrorResume(e -> Mono.just(BatchResult.failure(index, req, e)));
+	}
+
 	/**
 	 * リクエスト送信
+	 * 同一のGETリクエストが通信中の場合は、その結果を共有する（RequestCoalescer）
+	 * ヘッジリクエストの対象の場合は、応答が遅ければ同じリクエストを追加で送信する（RequestHedger）
+	 * RETURN_STATUSの場合は、共有・ヘッジの後で2xx系以外の例外をResponseEntityに変換する
+	 * 期限（呼び出し元の期限・WebClientRequestのdeadline / timeoutの早い方）はReactor Contextで
+	 * リトライ・ヘッジリクエストに伝播し、期限切れの場合は通信をキャンセルしてDeadlineExceededExceptionとする
+	 * 共有した通信は呼び出し元の最も遅い期限で行い、呼び出し元ごとに自身の期限で結果の待機を打ち切る
+	 * （全ての呼び出し元が打ち切った時点で通信をキャンセルする）
+	 * @param <T>
+	 * @param request
+	 * @param typeRef
+	 * @return
+	 */
+	private <T> Mono<ResponseEntity<T>> call(WebClientRequest req, ParameterizedTypeReference<T> typeRef) {
+		ErrorHandlingMode mode = errorResponseHandler.resolve(req.getErrorHandling());
+		Mono<ResponseEntity<T>> mono = Mono.deferContextual(ctx -> {
+			Mono<ResponseEntity<T>> coalesced = requestCoalescer.coalesce(req, typeRef.getType(),
+					() -> requestHedger.hedge(req, () -> exchange(req, typeRef, mode)));
+			Deadline deadline = deadlineFor(req, Deadline.from(ctx));
+			if (deadline == null) {
+				return coalesced;
+			}
+			if (deadline.isExpired()) {
+				// 送信前（一括API通信の送信待ちなど）に期限切れ
+				return Mono.error(new DeadlineExceededException(req.getMethod(), req.getUri()));
+			}
+			// 共有した通信の結果を待つ場合も、自身の期限で打ち切る
+			return coalesced
+					.timeout(deadline.remaining(),
+							Mono.error(() -> new DeadlineExceededException(req.getMethod(), req.getUri())))
+					.contextWrite(Deadline.context(deadline));
+		});
+		return (mode == ErrorHandlingMode.RETURN_STATUS)
+				? mono.onErrorResume(ErrorStatusException.class, errorResponseHandler::toStatusEntity)
+				: mono;
+	}
+
+	/**
+	 * リクエストの期限
+	 * @param req
+	 * @param inherited 呼び出し元の期限（Reactor Context）
+	 * @return 期限がない場合はnull
+	 */
+	private Deadline deadlineFor(WebClientRequest req, Deadline inherited) {
+		Deadline deadline = Deadline.earliest(inherited, req.getDeadline());
+		Duration timeout = (req.getTimeout() != null) ? req.getTimeout()
+				: (defaultTimeoutMillis > 0 ? Duration.ofMillis(defaultTimeoutMillis) : null);
+		return (timeout != null) ? Deadline.earliest(deadline, Deadline.after(timeout)) : deadline;
+	}
+
+	/**
+	 * リクエスト送信（1回分の通信）
 	 * @param <T>
 	 * @param request
 	 * @param typeRef
+	 * @param mode
 	 * @return
 	 */
-	private <T> ResponseEntity<T> call(WebClientRequest req, ParameterizedTypeReference<T> typeRef) {
+	private <T> Mono<ResponseEntity<T>> exchange(WebClientRequest req, ParameterizedTypeReference<T> typeRef,
+			ErrorHandlingMode mode) {
 	    WebClient.RequestBodySpec spec = webClient
 	        .method(req.getMethod())
 	        .uri(req.getUri())
 	        .headers(httpHeaders -> httpHeaders.addAll(req.getHeaders()));
+	    if (req.getUriTemplate() != null) {
+	        // メトリクスのラベル（展開前のURIテンプレート）
+	        spec.attribute(ExchangeMetricsFilter.URI_TEMPLATE_ATTRIBUTE, req.getUriTemplate());
+	    }
+	    if (req.getResponseTimeout() != null) {
+	        spec.attribute(TimeoutFilter.RESPONSE_TIMEOUT_ATTRIBUTE, req.getResponseTimeout());
+	    }
+	    if (req.getReadTimeout() != null) {
+	        spec.attribute(TimeoutFilter.READ_TIMEOUT_ATTRIBUTE, req.getReadTimeout());
+	    }
 
 	    Mono<ResponseEntity<T>> mono = (req.getBody() != null)
-	        ? spec.body(LoggingBodyInserter.fromObject(req.getBody())).exchangeToMono(res -> handleResponse(res, typeRef))
-	        : spec.exchangeToMono(res -> handleResponse(res, typeRef))
+	        ? spec.body(LoggingBodyInserter.fromObject(req.getBody())).exchangeToMono(res -> handleResponse(res, req, typeRef, mode))
+	        : spec.exchangeToMono(res -> handleResponse(res, req, typeRef, mode));
+
+	    return mono
 			.doOnError(e -> {
+				if (mode == ErrorHandlingMode.RETURN_STATUS && e instanceof ErrorStatusException) {
+					// 例外にしない（ResponseEntityで返却する）ため、ログ出力しない
+					return;
+				}
 				logger.warn("WebClientエラー発生: {}", e.toString());
 			})
 	        .onErrorResume(e -> {
 	            // 特定の想定された例外はそのまま通す
-	            if (e instanceof ClientErrorException ||
-	                e instanceof ServerErrorException ||
-	                e instanceof UnknownErrorException) {
+	            if (e instanceof ErrorStatusException ||
+	                e instanceof CircuitBreakerOpenException ||
+	                e instanceof ConcurrencyLimitExceededException ||
+	                e instanceof DeadlineExceededException) {
 	                return Mono.error(e); // rethrow
 	            } else {
 	                // 想定外の例外を IllegalStateException にラップして通知
 	                return Mono.error(new IllegalStateException("想定外エラー", e));
 	            }
 	        });
-
-	    return mono.block();
 	}
 
 	/**
 	 * API疎通結果（レスポンス）を制御する
 	 * @param <T>
 	 * @param res
+	 * @param req
 	 * @param typeRef
+	 * @param mode
 	 * @return 200ステータスの場合、ResponseEntityを返却
 	 */
-    private <T> Mono<ResponseEntity<T>> handleResponse(ClientResponse res, ParameterizedTypeReference<T> typeRef) {
-        if (res.statusCode().is4xxClientError()) {
-            return res.createException().flatMap(ex ->
-                Mono.error(new ClientErrorException("Client Error: " + ex.getMessage(), ex.getStatusCode()))
-            );
-        } else if (res.statusCode().is5xxServerError()) {
-            return res.createException().flatMap(ex ->
-                Mono.error(new ServerErrorException("Server Error: " + ex.getMessage()))
-            );
-        } else if (!res.statusCode().is2xxSuccessful()) {
-            return res.createException().flatMap(ex ->
-                Mono.error(new UnknownErrorException("Unexpected Error: " + ex.getMessage()))
-            );
+    private <T> Mono<ResponseEntity<T>> handleResponse(ClientResponse res, WebClientRequest req,
+    		ParameterizedTypeReference<T> typeRef, ErrorHandlingMode mode) {
+        if (errorResponseHandler.isError(res)) {
+            // 2xx系以外はカスタム例外（4xx：ClientErrorException / 5xx：ServerErrorException / それ以外：UnknownErrorException）
+            return errorResponseHandler.handleError(res, req.getMethod(), req.getUri(), mode);
         }
 
         return res.toEntity(typeRef);
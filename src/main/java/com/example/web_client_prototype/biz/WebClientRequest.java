@@ -1,13 +1,15 @@
 package com.example.web_client_prototype.biz;
 
 import java.net.URI;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
-import org.springframework.web.util.UriComponentsBuilder;
+
+import com.example.web_client_prototype.biz.error.ErrorHandlingMode;
+import com.example.web_client_prototype.biz.resilience.Deadline;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -29,6 +31,20 @@ public class WebClientRequest {
 	private final URI uri;
 	private HttpHeaders headers;
 	private final Object body;
+	/** URIテンプレート（パスパラメータ展開前、エンドポイントごとの集計に使用） */
+	private final String uriTemplate;
+	/** ヘッジリクエスト（応答が遅い場合に同じリクエストを追加で送信する）を行うか */
+	private final boolean hedge;
+	/** 2xx系以外のレスポンスの扱い（nullの場合はwebclient.error.mode） */
+	private final ErrorHandlingMode errorHandling;
+	/** 全体のタイムアウト（リトライ・ヘッジリクエストを含む、送信開始時から期限とする。nullの場合はwebclient.timeout.total-millis） */
+	private final Duration timeout;
+	/** レスポンスヘッダー受信までのタイムアウト（試行ごと。nullの場合はwebclient.timeout.response-millis） */
+	private final Duration responseTimeout;
+	/** レスポンスボディの受信間隔のタイムアウト（nullの場合はwebclient.timeout.read-millis） */
+	private final Duration readTimeout;
+	/** 呼び出し元から引き継いだ期限（timeoutと両方ある場合は早い方） */
+	private final Deadline deadline;
 	
 	/** WebClientRequest構築後に別途ヘッダーを設定したいとき */
 	public void addHeader(String name, String val) {
@@ -44,8 +60,19 @@ public class WebClientRequest {
 		private HttpHeaders headers = new HttpHeaders();
 		private Object body;
 		private String urlTemplate;
-		private final Map<String, Object> queryParams = new HashMap<>();
-		private final Map<String, Object> pathParams = new HashMap<>();
+		private CompiledUriTemplate compiledTemplate;
+		private boolean hedge;
+		private ErrorHandlingMode errorHandling;
+		private Duration timeout;
+		private Duration responseTimeout;
+		private Duration readTimeout;
+		private Deadline deadline;
+		/** クエリパラメータ（名前 / 値を設定順に保持） */
+		private final List<String> queryParamNames = new ArrayList<>();
+		private final List<String> queryParamValues = new ArrayList<>();
+		/** パスパラメータ（名前 / 値を設定順に保持） */
+		private final List<String> pathParamNames = new ArrayList<>();
+		private final List<String> pathParamValues = new ArrayList<>();
 
 
         public Builder method(HttpMethod method) {
@@ -64,21 +91,75 @@ public class WebClientRequest {
         	return this;
         }
         
+        /** URIテンプレートの解析結果はキャッシュする（CompiledUriTemplate） */
         public Builder url(String urlTemplate) {
             this.urlTemplate = urlTemplate;
+            this.compiledTemplate = null;
+            return this;
+        }
+        
+        /** 解析済みのURIテンプレート（定数として保持したもの）を使用する */
+        public Builder url(CompiledUriTemplate urlTemplate) {
+            this.urlTemplate = urlTemplate != null ? urlTemplate.getTemplate() : null;
+            this.compiledTemplate = urlTemplate;
+            return this;
+        }
+        
+        /** べき等なメソッドのみ有効（それ以外は無視する） */
+        public Builder hedge(boolean hedge) {
+            this.hedge = hedge;
+            return this;
+        }
+        
+        /** RETURN_STATUSの場合は、2xx系以外も例外にせずResponseEntityで返却する */
+        public Builder errorHandling(ErrorHandlingMode errorHandling) {
+            this.errorHandling = errorHandling;
+            return this;
+        }
+        
+        /** 期限切れの場合はDeadlineExceededException */
+        public Builder timeout(Duration timeout) {
+            this.timeout = timeout;
             return this;
         }
         
+        public Builder responseTimeout(Duration responseTimeout) {
+            this.responseTimeout = responseTimeout;
+            return this;
+        }
+        
+        public Builder readTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+            return this;
+        }
+        
+        /** 呼び出し元（上流のリクエスト）の期限を引き継ぐ */
+        public Builder deadline(Deadline deadline) {
+            this.deadline = deadline;
+            return this;
+        }
+        
+        /** 同じ名前を再度設定した場合は値を上書きする（順序は最初に設定した位置のまま） */
         public Builder queryParam(String key, String val) {
-            this.queryParams.put(key, val);
+            put(queryParamNames, queryParamValues, key, val);
             return this;
         }
         
         public Builder pathParam(String key, String val) {
-            this.pathParams.put(key, val);
+            put(pathParamNames, pathParamValues, key, val);
             return this;
         }
         
+        private static void put(List<String> names, List<String> values, String key, String val) {
+            int idx = names.indexOf(key);
+            if (idx >= 0) {
+                values.set(idx, val);
+            } else {
+                names.add(key);
+                values.add(val);
+            }
+        }
+        
         public WebClientRequest build() {
         	if (method == null) {
         		throw new IllegalStateException("HTTP method must not be null.");
@@ -88,19 +169,11 @@ public class WebClientRequest {
         		throw new IllegalStateException("URI must not be null.");
         	}
         	
-        	UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUriString(urlTemplate);
-    		// クエリパラメータ設定
-			if (queryParams != null) {
-				for (Map.Entry<String, Object> entry : queryParams.entrySet()) {
-					uriBuilder.queryParam(entry.getKey(), entry.getValue());
-				}
-			}
-
-			// 最終的にURIを生成
-			URI uri = uriBuilder.buildAndExpand(pathParams != null ? pathParams : Collections.emptyMap()) // パスパラメータ設定
-					.encode() // URIエンコード
-					.toUri();
-        	return new WebClientRequest(this.method, uri, this.headers, this.body);
+        	// URIテンプレートを展開（パスパラメータ・クエリパラメータ設定、URIエンコード）
+        	CompiledUriTemplate template = (compiledTemplate != null) ? compiledTemplate : CompiledUriTemplate.of(urlTemplate);
+        	URI uri = template.expand(pathParamNames, pathParamValues, queryParamNames, queryParamValues);
+        	return new WebClientRequest(this.method, uri, this.headers, this.body, this.urlTemplate, this.hedge,
+        			this.errorHandling, this.timeout, this.responseTimeout, this.readTimeout, this.deadline);
         }
 	}
 }
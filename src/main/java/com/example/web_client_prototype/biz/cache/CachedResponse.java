@@ -0,0 +1,55 @@
+package com.example.web_client_prototype.biz.cache;
+
+import org.springframework.http.HttpHeaders;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * キャッシュしたレスポンス（不変）
+ */
+@Getter
+@AllArgsConstructor
+public class CachedResponse {
+	/** HTTPステータス */
+	private final int status;
+	/** レスポンスヘッダー（読み取り専用） */
+	private final HttpHeaders headers;
+	/** レスポンスボディ */
+	private final byte[] body;
+	/** 格納（または再検証）した時刻（エポックミリ秒） */
+	private final long storedAt;
+	/** 鮮度の期限（エポックミリ秒） */
+	private final long expiresAt;
+
+	/**
+	 * 鮮度の期限内か
+	 * @param now
+	 * @return
+	 */
+	public boolean isFresh(long now) {
+		return now < expiresAt;
+	}
+
+	/**
+	 * 再検証（条件付きリクエスト）が可能か
+	 * @return
+	 */
+	public boolean hasValidators() {
+		return headers.getETag() != null || headers.getLastModified() != -1;
+	}
+
+	/**
+	 * キャッシュの容量計算に使用するサイズ（ボディ + ヘッダーの概算）
+	 * @return
+	 */
+	public long weight() {
+		long headerBytes = 0;
+		for (var entry : headers.entrySet()) {
+			for (String value : entry.getValue()) {
+				headerBytes += entry.getKey().length() + value.length() + 4;
+			}
+		}
+		return body.length + headerBytes;
+	}
+}
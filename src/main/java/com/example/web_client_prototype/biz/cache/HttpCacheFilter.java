@@ -0,0 +1,377 @@
+package com.example.web_client_prototype.biz.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * GETリクエストのレスポンスをキャッシュするフィルター（RFC 7234に準拠したプライベートキャッシュ）
+ *  - Cache-Control（max-age / no-cache / no-store）、Expires、Ageヘッダーから鮮度を判定する
+ *  - 鮮度切れのエントリはETag（If-None-Match）/ Last-Modified（If-Modified-Since）で再検証し、304の場合はボディをダウンロードしない
+ *  - 404を一定時間キャッシュする（ネガティブキャッシュ、任意）
+ *  - Authorizationヘッダー付きのリクエストは利用者ごとに結果が異なり得るため対象外とする
+ *  - 安全でないメソッド（POST / PUT / PATCH / DELETE）のリクエストが成功した場合は、同じURIのエントリを破棄する
+ *    （HEAD / OPTIONS / TRACEなどの安全なメソッドでは破棄しない。RFC 7234 4.4）
+ */
+public class HttpCacheFilter implements ExchangeFilterFunction {
+
+	/** 成功時にエントリを破棄する（安全でない）メソッド */
+	private static final Set<HttpMethod> UNSAFE_METHODS = EnumSet.of(HttpMethod.POST, HttpMethod.PUT,
+			HttpMethod.PATCH, HttpMethod.DELETE);
+
+	private final HttpResponseCache cache;
+	private final ExchangeStrategies strategies;
+	private final boolean enabled;
+	/** 1エントリの最大バイト数（超える場合はキャッシュしない） */
+	private final int maxEntryBytes;
+	/** 404のキャッシュ期間（ミリ秒、0の場合はキャッシュしない） */
+	private final long negativeTtlMillis;
+
+	public HttpCacheFilter(HttpResponseCache cache, ExchangeStrategies strategies, boolean enabled,
+			int maxEntryBytes, long negativeTtlMillis) {
+		this.cache = cache;
+		this.strategies = strategies;
+		this.enabled = enabled;
+		this.maxEntryBytes = maxEntryBytes;
+		this.negativeTtlMillis = negativeTtlMillis;
+	}
+
+	@Override
+	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+		if (!enabled || request.headers().containsKey(HttpHeaders.AUTHORIZATION)
+				|| request.headers().containsKey(HttpHeaders.RANGE)) {
+			// 認証付き、部分取得（Range）のリクエストはキャッシュしない
+			return next.exchange(request);
+		}
+		if (UNSAFE_METHODS.contains(request.method())) {
+			// 安全でないメソッドの場合、成功時に同じURIのエントリを破棄する
+			return next.exchange(request).doOnNext(res -> {
+				if (res.rawStatusCode() < 400) {
+					cache.invalidateUri(request.url().toString());
+				}
+			});
+		}
+		if (request.method() != HttpMethod.GET) {
+			return next.exchange(request);
+		}
+
+		Directives requestDirectives = Directives.parse(request.headers().getCacheControl());
+		if (requestDirectives.noStore) {
+			return next.exchange(request);
+		}
+
+		String key = key(request);
+		CachedResponse entry = cache.get(key);
+		long now = System.currentTimeMillis();
+		if (entry != null && entry.isFresh(now) && !requestDirectives.noCache) {
+			// 鮮度内：通信せずに返却
+			cache.recordHit();
+			return Mono.just(toResponse(request, entry, now));
+		}
+
+		cache.recordMiss();
+		if (entry != null && entry.hasValidators()) {
+			// 鮮度切れ：条件付きリクエストで再検証
+			return next.exchange(conditional(request, entry))
+					.flatMap(res -> {
+						if (res.rawStatusCode() == HttpStatus.NOT_MODIFIED.value()) {
+							return res.releaseBody().then(Mono.fromSupplier(() -> revalidated(request, key, entry, res)));
+						}
+						return Mono.just(store(key, res));
+					});
+		}
+		return next.exchange(request).map(res -> store(key, res));
+	}
+
+	/**
+	 * キャッシュのキー（URI + Acceptヘッダー）
+	 * @param request
+	 * @return
+	 */
+	private String key(ClientRequest request) {
+		return request.url() + "\n" + String.join(",", request.headers().getOrEmpty(HttpHeaders.ACCEPT));
+	}
+
+	/**
+	 * 条件付きリクエストを作成する
+	 * @param request
+	 * @param entry
+	 * @return
+	 */
+	private ClientRequest conditional(ClientRequest request, CachedResponse entry) {
+		return ClientRequest.from(request)
+				.headers(headers -> {
+					String etag = entry.getHeaders().getETag();
+					if (etag != null) {
+						headers.setIfNoneMatch(etag);
+					}
+					long lastModified = entry.getHeaders().getLastModified();
+					if (lastModified != -1) {
+						headers.setIfModifiedSince(lastModified);
+					}
+				})
+				.build();
+	}
+
+	/**
+	 * 304を受信した場合、エントリの鮮度を更新して返却する
+	 * @param request
+	 * @param key
+	 * @param entry
+	 * @param res
+	 * @return
+	 */
+	private ClientResponse revalidated(ClientRequest request, String key, CachedResponse entry, ClientResponse res) {
+		HttpHeaders merged = new HttpHeaders();
+		merged.putAll(entry.getHeaders());
+		res.headers().asHttpHeaders().forEach((name, values) -> {
+			if (!name.equalsIgnoreCase(HttpHeaders.CONTENT_LENGTH)
+					&& !name.equalsIgnoreCase(HttpHeaders.CONTENT_TYPE)
+					&& !name.equalsIgnoreCase(HttpHeaders.TRANSFER_ENCODING)) {
+				merged.put(name, values);
+			}
+		});
+
+		long now = System.currentTimeMillis();
+		CachedResponse updated = new CachedResponse(entry.getStatus(), HttpHeaders.readOnlyHttpHeaders(merged),
+				entry.getBody(), now, expiresAt(merged, entry.getStatus(), now));
+		cache.put(key, updated);
+		cache.recordRevalidation();
+		return toResponse(request, updated, now);
+	}
+
+	/**
+	 * キャッシュ可能なレスポンスの場合、ボディを読み込みながらコピーし、読み込み完了時に格納する
+	 * @param key
+	 * @param res
+	 * @return
+	 */
+	private ClientResponse store(String key, ClientResponse res) {
+		int status = res.rawStatusCode();
+		boolean negative = status == HttpStatus.NOT_FOUND.value() && negativeTtlMillis > 0;
+		if (status != HttpStatus.OK.value() && !negative) {
+			return res;
+		}
+
+		HttpHeaders headers = res.headers().asHttpHeaders();
+		if (Directives.parse(headers.getCacheControl()).noStore || !isVaryCacheable(headers)) {
+			return res;
+		}
+		long contentLength = headers.getContentLength();
+		if (contentLength > maxEntryBytes) {
+			return res;
+		}
+
+		long now = System.currentTimeMillis();
+		long expiresAt = expiresAt(headers, status, now);
+		if (!negative && expiresAt <= now && headers.getETag() == null && headers.getLastModified() == -1) {
+			// 鮮度も再検証手段もないためキャッシュしない
+			return res;
+		}
+
+		HttpHeaders stored = new HttpHeaders();
+		headers.forEach((name, values) -> {
+			if (!name.equalsIgnoreCase(HttpHeaders.TRANSFER_ENCODING) && !name.equalsIgnoreCase(HttpHeaders.CONNECTION)) {
+				stored.put(name, values);
+			}
+		});
+
+		BodyCapture capture = new BodyCapture(maxEntryBytes);
+		return res.mutate()
+				.body(body -> body
+						.doOnNext(capture::append)
+						.doOnComplete(() -> {
+							if (capture.complete()) {
+								byte[] bytes = capture.toByteArray();
+								stored.setContentLength(bytes.length);
+								cache.put(key, new CachedResponse(status, HttpHeaders.readOnlyHttpHeaders(stored), bytes,
+										now, expiresAt));
+							}
+						}))
+				.build();
+	}
+
+	/**
+	 * 鮮度の期限を算出する
+	 * @param headers
+	 * @param status
+	 * @param now
+	 * @return
+	 */
+	private long expiresAt(HttpHeaders headers, int status, long now) {
+		Directives directives = Directives.parse(headers.getCacheControl());
+		if (directives.noCache) {
+			return now;
+		}
+
+		long ageMillis = 0;
+		String age = headers.getFirst(HttpHeaders.AGE);
+		if (age != null) {
+			try {
+				ageMillis = Long.parseLong(age.trim()) * 1000;
+			} catch (NumberFormatException e) {
+				// 不正なAgeは無視
+			}
+		}
+
+		long lifetime;
+		if (directives.maxAge >= 0) {
+			lifetime = directives.maxAge * 1000;
+		} else if (headers.getExpires() != -1) {
+			long date = safeDate(headers, now);
+			lifetime = headers.getExpires() - date;
+		} else if (status == HttpStatus.NOT_FOUND.value()) {
+			lifetime = negativeTtlMillis;
+		} else {
+			lifetime = 0;
+		}
+		return now + lifetime - ageMillis;
+	}
+
+	private long safeDate(HttpHeaders headers, long now) {
+		try {
+			long date = headers.getDate();
+			return date != -1 ? date : now;
+		} catch (IllegalArgumentException e) {
+			return now;
+		}
+	}
+
+	/**
+	 * Varyヘッダーがキャッシュのキー（Accept）の範囲に収まっているか
+	 * @param headers
+	 * @return
+	 */
+	private boolean isVaryCacheable(HttpHeaders headers) {
+		for (String vary : headers.getVary()) {
+			String name = vary.trim().toLowerCase(Locale.ROOT);
+			if (!name.equals("accept") && !name.equals("accept-encoding")) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * エントリからレスポンスを作成する
+	 * @param request
+	 * @param entry
+	 * @param now
+	 * @return
+	 */
+	private ClientResponse toResponse(ClientRequest request, CachedResponse entry, long now) {
+		byte[] body = entry.getBody();
+		return ClientResponse.create(entry.getStatus(), strategies)
+				.headers(headers -> {
+					headers.addAll(entry.getHeaders());
+					headers.set(HttpHeaders.AGE, String.valueOf(Math.max(0, now - entry.getStoredAt()) / 1000));
+				})
+				.body(Flux.defer(() -> Flux.just((DataBuffer) DefaultDataBufferFactory.sharedInstance.wrap(body))))
+				.request(new HttpRequest() {
+					@Override
+					public String getMethodValue() {
+						return request.method().name();
+					}
+
+					@Override
+					public URI getURI() {
+						return request.url();
+					}
+
+					@Override
+					public HttpHeaders getHeaders() {
+						return request.headers();
+					}
+				})
+				.build();
+	}
+
+	/**
+	 * Cache-Controlの解析結果
+	 */
+	private static class Directives {
+		private boolean noStore;
+		private boolean noCache;
+		private long maxAge = -1;
+
+		static Directives parse(String cacheControl) {
+			Directives directives = new Directives();
+			if (!StringUtils.hasText(cacheControl)) {
+				return directives;
+			}
+			for (String token : StringUtils.commaDelimitedListToStringArray(cacheControl)) {
+				String directive = token.trim().toLowerCase(Locale.ROOT);
+				if (directive.equals("no-store")) {
+					directives.noStore = true;
+				} else if (directive.startsWith("no-cache")) {
+					directives.noCache = true;
+				} else if (directive.startsWith("max-age=")) {
+					try {
+						directives.maxAge = Long.parseLong(directive.substring("max-age=".length()).replace("\"", ""));
+					} catch (NumberFormatException e) {
+						// 不正なmax-ageは無視
+					}
+				}
+			}
+			return directives;
+		}
+	}
+
+	/**
+	 * キャッシュ用にボディをコピーする（最大バイト数を超えた時点でコピーを止める）
+	 */
+	private static class BodyCapture {
+		private final int maxBytes;
+		private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		private boolean overflow;
+		private final AtomicBoolean completed = new AtomicBoolean();
+
+		BodyCapture(int maxBytes) {
+			this.maxBytes = maxBytes;
+		}
+
+		void append(DataBuffer buffer) {
+			if (overflow) {
+				return;
+			}
+			int readable = buffer.readableByteCount();
+			if (out.size() + readable > maxBytes) {
+				overflow = true;
+				out.reset();
+				return;
+			}
+			byte[] bytes = new byte[readable];
+			// 読み取り位置を動かさずにコピーする（デコーダ側の読み込みに影響させない）
+			buffer.asByteBuffer(buffer.readPosition(), readable).get(bytes);
+			out.write(bytes, 0, readable);
+		}
+
+		/** 最大バイト数以内で読み込みが完了した場合、初回のみtrue */
+		boolean complete() {
+			return !overflow && completed.compareAndSet(false, true);
+		}
+
+		byte[] toByteArray() {
+			return out.toByteArray();
+		}
+	}
+}
@@ -0,0 +1,147 @@
+package com.example.web_client_prototype.biz.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * レスポンスのインメモリキャッシュ
+ * 最大件数・合計バイト数を超えた場合は、最も長く参照されていないエントリから破棄する（LRU）
+ */
+public class HttpResponseCache {
+
+	private final int maxEntries;
+	private final long maxBytes;
+	/** アクセス順のLinkedHashMap（thisで排他する） */
+	private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long totalBytes;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder revalidations = new LongAdder();
+	private final LongAdder stores = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	public HttpResponseCache(int maxEntries, long maxBytes) {
+		this.maxEntries = maxEntries;
+		this.maxBytes = maxBytes;
+	}
+
+	public synchronized CachedResponse get(String key) {
+		return entries.get(key);
+	}
+
+	/**
+	 * エントリを格納する（容量を超える場合は古いエントリを破棄する）
+	 * @param key
+	 * @param response
+	 */
+	public void put(String key, CachedResponse response) {
+		long weight = response.weight();
+		if (weight > maxBytes) {
+			return;
+		}
+		int evicted = 0;
+		synchronized (this) {
+			CachedResponse previous = entries.put(key, response);
+			if (previous != null) {
+				totalBytes -= previous.weight();
+			}
+			totalBytes += weight;
+
+			Iterator<Map.Entry<String, CachedResponse>> it = entries.entrySet().iterator();
+			while ((totalBytes > maxBytes || entries.size() > maxEntries) && it.hasNext()) {
+				Map.Entry<String, CachedResponse> eldest = it.next();
+				if (eldest.getKey().equals(key)) {
+					continue;
+				}
+				totalBytes -= eldest.getValue().weight();
+				it.remove();
+				evicted++;
+			}
+		}
+		stores.increment();
+		evictions.add(evicted);
+	}
+
+	/**
+	 * エントリを削除する
+	 * @param key
+	 */
+	public synchronized void invalidate(String key) {
+		CachedResponse removed = entries.remove(key);
+		if (removed != null) {
+			totalBytes -= removed.weight();
+		}
+	}
+
+	/**
+	 * 指定したURIのエントリを（Acceptヘッダーによらず）すべて削除する
+	 * @param uri
+	 */
+	public synchronized void invalidateUri(String uri) {
+		String prefix = uri + "\n";
+		Iterator<Map.Entry<String, CachedResponse>> it = entries.entrySet().iterator();
+		while (it.hasNext()) {
+			Map.Entry<String, CachedResponse> entry = it.next();
+			if (entry.getKey().startsWith(prefix)) {
+				totalBytes -= entry.getValue().weight();
+				it.remove();
+			}
+		}
+	}
+
+	void recordHit() {
+		hits.increment();
+	}
+
+	void recordMiss() {
+		misses.increment();
+	}
+
+	void recordRevalidation() {
+		revalidations.increment();
+	}
+
+	/**
+	 * 統計情報を取得する
+	 * @return
+	 */
+	public Stats stats() {
+		int size;
+		long bytes;
+		synchronized (this) {
+			size = entries.size();
+			bytes = totalBytes;
+		}
+		return new Stats(hits.sum(), misses.sum(), revalidations.sum(), stores.sum(), evictions.sum(), size, bytes);
+	}
+
+	/**
+	 * キャッシュの統計情報
+	 */
+	@Getter
+	@ToString
+	@AllArgsConstructor
+	public static class Stats {
+		/** 鮮度内のエントリを返却した回数 */
+		private final long hits;
+		/** キャッシュを使用できずにリクエストした回数 */
+		private final long misses;
+		/** 再検証（304）によりエントリを返却した回数 */
+		private final long revalidations;
+		/** エントリを格納した回数 */
+		private final long stores;
+		/** 容量超過により破棄した回数 */
+		private final long evictions;
+		/** 現在のエントリ数 */
+		private final int size;
+		/** 現在の合計バイト数 */
+		private final long bytes;
+	}
+}
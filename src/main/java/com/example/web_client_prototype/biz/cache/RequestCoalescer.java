@@ -0,0 +1,242 @@
+package com.example.web_client_prototype.biz.cache;
+
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.example.web_client_prototype.biz.WebClientRequest;
+import com.example.web_client_prototype.biz.resilience.Deadline;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * 同一のGETリクエストが同時に実行された場合、1回の通信結果を共有する（single-flight）
+ * キーは「HTTPメソッド + URI + 指定したヘッダー + 受け取る型」
+ * 通信完了時にキーを解放するため、完了後のリクエストは改めて通信する
+ * 共有する通信は待機中の呼び出し元の数を数え、全ての呼び出し元がキャンセル（期限切れを含む）した時点で通信をキャンセルする
+ * 共有する通信の期限（Deadline）は、加わった呼び出し元の最も遅い期限とする（期限のない呼び出し元がいる場合は期限なし）
+ * ※デコード済みのオブジェクトを複数の呼び出し元で共有するため、呼び出し元で変更しないこと
+ */
+@Component
+public class RequestCoalescer {
+
+	/** 通信中のリクエスト */
+	private final Map<Key, Shared<?>> inFlight = new ConcurrentHashMap<>();
+	/** 実際に通信した回数 */
+	private final LongAdder executed = new LongAdder();
+	/** 通信中の結果を共有した回数 */
+	private final LongAdder coalesced = new LongAdder();
+
+	/** 有効 / 無効 */
+	@Value("${webclient.coalescing.enabled:true}")
+	private boolean enabled;
+
+	/** キーに含めるヘッダー名 */
+	@Value("#{'${webclient.coalescing.key-headers:Accept,Authorization}'.split(',')}")
+	private List<String> keyHeaders;
+
+	/**
+	 * 同一リクエストが通信中であればその結果を共有し、なければcallで通信する
+	 * @param <T>
+	 * @param req
+	 * @param responseType
+	 * @param call
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> Mono<T> coalesce(WebClientRequest req, Type responseType, Supplier<Mono<T>> call) {
+		if (!enabled || req.getMethod() != HttpMethod.GET || req.getBody() != null) {
+			return call.get();
+		}
+
+		return Mono.deferContextual(ctx -> {
+			Key key = new Key(req.getUri(), selectHeaders(req.getHeaders()), responseType);
+			Deadline deadline = Deadline.from(ctx);
+			while (true) {
+				Shared<?> shared = inFlight.get(key);
+				if (shared == null) {
+					Shared<T> created = new Shared<>(key, deadline);
+					if (inFlight.putIfAbsent(key, created) != null) {
+						continue;
+					}
+					executed.increment();
+					created.start(call.get(), ctx);
+					return created.await();
+				}
+				if (shared.join(deadline)) {
+					coalesced.increment();
+					return ((Shared<T>) shared).await();
+				}
+				// キャンセル・完了した通信は取り除いて改めて通信する
+				inFlight.remove(key, shared);
+			}
+		});
+	}
+
+	/**
+	 * 実際に通信した回数
+	 * @return
+	 */
+	public long getExecutedCount() {
+		return executed.sum();
+	}
+
+	/**
+	 * 通信中の結果を共有した回数
+	 * @return
+	 */
+	public long getCoalescedCount() {
+		return coalesced.sum();
+	}
+
+	private String selectHeaders(HttpHeaders headers) {
+		if (headers == null) {
+			return "";
+		}
+		return keyHeaders.stream()
+				.map(String::trim)
+				.filter(StringUtils::hasText)
+				.map(name -> name + "=" + headers.getOrEmpty(name))
+				.collect(Collectors.joining("&"));
+	}
+
+	/**
+	 * 共有する通信（待機中の呼び出し元の数と期限）
+	 * @param <T>
+	 */
+	private final class Shared<T> {
+		private final Key key;
+		private final Sinks.One<T> result = Sinks.one();
+		/** 共有する通信の期限（nullの場合は期限なし） */
+		private final Deadline deadline;
+		/** 待機中の呼び出し元の数 */
+		private int waiters = 1;
+		/** キャンセル・完了した（以降は呼び出し元を加えない） */
+		private boolean closed;
+		private Disposable upstream;
+
+		Shared(Key key, Deadline initial) {
+			this.key = key;
+			this.deadline = (initial != null) ? Deadline.extendable(initial) : null;
+		}
+
+		/**
+		 * 通信を開始する（最初の呼び出し元のContextに、共有する通信の期限を設定する）
+		 * @param call
+		 * @param ctx
+		 */
+		void start(Mono<T> call, ContextView ctx) {
+			Context context = (deadline != null)
+					? Context.of(ctx).put(Deadline.CONTEXT_KEY, deadline)
+					: Context.of(ctx).delete(Deadline.CONTEXT_KEY);
+			Disposable subscription = call
+					.doFinally(signal -> close())
+					.subscribe(result::tryEmitValue, result::tryEmitError, result::tryEmitEmpty, context);
+			boolean cancel;
+			synchronized (this) {
+				upstream = subscription;
+				cancel = closed && waiters == 0;
+			}
+			if (cancel) {
+				// 開始中に全ての呼び出し元がキャンセルした
+				subscription.dispose();
+			}
+		}
+
+		/**
+		 * 呼び出し元を加える（共有する通信の期限は遅い方へ延長する）
+		 * @param callerDeadline
+		 * @return キャンセル・完了済みの場合はfalse
+		 */
+		synchronized boolean join(Deadline callerDeadline) {
+			if (closed) {
+				return false;
+			}
+			waiters++;
+			if (deadline != null) {
+				deadline.extend(callerDeadline);
+			}
+			return true;
+		}
+
+		/**
+		 * 通信の結果を待つ（キャンセルした場合は待機中の呼び出し元から外す）
+		 * @return
+		 */
+		Mono<T> await() {
+			return result.asMono().doOnCancel(this::leave);
+		}
+
+		private void leave() {
+			Disposable cancel;
+			synchronized (this) {
+				if (--waiters > 0 || closed) {
+					return;
+				}
+				closed = true;
+				cancel = upstream;
+			}
+			inFlight.remove(key, this);
+			if (cancel != null) {
+				// 最後の呼び出し元がキャンセルした場合は通信をキャンセルする（コネクションを切断してプールの枠を解放する）
+				// 開始中（upstreamの設定前）の場合はstartでキャンセルする
+				cancel.dispose();
+			}
+		}
+
+		private void close() {
+			synchronized (this) {
+				closed = true;
+			}
+			inFlight.remove(key, this);
+		}
+	}
+
+	/**
+	 * リクエストのキー
+	 */
+	private static final class Key {
+		private final URI uri;
+		private final String headers;
+		private final Type responseType;
+
+		Key(URI uri, String headers, Type responseType) {
+			this.uri = uri;
+			this.headers = headers;
+			this.responseType = responseType;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) o;
+			return uri.equals(other.uri) && headers.equals(other.headers) && responseType.equals(other.responseType);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(uri, headers, responseType);
+		}
+	}
+}
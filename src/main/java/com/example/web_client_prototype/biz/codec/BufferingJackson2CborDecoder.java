@@ -0,0 +1,35 @@
+package com.example.web_client_prototype.biz.codec;
+
+import java.util.List;
+import java.util.Map;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.util.MimeType;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * bodyToFlux（toEntityList等）に対応したCBORデコーダー
+ * Jackson2CborDecoderは要素ごとの逐次デコードに対応していないため、
+ * 全体を受信して（maxInMemorySizeまで）Listとしてデコードし、要素に分割する（トップレベルが配列のボディのみ）
+ */
+public class BufferingJackson2CborDecoder extends Jackson2CborDecoder {
+
+	public BufferingJackson2CborDecoder(ObjectMapper mapper) {
+		super(mapper, PayloadFormat.CBOR.getMediaType());
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Flux<Object> decode(Publisher<DataBuffer> input, ResolvableType elementType, MimeType mimeType,
+			Map<String, Object> hints) {
+		ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+		return decodeToMono(input, listType, mimeType, hints)
+				.flatMapIterable(list -> (List<Object>) list);
+	}
+}
@@ -0,0 +1,43 @@
+package com.example.web_client_prototype.biz.codec;
+
+import java.util.List;
+import java.util.Map;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.util.MimeType;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * bodyValue等で使用できるCBORエンコーダー
+ * Jackson2CborEncoderはencode(Publisher)に対応していないため（EncoderHttpMessageWriterはMonoのボディでもこちらを使用する）、
+ * Monoは1件の値として、Fluxは全件をListにまとめて1つの配列としてエンコードする
+ */
+public class BufferingJackson2CborEncoder extends Jackson2CborEncoder {
+
+	public BufferingJackson2CborEncoder(ObjectMapper mapper) {
+		super(mapper, PayloadFormat.CBOR.getMediaType());
+	}
+
+	@Override
+	public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+			ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+		if (inputStream instanceof Mono) {
+			return Mono.from(inputStream)
+					.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints))
+					.flux();
+		}
+		ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+		return Flux.from(inputStream)
+				.collectList()
+				.map(list -> encodeValue(list, bufferFactory, listType, mimeType, hints))
+				.flux();
+	}
+}
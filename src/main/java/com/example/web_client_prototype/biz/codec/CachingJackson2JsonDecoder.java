@@ -0,0 +1,87 @@
+package com.example.web_client_prototype.biz.codec;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Map;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.CodecException;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.codec.json.Jackson2CodecSupport;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.MimeType;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.exc.InvalidDefinitionException;
+
+/**
+ * 型ごとのObjectReaderをキャッシュするJSONデコーダー
+ * Jackson2JsonDecoderはレスポンスごとにJavaTypeの解決・ObjectReaderの生成・デシリアライズ可否の判定を行うため、
+ * 型（Class / ParameterizedTypeReferenceの型）ごとに結果を保持して使い回す
+ * JSON View・型ごとのObjectMapperの登録・メソッド引数由来の型（サーバー側）の場合は、Jackson2JsonDecoderの処理を使用する
+ * ストリーミング（bodyToFlux）はObjectReaderの生成が1回のみのため、Jackson2JsonDecoderの処理のまま
+ */
+public class CachingJackson2JsonDecoder extends Jackson2JsonDecoder {
+
+	/** 型 → ObjectReader */
+	private final ConcurrentLruCache<Type, ObjectReader> readers;
+	/** 型 → デシリアライズ可否 */
+	private final ConcurrentLruCache<Type, Boolean> deserializable;
+
+	public CachingJackson2JsonDecoder(ObjectMapper mapper, int cacheSize) {
+		super(mapper);
+		this.readers = new ConcurrentLruCache<>(cacheSize, type -> mapper.readerFor(mapper.constructType(type)));
+		this.deserializable = new ConcurrentLruCache<>(cacheSize, type -> mapper.canDeserialize(mapper.constructType(type)));
+	}
+
+	@Override
+	public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+		if (!isCacheable(elementType, null)) {
+			return super.canDecode(elementType, mimeType);
+		}
+		// Stringは文字列のデコーダーで扱う（Jackson2JsonDecoderと同じ）
+		if (CharSequence.class.isAssignableFrom(elementType.toClass()) || !supportsMimeType(mimeType)) {
+			return false;
+		}
+		return deserializable.get(elementType.getType());
+	}
+
+	@Override
+	public Object decode(DataBuffer dataBuffer, ResolvableType targetType, MimeType mimeType,
+			Map<String, Object> hints) throws DecodingException {
+		if (!isCacheable(targetType, hints)) {
+			return super.decode(dataBuffer, targetType, mimeType, hints);
+		}
+
+		try {
+			return readers.get(targetType.getType()).readValue(dataBuffer.asInputStream());
+		} catch (InvalidDefinitionException e) {
+			throw new CodecException("Type definition error: " + e.getType(), e);
+		} catch (JsonProcessingException e) {
+			throw new DecodingException("JSON decoding error: " + e.getOriginalMessage(), e);
+		} catch (IOException e) {
+			throw new DecodingException("I/O error while parsing input stream", e);
+		} finally {
+			DataBufferUtils.release(dataBuffer);
+		}
+	}
+
+	/**
+	 * キャッシュしたObjectReaderを使用できるか
+	 * @param type
+	 * @param hints
+	 * @return
+	 */
+	private boolean isCacheable(ResolvableType type, Map<String, Object> hints) {
+		return (type.getType() instanceof Class || type.getType() instanceof ParameterizedType)
+				&& getParameter(type) == null
+				&& (hints == null || !hints.containsKey(Jackson2CodecSupport.JSON_VIEW_HINT))
+				&& getObjectMapperRegistrations().isEmpty();
+	}
+}
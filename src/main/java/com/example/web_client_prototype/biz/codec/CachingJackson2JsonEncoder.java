@@ -0,0 +1,88 @@
+package com.example.web_client_prototype.biz.codec;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Map;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.CodecException;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2CodecSupport;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.MimeType;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.exc.InvalidDefinitionException;
+
+/**
+ * 型ごとのObjectWriterをキャッシュするJSONエンコーダー
+ * Jackson2JsonEncoderはリクエストごとにObjectWriterを生成し、バイト配列に書き込んでからDataBufferにコピーするため、
+ * 型ごとのObjectWriterを使い回し、DataBufferに直接書き込む
+ * JSON View・MappingJacksonValue・型ごとのObjectMapperの登録・Server-Sent Eventsの場合は、Jackson2JsonEncoderの処理を使用する
+ */
+public class CachingJackson2JsonEncoder extends Jackson2JsonEncoder {
+
+	/** 型 → ObjectWriter */
+	private final ConcurrentLruCache<Type, ObjectWriter> writers;
+
+	public CachingJackson2JsonEncoder(ObjectMapper mapper, int cacheSize) {
+		super(mapper);
+		this.writers = new ConcurrentLruCache<>(cacheSize, type -> {
+			// コレクションなどは宣言された型で、それ以外は実際の型でシリアライズする（Jackson2JsonEncoderと同じ）
+			JavaType javaType = mapper.constructType(type);
+			return javaType.isContainerType() ? mapper.writerFor(javaType) : mapper.writer();
+		});
+	}
+
+	@Override
+	public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ResolvableType valueType,
+			MimeType mimeType, Map<String, Object> hints) {
+		if (value instanceof MappingJacksonValue || !isCacheable(valueType, hints)
+				|| MediaType.TEXT_EVENT_STREAM.isCompatibleWith(mimeType)) {
+			return super.encodeValue(value, bufferFactory, valueType, mimeType, hints);
+		}
+
+		ObjectWriter writer = writers.get(valueType.getType());
+		DataBuffer buffer = bufferFactory.allocateBuffer();
+		boolean release = true;
+		try (JsonGenerator generator = writer.getFactory()
+				.createGenerator(buffer.asOutputStream(), getJsonEncoding(mimeType))) {
+			writer.writeValue(generator, value);
+			release = false;
+		} catch (InvalidDefinitionException e) {
+			throw new CodecException("Type definition error: " + e.getType(), e);
+		} catch (JsonProcessingException e) {
+			throw new EncodingException("JSON encoding error: " + e.getOriginalMessage(), e);
+		} catch (IOException e) {
+			throw new IllegalStateException("Unexpected I/O error while writing to data buffer", e);
+		} finally {
+			if (release) {
+				DataBufferUtils.release(buffer);
+			}
+		}
+		return buffer;
+	}
+
+	/**
+	 * キャッシュしたObjectWriterを使用できるか
+	 * @param type
+	 * @param hints
+	 * @return
+	 */
+	private boolean isCacheable(ResolvableType type, Map<String, Object> hints) {
+		return (type.getType() instanceof Class || type.getType() instanceof ParameterizedType)
+				&& (hints == null || !hints.containsKey(Jackson2CodecSupport.JSON_VIEW_HINT))
+				&& getObjectMapperRegistrations().isEmpty();
+	}
+}
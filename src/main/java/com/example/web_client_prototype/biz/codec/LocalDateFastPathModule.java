@@ -0,0 +1,201 @@
+package com.example.web_client_prototype.biz.codec;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
+
+/**
+ * LocalDateの「yyyy-MM-dd」形式を、DateTimeFormatterを使わずに変換するモジュール
+ * JavaTimeModuleはDateTimeFormatterで解析・整形するため、日付を含むリストなどで変換の大半を占める
+ * 書式の指定なし、または@JsonFormat(pattern = "yyyy-MM-dd")の場合のみ変換し、それ以外（不正な日付を含む）はJavaTimeModuleの処理を使用する
+ * JavaTimeModuleより後に登録すること（後に登録したモジュールが優先される）
+ */
+public class LocalDateFastPathModule extends SimpleModule {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final String PATTERN = "yyyy-MM-dd";
+
+	public LocalDateFastPathModule() {
+		super(LocalDateFastPathModule.class.getSimpleName());
+		addDeserializer(LocalDate.class, new FastLocalDateDeserializer(LocalDateDeserializer.INSTANCE));
+		addSerializer(LocalDate.class, new FastLocalDateSerializer(LocalDateSerializer.INSTANCE));
+	}
+
+	/**
+	 * 「yyyy-MM-dd」形式で変換できるか
+	 * @param format
+	 * @return
+	 */
+	private static boolean isFastFormat(JsonFormat.Value format) {
+		if (format.hasPattern()) {
+			return PATTERN.equals(format.getPattern());
+		}
+		JsonFormat.Shape shape = format.getShape();
+		return shape == JsonFormat.Shape.ANY || shape == JsonFormat.Shape.NATURAL || shape == JsonFormat.Shape.STRING;
+	}
+
+	/**
+	 * デシリアライザー
+	 */
+	private static class FastLocalDateDeserializer extends JsonDeserializer<LocalDate> implements ContextualDeserializer {
+
+		/** 「yyyy-MM-dd」形式でない場合のデシリアライザー */
+		private final JsonDeserializer<?> fallback;
+
+		FastLocalDateDeserializer(JsonDeserializer<?> fallback) {
+			this.fallback = fallback;
+		}
+
+		@Override
+		public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property)
+				throws JsonMappingException {
+			JsonDeserializer<?> contextual = ctxt.handleSecondaryContextualization(fallback, property,
+					ctxt.constructType(LocalDate.class));
+			JsonFormat.Value format = property != null
+					? property.findPropertyFormat(ctxt.getConfig(), LocalDate.class)
+					: ctxt.getDefaultPropertyFormat(LocalDate.class);
+			return isFastFormat(format) ? new FastLocalDateDeserializer(contextual) : contextual;
+		}
+
+		@Override
+		public LocalDate deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+			if (p.hasToken(JsonToken.VALUE_STRING) && p.getTextLength() == 10) {
+				LocalDate date = parse(p.getTextCharacters(), p.getTextOffset());
+				if (date != null) {
+					return date;
+				}
+			}
+			return (LocalDate) fallback.deserialize(p, ctxt);
+		}
+
+		@Override
+		public Class<?> handledType() {
+			return LocalDate.class;
+		}
+
+		/**
+		 * 「yyyy-MM-dd」を解析する
+		 * @param c
+		 * @param off
+		 * @return 解析できない場合（存在しない日付を含む）はnull
+		 */
+		private static LocalDate parse(char[] c, int off) {
+			if (c[off + 4] != '-' || c[off + 7] != '-') {
+				return null;
+			}
+			int year = digits(c, off, 4);
+			int month = digits(c, off + 5, 2);
+			int day = digits(c, off + 8, 2);
+			if (year < 1 || month < 0 || day < 0) {
+				return null;
+			}
+			try {
+				return LocalDate.of(year, month, day);
+			} catch (DateTimeException e) {
+				// 存在しない日付の補正・エラーはJavaTimeModuleに任せる
+				return null;
+			}
+		}
+
+		private static int digits(char[] c, int off, int len) {
+			int value = 0;
+			for (int i = off; i < off + len; i++) {
+				int d = c[i] - '0';
+				if (d < 0 || d > 9) {
+					return -1;
+				}
+				value = value * 10 + d;
+			}
+			return value;
+		}
+	}
+
+	/**
+	 * シリアライザー
+	 */
+	private static class FastLocalDateSerializer extends JsonSerializer<LocalDate> implements ContextualSerializer {
+
+		/** 「yyyy-MM-dd」形式でない場合のシリアライザー */
+		private final JsonSerializer<?> fallback;
+		/** 「yyyy-MM-dd」形式で出力するか */
+		private final boolean fast;
+
+		FastLocalDateSerializer(JsonSerializer<?> fallback) {
+			this(fallback, false);
+		}
+
+		private FastLocalDateSerializer(JsonSerializer<?> fallback, boolean fast) {
+			this.fallback = fallback;
+			this.fast = fast;
+		}
+
+		@Override
+		public JsonSerializer<?> createContextual(SerializerProvider prov, BeanProperty property)
+				throws JsonMappingException {
+			JsonSerializer<?> contextual = prov.handleSecondaryContextualization(fallback, property);
+			JsonFormat.Value format = property != null
+					? property.findPropertyFormat(prov.getConfig(), LocalDate.class)
+					: prov.getDefaultPropertyFormat(LocalDate.class);
+			// 書式の指定がない場合は、WRITE_DATES_AS_TIMESTAMPSが無効（またはshape = STRING）の場合のみ文字列になる
+			boolean fast = isFastFormat(format) && (format.hasPattern()
+					|| format.getShape() == JsonFormat.Shape.STRING
+					|| !prov.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+			return new FastLocalDateSerializer(contextual, fast);
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public void serialize(LocalDate value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+			int year = value.getYear();
+			if (!fast || year < 1 || year > 9999) {
+				((JsonSerializer<LocalDate>) fallback).serialize(value, gen, serializers);
+				return;
+			}
+			char[] c = new char[10];
+			write(c, 0, year, 4);
+			c[4] = '-';
+			write(c, 5, value.getMonthValue(), 2);
+			c[7] = '-';
+			write(c, 8, value.getDayOfMonth(), 2);
+			gen.writeString(c, 0, 10);
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public void serializeWithType(LocalDate value, JsonGenerator gen, SerializerProvider serializers,
+				TypeSerializer typeSer) throws IOException {
+			((JsonSerializer<LocalDate>) fallback).serializeWithType(value, gen, serializers, typeSer);
+		}
+
+		@Override
+		public Class<LocalDate> handledType() {
+			return LocalDate.class;
+		}
+
+		private static void write(char[] c, int off, int value, int len) {
+			for (int i = off + len - 1; i >= off; i--) {
+				c[i] = (char) ('0' + value % 10);
+				value /= 10;
+			}
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package com.example.web_client_prototype.biz.codec;
+
+import org.springframework.http.MediaType;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * バイナリ形式のペイロード（JSONと同じデータモデルのため、Resourceなどをそのまま変換できる）
+ */
+@Getter
+@AllArgsConstructor
+public enum PayloadFormat {
+	/** Smile（JSONのバイナリ表現。要素ごとの逐次デコードに対応） */
+	SMILE(new MediaType("application", "x-jackson-smile")),
+	/** CBOR（RFC 8949。全体を受信してからデコードする） */
+	CBOR(MediaType.APPLICATION_CBOR);
+
+	private final MediaType mediaType;
+
+	/**
+	 * Content-Typeに対応する形式を取得する
+	 * @param contentType
+	 * @return 該当しない場合はnull
+	 */
+	public static PayloadFormat of(MediaType contentType) {
+		if (contentType != null) {
+			for (PayloadFormat format : values()) {
+				if (format.mediaType.isCompatibleWith(contentType)) {
+					return format;
+				}
+			}
+		}
+		return null;
+	}
+}
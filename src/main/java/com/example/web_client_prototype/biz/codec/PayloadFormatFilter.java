@@ -0,0 +1,198 @@
+package com.example.web_client_prototype.biz.codec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ReactiveHttpOutputMessage;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.codec.json.AbstractJackson2Encoder;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import com.example.web_client_prototype.biz.resilience.RetryFilter;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * 接続先ごとのペイロード形式（Smile / CBOR）の切り替え
+ *  - レスポンス：JSONを受け付けるリクエストのAcceptの先頭に形式を追加する（サーバーが非対応の場合はJSONのまま返却される）
+ *  - リクエスト：JSONでエンコードするボディのみ、書き込み時にContent-Typeとエンコーダーを形式に置き換える
+ *    （String・byte[]・ファイルなど、JSONのエンコーダーを使用しないボディはそのまま送信する）
+ *  - リクエストボディを置き換えて415（Unsupported Media Type）の場合は、JSONで再送し、以降その接続先にはJSONで送信する
+ *    （ボディを再送できないリクエスト（RetryFilter.NON_RETRYABLE_ATTRIBUTE）は置き換えない）
+ * レスポンスのデコードはContent-Typeで判断するため、どの形式で返却されてもデコードできる（ExchangeStrategiesに全形式を登録）
+ */
+public class PayloadFormatFilter implements ExchangeFilterFunction {
+
+	private static final Logger logger = LoggerFactory.getLogger(PayloadFormatFilter.class);
+
+	/** パスごとの方針（登録順に判定） */
+	private final List<PayloadFormatPolicy> policies;
+	/** リクエストボディの形式を拒否（415）した方針名 */
+	private final Set<String> rejected = ConcurrentHashMap.newKeySet();
+
+	public PayloadFormatFilter(List<PayloadFormatPolicy> policies) {
+		this.policies = new ArrayList<>(policies);
+	}
+
+	@Override
+	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+		PayloadFormatPolicy policy = policy(request.url().getRawPath());
+		if (policy == null) {
+			return next.exchange(request);
+		}
+
+		MediaType format = policy.getFormat().getMediaType();
+		ClientRequest.Builder builder = ClientRequest.from(request);
+		List<MediaType> accept = request.headers().getAccept();
+		if (accept.stream().anyMatch(type -> type.isCompatibleWith(MediaType.APPLICATION_JSON))
+				&& accept.stream().noneMatch(type -> type.isCompatibleWith(format))) {
+			builder.headers(headers -> headers.set(HttpHeaders.ACCEPT,
+					format + ", " + MediaType.toString(accept)));
+		}
+		if (!policy.isRequestBody() || rejected.contains(policy.getName()) || RetryFilter.isNonRetryable(request)) {
+			return next.exchange(builder.build());
+		}
+
+		BodyInserter<?, ? super ClientHttpRequest> inserter = request.body();
+		AtomicBoolean converted = new AtomicBoolean();
+		ClientRequest converting = builder
+				.body((outputMessage, context) -> inserter.insert(outputMessage,
+						new ConvertingContext(context, format, converted)))
+				.build();
+		return next.exchange(converting)
+				.flatMap(res -> {
+					if (res.rawStatusCode() != HttpStatus.UNSUPPORTED_MEDIA_TYPE.value() || !converted.get()) {
+						return Mono.just(res);
+					}
+					if (rejected.add(policy.getName())) {
+						logger.warn("リクエストボディの形式が非対応のため、JSONで送信: {} {}", policy.getName(), format);
+					}
+					return res.releaseBody()
+							.then(next.exchange(ClientRequest.from(converting).body(inserter).build()));
+				});
+	}
+
+	private PayloadFormatPolicy policy(String path) {
+		for (PayloadFormatPolicy policy : policies) {
+			if (policy.matches(path)) {
+				return policy;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * JSONのエンコーダーか
+	 * @param writer
+	 * @return
+	 */
+	private static boolean isJsonWriter(HttpMessageWriter<?> writer) {
+		return isJacksonWriter(writer) && writer.getWritableMediaTypes().contains(MediaType.APPLICATION_JSON);
+	}
+
+	/**
+	 * Jacksonのエンコーダー（JSON / Smile / CBOR）か
+	 * @param writer
+	 * @return
+	 */
+	private static boolean isJacksonWriter(HttpMessageWriter<?> writer) {
+		return writer instanceof EncoderHttpMessageWriter
+				&& ((EncoderHttpMessageWriter<?>) writer).getEncoder() instanceof AbstractJackson2Encoder;
+	}
+
+	/**
+	 * JSONのエンコーダーを置き換えるBodyInserter.Context
+	 */
+	private static class ConvertingContext implements BodyInserter.Context {
+		private final BodyInserter.Context delegate;
+		private final List<HttpMessageWriter<?>> writers;
+
+		ConvertingContext(BodyInserter.Context delegate, MediaType format, AtomicBoolean converted) {
+			this.delegate = delegate;
+			List<HttpMessageWriter<?>> original = delegate.messageWriters();
+			this.writers = original.stream()
+					.map(writer -> isJsonWriter(writer) ? new ConvertingWriter(writer, original, format, converted) : writer)
+					.collect(Collectors.toList());
+		}
+
+		@Override
+		public List<HttpMessageWriter<?>> messageWriters() {
+			return writers;
+		}
+
+		@Override
+		public Optional<ServerHttpRequest> serverRequest() {
+			return delegate.serverRequest();
+		}
+
+		@Override
+		public Map<String, Object> hints() {
+			return delegate.hints();
+		}
+	}
+
+	/**
+	 * JSONの代わりに、形式に対応するエンコーダーで書き込むHttpMessageWriter
+	 * ボディの型が形式のエンコーダーで扱えない場合はJSONのまま書き込む
+	 */
+	private static class ConvertingWriter implements HttpMessageWriter<Object> {
+		private final HttpMessageWriter<Object> delegate;
+		private final List<HttpMessageWriter<?>> writers;
+		private final MediaType format;
+		private final AtomicBoolean converted;
+
+		@SuppressWarnings("unchecked")
+		ConvertingWriter(HttpMessageWriter<?> delegate, List<HttpMessageWriter<?>> writers, MediaType format,
+				AtomicBoolean converted) {
+			this.delegate = (HttpMessageWriter<Object>) delegate;
+			this.writers = writers;
+			this.format = format;
+			this.converted = converted;
+		}
+
+		@Override
+		public List<MediaType> getWritableMediaTypes() {
+			return delegate.getWritableMediaTypes();
+		}
+
+		@Override
+		public boolean canWrite(ResolvableType elementType, MediaType mediaType) {
+			return delegate.canWrite(elementType, mediaType);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public Mono<Void> write(Publisher<? extends Object> inputStream, ResolvableType elementType,
+				MediaType mediaType, ReactiveHttpOutputMessage message, Map<String, Object> hints) {
+			for (HttpMessageWriter<?> writer : writers) {
+				if (writer != delegate && isJacksonWriter(writer) && writer.canWrite(elementType, format)) {
+					// 書き込み前（コミット前）のため、Content-Typeを変更できる
+					message.getHeaders().setContentType(format);
+					converted.set(true);
+					return ((HttpMessageWriter<Object>) writer).write(inputStream, elementType, format, message, hints);
+				}
+			}
+			return delegate.write(inputStream, elementType, mediaType, message, hints);
+		}
+	}
+}
@@ -0,0 +1,31 @@
+package com.example.web_client_prototype.biz.codec;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * ペイロード形式の方針（接続先のパスごと）
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class PayloadFormatPolicy {
+	/** 方針名 */
+	private final String name;
+	/** 対象のパス（前方一致） */
+	private final String pathPrefix;
+	/** 使用する形式 */
+	private final PayloadFormat format;
+	/** リクエストボディもこの形式で送信するか（falseの場合はAcceptのみ） */
+	private final boolean requestBody;
+
+	/**
+	 * 対象のパスか
+	 * @param path
+	 * @return
+	 */
+	public boolean matches(String path) {
+		return path != null && path.startsWith(pathPrefix);
+	}
+}
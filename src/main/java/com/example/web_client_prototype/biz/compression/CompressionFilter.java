@@ -0,0 +1,198 @@
+package com.example.web_client_prototype.biz.compression;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpRequestDecorator;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import com.example.web_client_prototype.biz.metrics.CompressionMetrics;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * リクエスト / レスポンスボディの圧縮
+ *  - レスポンス：Accept-Encoding（gzip, deflate）を付与し、圧縮されたボディは受信したものから順に展開する
+ *    （展開後はContent-Encoding / Content-Lengthを除くため、外側のフィルター（ログ出力・キャッシュなど）は展開後のボディを扱う）
+ *  - リクエスト：対象のContent-Typeで、ボディが方針の最小バイト数以上の場合にgzip圧縮する
+ *    （サイズが事前にわかるボディのみ。Monoのボディ（JSONなど）、またはContent-Length指定済みのFluxのボディ）
+ *  - 圧縮・展開の前後のバイト数と処理時間をCompressionMetricsに記録する
+ * 送受信するバイト列に作用するため、最も内側（通信直前）に登録する
+ */
+public class CompressionFilter implements ExchangeFilterFunction {
+
+	private static final String ACCEPT_ENCODING = "gzip, deflate";
+	private static final String GZIP = "gzip";
+
+	private final boolean enabled;
+	private final RequestCompressionPolicy defaultPolicy;
+	/** パスごとの方針（登録順に判定） */
+	private final List<RequestCompressionPolicy> policies;
+	/** 圧縮対象のContent-Type */
+	private final List<MediaType> mimeTypes;
+	/** 圧縮レベル（1～9） */
+	private final int level;
+	private final CompressionMetrics metrics;
+
+	public CompressionFilter(boolean enabled, RequestCompressionPolicy defaultPolicy,
+			List<RequestCompressionPolicy> policies, List<MediaType> mimeTypes, int level,
+			CompressionMetrics metrics) {
+		this.enabled = enabled;
+		this.defaultPolicy = defaultPolicy;
+		this.policies = new ArrayList<>(policies);
+		this.mimeTypes = new ArrayList<>(mimeTypes);
+		this.level = level;
+		this.metrics = metrics;
+	}
+
+	@Override
+	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+		if (!enabled) {
+			return next.exchange(request);
+		}
+
+		// Accept-Encodingを呼び出し元が指定した場合は、呼び出し元で展開する
+		boolean decode = !request.headers().containsKey(HttpHeaders.ACCEPT_ENCODING);
+		ClientRequest.Builder builder = ClientRequest.from(request);
+		if (decode) {
+			builder.header(HttpHeaders.ACCEPT_ENCODING, ACCEPT_ENCODING);
+		}
+		RequestCompressionPolicy policy = policy(request.url().getRawPath());
+		if (policy.getMinBytes() >= 0) {
+			BodyInserter<?, ? super ClientHttpRequest> inserter = request.body();
+			builder.body((outputMessage, context) ->
+					inserter.insert(new CompressingRequest(outputMessage, policy), context));
+		}
+
+		return next.exchange(builder.build())
+				.map(res -> decode ? decompress(res) : res);
+	}
+
+	private RequestCompressionPolicy policy(String path) {
+		for (RequestCompressionPolicy policy : policies) {
+			if (policy.matches(path)) {
+				return policy;
+			}
+		}
+		return defaultPolicy;
+	}
+
+	/**
+	 * 圧縮されたレスポンスを展開する
+	 * @param res
+	 * @return
+	 */
+	private ClientResponse decompress(ClientResponse res) {
+		String encoding = res.headers().asHttpHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+		if (!ZlibStream.isSupported(encoding)) {
+			return res;
+		}
+		return res.mutate()
+				.headers(headers -> {
+					headers.remove(HttpHeaders.CONTENT_ENCODING);
+					headers.remove(HttpHeaders.CONTENT_LENGTH); // 展開後の長さは不明
+				})
+				.body(body -> transform(body, () -> ZlibStream.decoder(encoding), true))
+				.build();
+	}
+
+	/**
+	 * ボディを逐次的に圧縮 / 展開する
+	 * @param body
+	 * @param factory
+	 * @param response
+	 * @return
+	 */
+	private Flux<DataBuffer> transform(Flux<DataBuffer> body, Supplier<ZlibStream> factory,
+			boolean response) {
+		return Flux.using(factory::get,
+				zlib -> body.concatMapIterable(zlib::process)
+						.concatWith(Flux.defer(() -> Flux.fromIterable(zlib.finish())))
+						.doOnComplete(() -> record(zlib, response)),
+				ZlibStream::close)
+				.doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+	}
+
+	private void record(ZlibStream zlib, boolean response) {
+		if (response) {
+			metrics.recordResponse(zlib.getInputBytes(), zlib.getOutputBytes(), zlib.getNanos());
+		} else {
+			metrics.recordRequest(zlib.getInputBytes(), zlib.getOutputBytes(), zlib.getNanos());
+		}
+	}
+
+	private boolean isCompressible(MediaType contentType) {
+		if (contentType == null) {
+			return false;
+		}
+		for (MediaType mimeType : mimeTypes) {
+			if (mimeType.includes(contentType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * リクエストボディを圧縮するデコレーター
+	 * 圧縮するかは、書き込み開始時点のヘッダー（BodyInserterが設定したContent-Type / Content-Length）で判定する
+	 */
+	private class CompressingRequest extends ClientHttpRequestDecorator {
+		private final RequestCompressionPolicy policy;
+
+		CompressingRequest(ClientHttpRequest delegate, RequestCompressionPolicy policy) {
+			super(delegate);
+			this.policy = policy;
+		}
+
+		@Override
+		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+			HttpHeaders headers = getHeaders();
+			if (headers.containsKey(HttpHeaders.CONTENT_ENCODING) || !isCompressible(headers.getContentType())) {
+				return super.writeWith(body);
+			}
+
+			if (body instanceof Mono) {
+				// エンコード済みのボディ1件（JSONなど）：サイズを確認してから圧縮するか決める
+				return Mono.from(body)
+						.map(Optional::of)
+						.defaultIfEmpty(Optional.empty())
+						.flatMap(buffer -> {
+							if (buffer.isEmpty() || !policy.shouldCompress(buffer.get().readableByteCount())) {
+								return super.writeWith(Mono.justOrEmpty(buffer));
+							}
+							headers.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+							return transform(Flux.just(buffer.get()), () -> ZlibStream.gzipEncoder(level), false)
+									.collectList()
+									.flatMap(compressed -> {
+										headers.setContentLength(compressed.stream()
+												.mapToLong(DataBuffer::readableByteCount).sum());
+										return super.writeWith(Flux.fromIterable(compressed));
+									});
+						});
+			}
+
+			long length = headers.getContentLength();
+			if (length >= 0 && policy.shouldCompress(length)) {
+				// Content-Length指定済みのストリーム：逐次圧縮する（圧縮後の長さは不明のためchunkedで送信）
+				headers.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+				headers.remove(HttpHeaders.CONTENT_LENGTH);
+				return super.writeWith(transform(Flux.from(body), () -> ZlibStream.gzipEncoder(level), false));
+			}
+			return super.writeWith(body);
+		}
+	}
+}
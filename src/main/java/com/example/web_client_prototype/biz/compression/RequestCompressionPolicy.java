@@ -0,0 +1,38 @@
+package com.example.web_client_prototype.biz.compression;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * リクエストボディの圧縮方針（接続先のパスごと）
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class RequestCompressionPolicy {
+	/** 方針名 */
+	private final String name;
+	/** 対象のパス（前方一致、nullの場合はすべて） */
+	private final String pathPrefix;
+	/** 圧縮するボディの最小バイト数（負の値の場合は圧縮しない） */
+	private final long minBytes;
+
+	/**
+	 * 対象のパスか
+	 * @param path
+	 * @return
+	 */
+	public boolean matches(String path) {
+		return pathPrefix == null || (path != null && path.startsWith(pathPrefix));
+	}
+
+	/**
+	 * 圧縮するか
+	 * @param length ボディのバイト数
+	 * @return
+	 */
+	public boolean shouldCompress(long length) {
+		return minBytes >= 0 && length >= minBytes;
+	}
+}
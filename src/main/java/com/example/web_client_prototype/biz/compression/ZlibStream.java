@@ -0,0 +1,147 @@
+package com.example.web_client_prototype.biz.compression;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.compression.ZlibCodecFactory;
+import io.netty.handler.codec.compression.ZlibWrapper;
+
+/**
+ * gzip / deflateの逐次的な圧縮・展開（NettyのHttpContentDecompressorと同じく、EmbeddedChannel上のZlibコーデックを使用する）
+ *  - 受け取ったDataBufferはそのまま処理し（参照カウントはコーデックが解放する）、処理済みの分だけを返却する
+ *  - 処理前後のバイト数と処理時間を記録する
+ * スレッドセーフではない（1つのボディに対して1インスタンス）
+ */
+class ZlibStream {
+
+	private static final NettyDataBufferFactory BUFFER_FACTORY = new NettyDataBufferFactory(ByteBufAllocator.DEFAULT);
+
+	private final EmbeddedChannel channel;
+	/** 展開（inbound）か圧縮（outbound）か */
+	private final boolean decode;
+	private long inputBytes;
+	private long outputBytes;
+	private long nanos;
+
+	private ZlibStream(EmbeddedChannel channel, boolean decode) {
+		this.channel = channel;
+		this.decode = decode;
+	}
+
+	/**
+	 * 展開用
+	 * @param encoding Content-Encoding（gzip / x-gzip / deflate）
+	 * @return 未対応の場合はnull
+	 */
+	static ZlibStream decoder(String encoding) {
+		ZlibWrapper wrapper = wrapper(encoding);
+		return (wrapper != null)
+				? new ZlibStream(new EmbeddedChannel(ZlibCodecFactory.newZlibDecoder(wrapper)), true)
+				: null;
+	}
+
+	/**
+	 * gzip圧縮用
+	 * @param level 圧縮レベル（1～9）
+	 * @return
+	 */
+	static ZlibStream gzipEncoder(int level) {
+		return new ZlibStream(new EmbeddedChannel(ZlibCodecFactory.newZlibEncoder(ZlibWrapper.GZIP, level)), false);
+	}
+
+	/**
+	 * 対応しているContent-Encodingか
+	 * @param encoding
+	 * @return
+	 */
+	static boolean isSupported(String encoding) {
+		return wrapper(encoding) != null;
+	}
+
+	private static ZlibWrapper wrapper(String encoding) {
+		if (encoding == null) {
+			return null;
+		}
+		switch (encoding.trim().toLowerCase()) {
+		case "gzip":
+		case "x-gzip":
+			return ZlibWrapper.GZIP;
+		case "deflate":
+		case "x-deflate":
+			// zlib形式だけでなく、ヘッダーなしのdeflateを返すサーバーにも対応する
+			return ZlibWrapper.ZLIB_OR_NONE;
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * 1チャンク分を処理する
+	 * @param buffer
+	 * @return 処理済みのデータ（まだ出力できない場合は空）
+	 */
+	List<DataBuffer> process(DataBuffer buffer) {
+		long start = System.nanoTime();
+		ByteBuf byteBuf = NettyDataBufferFactory.toByteBuf(buffer);
+		inputBytes += byteBuf.readableBytes();
+		if (decode) {
+			channel.writeInbound(byteBuf);
+		} else {
+			channel.writeOutbound(byteBuf);
+		}
+		List<DataBuffer> output = drain();
+		nanos += System.nanoTime() - start;
+		return output;
+	}
+
+	/**
+	 * 残りのデータを出力して終了する（gzipのトレーラーなど）
+	 * @return
+	 */
+	List<DataBuffer> finish() {
+		long start = System.nanoTime();
+		channel.finish();
+		List<DataBuffer> output = drain();
+		nanos += System.nanoTime() - start;
+		return output;
+	}
+
+	/**
+	 * 未出力のデータを破棄して終了する（キャンセル・エラー時）
+	 */
+	void close() {
+		channel.finishAndReleaseAll();
+	}
+
+	long getInputBytes() {
+		return inputBytes;
+	}
+
+	long getOutputBytes() {
+		return outputBytes;
+	}
+
+	long getNanos() {
+		return nanos;
+	}
+
+	private List<DataBuffer> drain() {
+		List<DataBuffer> output = new ArrayList<>(2);
+		ByteBuf byteBuf;
+		while ((byteBuf = decode ? channel.readInbound() : channel.readOutbound()) != null) {
+			if (!byteBuf.isReadable()) {
+				byteBuf.release();
+				continue;
+			}
+			outputBytes += byteBuf.readableBytes();
+			output.add(BUFFER_FACTORY.wrap(byteBuf));
+		}
+		return output;
+	}
+}
@@ -0,0 +1,13 @@
+package com.example.web_client_prototype.biz.error;
+
+/**
+ * 2xx系以外のレスポンスの扱い
+ */
+public enum ErrorHandlingMode {
+	/** 従来どおり：ClientResponse#createException（ボディ全体を読み込み、スタックトレースあり）からカスタム例外を生成する */
+	FULL,
+	/** スタックトレースなしのカスタム例外（ボディは上限バイト数まで、メッセージは取得時に生成） */
+	STACKLESS,
+	/** ResponseEntityを返却するメソッドは例外にせず、ステータス・ヘッダーのみのResponseEntityを返却する（それ以外はSTACKLESS） */
+	RETURN_STATUS
+}
@@ -0,0 +1,253 @@
+package com.example.web_client_prototype.biz.error;
+
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.ClientResponse;
+
+import com.example.web_client_prototype.exception.ClientErrorException;
+import com.example.web_client_prototype.exception.ErrorStatusException;
+import com.example.web_client_prototype.exception.ServerErrorException;
+import com.example.web_client_prototype.exception.UnknownErrorException;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * 2xx系以外のレスポンスの処理（WebClientHelper / WebApiClient / FileTransferClientで共通）
+ *  - FULL：従来どおりClientResponse#createExceptionからカスタム例外を生成する
+ *  - STACKLESS：スタックトレースを取得しないカスタム例外を生成する
+ *    メッセージの先頭（「Client Error: 404 Not Found」等）はステータスごとに生成済みのものを使用し、
+ *    ボディは上限バイト数までのみ保持する（残りは読み捨て、コネクションを再利用できるようにする）
+ *  - RETURN_STATUS：ResponseEntityを返却する場合は例外にせず、ステータス・ヘッダーのみのResponseEntityを返却する
+ */
+public class ErrorResponseHandler {
+
+	private static final byte[] EMPTY = new byte[0];
+
+	/** デフォルトの扱い（リクエストで指定がない場合） */
+	private final ErrorHandlingMode mode;
+	/** 例外に保持するボディの上限バイト数（0の場合は保持しない） */
+	private final int maxBodyBytes;
+	/** ステータスコード（100～599）ごとのメッセージの先頭 */
+	private final String[] statusLines = new String[600];
+
+	public ErrorResponseHandler(ErrorHandlingMode mode, int maxBodyBytes) {
+		this.mode = mode;
+		this.maxBodyBytes = Math.max(maxBodyBytes, 0);
+		for (int code = 100; code < statusLines.length; code++) {
+			statusLines[code] = prefix(code) + statusText(code);
+		}
+	}
+
+	public ErrorHandlingMode getMode() {
+		return mode;
+	}
+
+	/**
+	 * リクエストで指定した扱い（nullの場合はデフォルト）
+	 * @param requested
+	 * @return
+	 */
+	public ErrorHandlingMode resolve(ErrorHandlingMode requested) {
+		return requested != null ? requested : mode;
+	}
+
+	/**
+	 * 2xx系以外のレスポンスか（ClientResponse#statusCode()と異なり、未定義のステータスコードでも例外にしない）
+	 * @param res
+	 * @return
+	 */
+	public boolean isError(ClientResponse res) {
+		int code = res.rawStatusCode();
+		return code < 200 || code >= 300;
+	}
+
+	/**
+	 * 2xx系以外のレスポンスをカスタム例外のエラーシグナルに変換する
+	 * @param <T>
+	 * @param res
+	 * @param method
+	 * @param uri
+	 * @return
+	 */
+	public <T> Mono<T> handleError(ClientResponse res, HttpMethod method, URI uri) {
+		return handleError(res, method, uri, mode);
+	}
+
+	/**
+	 * 2xx系以外のレスポンスをカスタム例外のエラーシグナルに変換する
+	 * @param <T>
+	 * @param res
+	 * @param method
+	 * @param uri
+	 * @param mode
+	 * @return
+	 */
+	public <T> Mono<T> handleError(ClientResponse res, HttpMethod method, URI uri, ErrorHandlingMode mode) {
+		return createException(res, method, uri, mode).flatMap(Mono::error);
+	}
+
+	/**
+	 * 2xx系以外のレスポンスを処理する（ResponseEntityを返却する場合）
+	 * RETURN_STATUSの場合はボディを読み捨て、ステータス・ヘッダーのみのResponseEntityを返却する
+	 * @param <T>
+	 * @param res
+	 * @param method
+	 * @param uri
+	 * @return
+	 */
+	public <T> Mono<ResponseEntity<T>> handleEntityError(ClientResponse res, HttpMethod method, URI uri) {
+		if (mode == ErrorHandlingMode.RETURN_STATUS) {
+			return res.releaseBody()
+					.then(Mono.fromSupplier(() -> ResponseEntity.status(res.rawStatusCode())
+							.headers(res.headers().asHttpHeaders())
+							.<T>build()));
+		}
+		return handleError(res, method, uri);
+	}
+
+	/**
+	 * 2xx系以外のレスポンスからカスタム例外を生成する
+	 * @param res
+	 * @param method
+	 * @param uri
+	 * @return
+	 */
+	public Mono<ErrorStatusException> createException(ClientResponse res, HttpMethod method, URI uri) {
+		return createException(res, method, uri, mode);
+	}
+
+	/**
+	 * 2xx系以外のレスポンスからカスタム例外を生成する
+	 * @param res
+	 * @param method
+	 * @param uri
+	 * @param mode
+	 * @return
+	 */
+	public Mono<ErrorStatusException> createException(ClientResponse res, HttpMethod method, URI uri,
+			ErrorHandlingMode mode) {
+		if (mode == ErrorHandlingMode.FULL) {
+			return createFullException(res);
+		}
+		if (maxBodyBytes == 0) {
+			return res.releaseBody().then(Mono.fromSupplier(() -> newException(res, method, uri, EMPTY)));
+		}
+		return res.body((inputMessage, context) -> inputMessage.getBody())
+				.collect(() -> new CappedBody(maxBodyBytes), CappedBody::append)
+				.map(body -> newException(res, method, uri, body.toByteArray()));
+	}
+
+	/**
+	 * 例外で取得したエラーをResponseEntity（ステータス・ヘッダーのみ）に変換する（RETURN_STATUSの場合）
+	 * @param <T>
+	 * @param e
+	 * @return
+	 */
+	public <T> Mono<ResponseEntity<T>> toStatusEntity(Throwable e) {
+		if (!(e instanceof ErrorStatusException) || ((ErrorStatusException) e).getRawStatusCode() == 0) {
+			return Mono.error(e);
+		}
+		ErrorStatusException ex = (ErrorStatusException) e;
+		return Mono.just(ResponseEntity.status(ex.getRawStatusCode()).headers(ex.getHeaders()).build());
+	}
+
+	/**
+	 * 従来の例外の生成（ボディ全体を読み込み、スタックトレースあり）
+	 * @param res
+	 * @return
+	 */
+	private Mono<ErrorStatusException> createFullException(ClientResponse res) {
+		int code = res.rawStatusCode();
+		if (code >= 400 && code < 500) {
+			// 4xxエラー
+			return res.createException()
+					.map(ex -> new ClientErrorException("Client Error: " + ex.getMessage(), HttpStatus.resolve(code)));
+		} else if (code >= 500 && code < 600) {
+			// 5xxエラー
+			return res.createException()
+					.map(ex -> new ServerErrorException("Server Error: " + ex.getMessage(), HttpStatus.resolve(code)));
+		}
+
+		// 想定外エラー（2xx, 4xx, 5xx以外）
+		return res.createException()
+				.map(ex -> new UnknownErrorException("Unexpected Error: " + ex.getMessage()));
+	}
+
+	private ErrorStatusException newException(ClientResponse res, HttpMethod method, URI uri, byte[] body) {
+		int code = res.rawStatusCode();
+		String statusLine = (code >= 100 && code < statusLines.length)
+				? statusLines[code] : prefix(code) + code;
+		HttpHeaders headers = res.headers().asHttpHeaders();
+		Charset charset = res.headers().contentType()
+				.map(MediaType::getCharset)
+				.orElse(StandardCharsets.UTF_8);
+		if (code >= 400 && code < 500) {
+			return new ClientErrorException(statusLine, code, method, uri, headers, body, charset);
+		} else if (code >= 500 && code < 600) {
+			return new ServerErrorException(statusLine, code, method, uri, headers, body, charset);
+		}
+		return new UnknownErrorException(statusLine, code, method, uri, headers, body, charset);
+	}
+
+	private static String prefix(int code) {
+		if (code >= 400 && code < 500) {
+			return "Client Error: ";
+		} else if (code >= 500 && code < 600) {
+			return "Server Error: ";
+		}
+		return "Unexpected Error: ";
+	}
+
+	/**
+	 * 従来（WebClientResponseException）と同じ「404 Not Found」の形式
+	 * @param code
+	 * @return
+	 */
+	private static String statusText(int code) {
+		HttpStatus status = HttpStatus.resolve(code);
+		return status != null ? code + " " + status.getReasonPhrase() : String.valueOf(code);
+	}
+
+	/**
+	 * 上限バイト数までのボディ（超えた分は読み捨てる）
+	 */
+	private static class CappedBody {
+		private final int maxBytes;
+		private byte[] bytes;
+		private int length;
+
+		CappedBody(int maxBytes) {
+			this.maxBytes = maxBytes;
+		}
+
+		void append(DataBuffer buffer) {
+			try {
+				int n = Math.min(buffer.readableByteCount(), maxBytes - length);
+				if (n > 0) {
+					if (bytes == null) {
+						// ボディがある場合のみ確保する
+						bytes = new byte[maxBytes];
+					}
+					buffer.read(bytes, length, n);
+					length += n;
+				}
+			} finally {
+				DataBufferUtils.release(buffer);
+			}
+		}
+
+		byte[] toByteArray() {
+			return length == 0 ? EMPTY : (length == maxBytes ? bytes : Arrays.copyOf(bytes, length));
+		}
+	}
+}
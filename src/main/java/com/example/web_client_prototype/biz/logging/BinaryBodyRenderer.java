@@ -0,0 +1,69 @@
+package com.example.web_client_prototype.biz.logging;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.springframework.http.MediaType;
+
+import com.example.web_client_prototype.biz.codec.PayloadFormat;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * バイナリ形式（Smile / CBOR）のボディをJSONに変換してログ出力する
+ * 無効な場合はバイト数のみ出力する（文字列として出力すると読めないため）
+ * 変換はExchangeLoggerのバックグラウンドスレッドで行い、切り詰めたボディは読み込めた位置までを出力する
+ */
+public class BinaryBodyRenderer {
+
+	/** 切り詰めたボディを閉じた形で出力しないよう、閉じ括弧を補完しない */
+	private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+			.disable(StreamWriteFeature.AUTO_CLOSE_CONTENT)
+			.build();
+	private static final JsonFactory SMILE_FACTORY = new SmileFactory();
+	private static final JsonFactory CBOR_FACTORY = new CBORFactory();
+
+	private final boolean enabled;
+
+	public BinaryBodyRenderer(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Content-Typeがバイナリ形式か
+	 * @param contentType
+	 * @return
+	 */
+	public boolean isBinary(MediaType contentType) {
+		return PayloadFormat.of(contentType) != null;
+	}
+
+	/**
+	 * バイナリ形式のボディをJSONに変換する
+	 * @param contentType
+	 * @param bytes
+	 * @param length
+	 * @return
+	 */
+	String render(MediaType contentType, byte[] bytes, int length) {
+		JsonFactory factory = (PayloadFormat.of(contentType) == PayloadFormat.SMILE) ? SMILE_FACTORY : CBOR_FACTORY;
+		StringWriter writer = new StringWriter();
+		try (JsonParser parser = factory.createParser(bytes, 0, length);
+				JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+			while (parser.nextToken() != null) {
+				generator.copyCurrentEvent(parser);
+			}
+		} catch (IOException e) {
+			// 切り詰めにより途中で終わる場合は、読み込めた位置までを出力する
+		}
+		return "(" + contentType.getSubtype() + ") " + writer;
+	}
+}
@@ -0,0 +1,67 @@
+package com.example.web_client_prototype.biz.logging;
+
+import java.nio.charset.Charset;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+
+/**
+ * ログ出力用のボディのプレビュー（先頭maxBytesバイトのみ保持）
+ * 流れていくDataBufferの読み取り位置は変更しない
+ * バイナリ形式（Smile / CBOR）のボディは、BinaryBodyRendererを指定した場合にJSONに変換して出力する
+ */
+class BodyPreview {
+	private final byte[] bytes;
+	private final Charset charset;
+	private final MediaType contentType;
+	/** バイナリ形式の変換（nullの場合は文字列として出力） */
+	private final BinaryBodyRenderer binaryRenderer;
+	private int length;
+	private long total;
+	private final AtomicBoolean completed = new AtomicBoolean();
+
+	BodyPreview(int maxBytes, Charset charset) {
+		this(maxBytes, charset, null, null);
+	}
+
+	BodyPreview(int maxBytes, Charset charset, MediaType contentType, BinaryBodyRenderer binaryRenderer) {
+		this.bytes = new byte[Math.max(maxBytes, 0)];
+		this.charset = charset;
+		this.contentType = contentType;
+		this.binaryRenderer = binaryRenderer;
+	}
+
+	void append(DataBuffer buffer) {
+		int readable = buffer.readableByteCount();
+		int copy = Math.min(readable, bytes.length - length);
+		if (copy > 0) {
+			// 読み取り位置を動かさずにコピーする（後続の読み込みに影響させない）
+			buffer.asByteBuffer(buffer.readPosition(), copy).get(bytes, length, copy);
+			length += copy;
+		}
+		total += readable;
+	}
+
+	/** 初回のみtrueを返す（ボディの再購読時に二重出力しないため） */
+	boolean markCompleted() {
+		return completed.compareAndSet(false, true);
+	}
+
+	/** ボディが空（0バイト）か */
+	boolean isEmpty() {
+		return total == 0;
+	}
+
+	String render() {
+		if (bytes.length == 0) {
+			return "(" + total + " bytes, not logged)";
+		}
+		String text = (binaryRenderer != null)
+				? binaryRenderer.render(contentType, bytes, length)
+				: new String(bytes, 0, length, charset);
+		return (total > length)
+				? text + " ...(truncated, " + total + " bytes)"
+				: text;
+	}
+}
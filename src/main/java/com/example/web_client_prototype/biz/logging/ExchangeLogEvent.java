@@ -0,0 +1,39 @@
+package com.example.web_client_prototype.biz.logging;
+
+import java.net.URI;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 通信ログのイベント
+ * I/Oスレッドでは参照を詰めるだけとし、文字列への整形はExchangeLoggerのバックグラウンドスレッドで行う
+ */
+@Getter
+@AllArgsConstructor
+public class ExchangeLogEvent {
+
+	public enum Kind {
+		REQUEST, RESPONSE
+	}
+
+	/** 種別 */
+	private final Kind kind;
+	/** 通信の識別子（ClientRequest#logPrefix） */
+	private final String logPrefix;
+	/** HTTPメソッド */
+	private final HttpMethod method;
+	/** URI */
+	private final URI uri;
+	/** HTTPステータス（リクエスト時は0） */
+	private final int status;
+	/** ヘッダー */
+	private final HttpHeaders headers;
+	/** ボディのプレビュー（ボディなしの場合はnull） */
+	private final BodyPreview body;
+	/** リクエスト開始からの経過時間（ナノ秒、リクエスト時は0） */
+	private final long elapsedNanos;
+}
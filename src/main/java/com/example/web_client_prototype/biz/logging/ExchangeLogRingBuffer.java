@@ -0,0 +1,81 @@
+package com.example.web_client_prototype.biz.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 固定長のロックフリーなリングバッファ（複数プロデューサー / 単一コンシューマー）
+ * 満杯の場合、offerは待たずにfalseを返す
+ * @param <E>
+ */
+class ExchangeLogRingBuffer<E> {
+	private final int mask;
+	private final AtomicReferenceArray<E> elements;
+	/** スロットごとのシーケンス番号（書き込み可能 / 読み込み可能の判定に使用） */
+	private final AtomicLongArray sequences;
+	/** 次に書き込む位置（プロデューサー間でCASにより確保する） */
+	private final AtomicLong tail = new AtomicLong();
+	/** 次に読み込む位置（コンシューマーのみが更新する） */
+	private long head;
+
+	/**
+	 * @param capacity 容量（2の累乗に切り上げる）
+	 */
+	ExchangeLogRingBuffer(int capacity) {
+		int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+		this.mask = size - 1;
+		this.elements = new AtomicReferenceArray<>(size);
+		this.sequences = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++) {
+			sequences.set(i, i);
+		}
+	}
+
+	/**
+	 * 要素を追加する
+	 * @param e
+	 * @return 満杯で追加できなかった場合はfalse
+	 */
+	boolean offer(E e) {
+		while (true) {
+			long pos = tail.get();
+			int index = (int) (pos & mask);
+			long diff = sequences.get(index) - pos;
+			if (diff == 0) {
+				if (tail.compareAndSet(pos, pos + 1)) {
+					elements.lazySet(index, e);
+					sequences.set(index, pos + 1); // 読み込み可能にする
+					return true;
+				}
+			} else if (diff < 0) {
+				// 1周前の要素がまだ読み込まれていない（満杯）
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * 読み込み可能な要素がないか（単一のコンシューマースレッドからのみ呼び出すこと）
+	 * @return
+	 */
+	boolean isEmpty() {
+		return sequences.get((int) (head & mask)) != head + 1;
+	}
+
+	/**
+	 * 要素を取り出す（単一のコンシューマースレッドからのみ呼び出すこと）
+	 * @return 空の場合はnull
+	 */
+	E poll() {
+		int index = (int) (head & mask);
+		if (sequences.get(index) != head + 1) {
+			return null;
+		}
+		E e = elements.get(index);
+		elements.lazySet(index, null);
+		sequences.set(index, head + mask + 1); // 次の周回で書き込み可能にする
+		head++;
+		return e;
+	}
+}
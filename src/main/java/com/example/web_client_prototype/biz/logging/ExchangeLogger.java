@@ -0,0 +1,211 @@
+package com.example.web_client_prototype.biz.logging;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 通信ログの出力パイプライン
+ *  - 無効時（設定またはDEBUGが無効）は呼び出し元で何も処理しないよう、isEnabled / sampleで判定させる
+ *  - イベントはロックフリーなリングバッファに積むだけとし、整形・出力はバックグラウンドスレッドで行う
+ *  - リングバッファが満杯の場合はイベントを破棄する（I/Oスレッドを待たせない）
+ *  - 出力時に機密ヘッダーの値をマスクする
+ *  - バックグラウンドスレッドは有効な場合のみ開始し（DEBUGを後から有効にした場合は最初のイベントで開始する）、
+ *    イベントがない間は待機する（publishで起こす）
+ */
+public class ExchangeLogger {
+
+	private static final Logger logger = LoggerFactory.getLogger(ExchangeLogger.class);
+
+	/** マスク後のヘッダー値 */
+	private static final String REDACTED = "******";
+	private final boolean enabled;
+	private final double defaultSamplingRate;
+	/** パス（前方一致）ごとのサンプリング率（登録順に判定） */
+	private final Map<String, Double> samplingRateByPath;
+	/** マスク対象のヘッダー名（小文字） */
+	private final Set<String> redactedHeaders;
+	private final ExchangeLogRingBuffer<ExchangeLogEvent> buffer;
+	/** バックグラウンドスレッド（開始前はnull） */
+	private volatile Thread drainer;
+	/** バックグラウンドスレッドがイベントを待機中か（publishで起こす） */
+	private volatile boolean waiting;
+	/** 満杯により破棄したイベント数 */
+	private final LongAdder dropped = new LongAdder();
+	private volatile boolean running = true;
+
+	public ExchangeLogger(boolean enabled, int bufferSize, double defaultSamplingRate,
+			Map<String, Double> samplingRateByPath, Collection<String> redactedHeaders) {
+		this.enabled = enabled;
+		this.defaultSamplingRate = defaultSamplingRate;
+		this.samplingRateByPath = new LinkedHashMap<>(samplingRateByPath);
+		this.redactedHeaders = redactedHeaders.stream()
+				.map(name -> name.toLowerCase(Locale.ROOT))
+				.collect(Collectors.toUnmodifiableSet());
+		this.buffer = new ExchangeLogRingBuffer<>(bufferSize);
+		if (isEnabled()) {
+			startDrainer();
+		}
+	}
+
+	/**
+	 * ログ出力が有効か
+	 * @return
+	 */
+	public boolean isEnabled() {
+		return enabled && logger.isDebugEnabled();
+	}
+
+	/**
+	 * 対象のURIをログ出力するか（サンプリング）を判定する
+	 * @param uri
+	 * @return
+	 */
+	public boolean sample(URI uri) {
+		double rate = samplingRate(uri.getRawPath());
+		return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+	}
+
+	/**
+	 * イベントを出力待ちにする
+	 * @param event
+	 */
+	public void publish(ExchangeLogEvent event) {
+		if (!buffer.offer(event)) {
+			dropped.increment();
+			return;
+		}
+		Thread thread = drainer;
+		if (thread == null) {
+			startDrainer();
+		} else if (waiting) {
+			LockSupport.unpark(thread);
+		}
+	}
+
+	/**
+	 * 満杯により破棄したイベント数
+	 * @return
+	 */
+	public long getDroppedCount() {
+		return dropped.sum();
+	}
+
+	/**
+	 * バックグラウンドスレッドを停止する（出力待ちのイベントは出力してから停止する）
+	 */
+	public void shutdown() {
+		running = false;
+		Thread thread = drainer;
+		if (thread == null) {
+			return;
+		}
+		LockSupport.unpark(thread);
+		try {
+			thread.join(TimeUnit.SECONDS.toMillis(1));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * バックグラウンドスレッドを開始する（開始済みの場合は何もしない）
+	 */
+	private synchronized void startDrainer() {
+		if (drainer != null || !running) {
+			return;
+		}
+		Thread thread = new Thread(this::drain, "exchange-log-drainer");
+		thread.setDaemon(true);
+		drainer = thread;
+		thread.start();
+	}
+
+	private double samplingRate(String path) {
+		if (path != null) {
+			for (Map.Entry<String, Double> entry : samplingRateByPath.entrySet()) {
+				if (path.startsWith(entry.getKey())) {
+					return entry.getValue();
+				}
+			}
+		}
+		return defaultSamplingRate;
+	}
+
+	/**
+	 * リングバッファからイベントを取り出して出力する（バックグラウンドスレッド）
+	 */
+	private void drain() {
+		while (true) {
+			ExchangeLogEvent event = buffer.poll();
+			if (event != null) {
+				try {
+					logger.debug(format(event));
+				} catch (RuntimeException e) {
+					logger.warn("通信ログの出力に失敗: {}", e.toString());
+				}
+			} else if (running) {
+				// 待機中にしてから再確認する（publishとの行き違いで起こされないことを防ぐ）
+				waiting = true;
+				if (buffer.isEmpty() && running) {
+					LockSupport.park(this);
+				}
+				waiting = false;
+			} else {
+				break;
+			}
+		}
+	}
+
+	/**
+	 * イベントをログ文字列に整形する
+	 * @param event
+	 * @return
+	 */
+	private String format(ExchangeLogEvent event) {
+		StringBuilder sb = new StringBuilder();
+		if (event.getKind() == ExchangeLogEvent.Kind.REQUEST) {
+			sb.append("\n\n----------★★リクエスト★★----------\n")
+					.append("★Request Method: ").append(event.getMethod()).append("\n")
+					.append("★Request URI: ").append(event.getUri()).append("\n")
+					.append("★Request Headers:\n");
+			appendHeaders(sb, event);
+			if (event.getBody() != null && !event.getBody().isEmpty()) {
+				sb.append("★Request Body: ").append(event.getBody().render()).append("\n");
+			}
+		} else {
+			sb.append("\n\n----------★★レスポンス★★----------\n")
+					.append("★Request: ").append(event.getMethod()).append(" ").append(event.getUri()).append("\n")
+					.append("★Response Status Code: ").append(event.getStatus()).append("\n")
+					.append("★Elapsed: ").append(TimeUnit.NANOSECONDS.toMillis(event.getElapsedNanos())).append(" ms\n")
+					.append("★Response Headers:\n");
+			appendHeaders(sb, event);
+			sb.append("★Response Body: ")
+					.append(event.getBody() != null ? event.getBody().render() : "No Body")
+					.append("\n");
+		}
+		return event.getLogPrefix() + sb;
+	}
+
+	private void appendHeaders(StringBuilder sb, ExchangeLogEvent event) {
+		event.getHeaders().forEach((name, values) -> {
+			boolean redact = redactedHeaders.contains(name.toLowerCase(Locale.ROOT));
+			values.forEach(value -> sb.append("  ")
+					.append(name)
+					.append(": ")
+					.append(redact ? REDACTED : value)
+					.append("\n"));
+		});
+	}
+}
@@ -0,0 +1,218 @@
+package com.example.web_client_prototype.biz.logging;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpRequestDecorator;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebClientのリクエスト / レスポンスのログ出力
+ *  - ログ出力が無効、またはサンプリング対象外の場合はリクエスト / レスポンスに一切手を加えない
+ *  - ボディは全体をバッファせず、流れていくDataBufferから先頭の一部のみをプレビュー用にコピーする
+ *  - 整形・出力はExchangeLoggerのバックグラウンドスレッドで行う
+ *  - バイナリ形式（Smile / CBOR）のボディは、BinaryBodyRendererが有効な場合のみJSONに変換して出力する（無効な場合はバイト数のみ）
+ */
+public class ExchangeLoggingFilter implements ExchangeFilterFunction {
+
+	private final ExchangeLogger exchangeLogger;
+	/** リクエストボディのログ出力最大バイト数 */
+	private final int requestMaxBytes;
+	/** Content-Typeごとのリクエストボディのログ出力最大バイト数（登録順に判定） */
+	private final Map<MediaType, Integer> requestMaxBytesByType;
+	/** Content-Typeごとのレスポンスボディのログ出力最大バイト数（登録順に判定） */
+	private final Map<MediaType, Integer> responseMaxBytesByType;
+	/** 上記に該当しないContent-Typeのレスポンスボディのログ出力最大バイト数 */
+	private final int responseDefaultMaxBytes;
+	private final BinaryBodyRenderer binaryBodyRenderer;
+
+	public ExchangeLoggingFilter(ExchangeLogger exchangeLogger, int requestMaxBytes,
+			Map<MediaType, Integer> requestMaxBytesByType, int responseDefaultMaxBytes,
+			Map<MediaType, Integer> responseMaxBytesByType, BinaryBodyRenderer binaryBodyRenderer) {
+		this.exchangeLogger = exchangeLogger;
+		this.requestMaxBytes = requestMaxBytes;
+		this.requestMaxBytesByType = new LinkedHashMap<>(requestMaxBytesByType);
+		this.responseDefaultMaxBytes = responseDefaultMaxBytes;
+		this.responseMaxBytesByType = new LinkedHashMap<>(responseMaxBytesByType);
+		this.binaryBodyRenderer = binaryBodyRenderer;
+	}
+
+	@Override
+	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+		if (!exchangeLogger.isEnabled() || !exchangeLogger.sample(request.url())) {
+			// ログ出力しない場合はそのまま返却
+			return next.exchange(request);
+		}
+
+		long start = System.nanoTime();
+		return next.exchange(logRequest(request))
+				.map(res -> logResponse(request, res, start));
+	}
+
+	/**
+	 * リクエストをログ出力する
+	 * リクエストボディは書き込み時にプレビューをコピーし、書き込み完了時にヘッダーと合わせて出力する
+	 * ヘッダーはBodyInserterが設定した後の値（multipartのContent-Typeなど）を出力する
+	 * @param request
+	 * @return
+	 */
+	private ClientRequest logRequest(ClientRequest request) {
+		BodyInserter<?, ? super ClientHttpRequest> inserter = request.body();
+
+		return ClientRequest.from(request)
+				.body((outputMessage, context) -> {
+					PreviewingRequest previewing = new PreviewingRequest(outputMessage);
+					return inserter.insert(previewing, context)
+							.doFinally(signal -> {
+								BodyPreview preview = previewing.preview();
+								if (preview.markCompleted()) {
+									exchangeLogger.publish(new ExchangeLogEvent(ExchangeLogEvent.Kind.REQUEST,
+											request.logPrefix(), request.method(), request.url(), 0,
+											outputMessage.getHeaders(), preview, 0L));
+								}
+							});
+				})
+				.build();
+	}
+
+	/**
+	 * レスポンスをログ出力する
+	 * ボディありの場合は、ボディの読み込み完了（またはキャンセル）時に出力する
+	 * @param request
+	 * @param res
+	 * @param start
+	 * @return
+	 */
+	private ClientResponse logResponse(ClientRequest request, ClientResponse res, long start) {
+		if (!hasBody(res)) {
+			// ボディなしの場合
+			exchangeLogger.publish(new ExchangeLogEvent(ExchangeLogEvent.Kind.RESPONSE, request.logPrefix(),
+					request.method(), request.url(), res.rawStatusCode(), res.headers().asHttpHeaders(), null,
+					System.nanoTime() - start));
+			return res;
+		}
+
+		// ボディありの場合は、流れてくるDataBufferから先頭の一部のみコピーする
+		MediaType contentType = res.headers().contentType().orElse(null);
+		BodyPreview preview = createPreview(contentType,
+				maxBytes(contentType, responseMaxBytesByType, responseDefaultMaxBytes));
+		return res.mutate()
+				.body(body -> body
+						.doOnNext(preview::append)
+						.doFinally(signal -> {
+							// ボディの再購読（未消費ボディの解放処理など）では出力しない
+							if (preview.markCompleted()) {
+								exchangeLogger.publish(new ExchangeLogEvent(ExchangeLogEvent.Kind.RESPONSE,
+										request.logPrefix(), request.method(), request.url(), res.rawStatusCode(),
+										res.headers().asHttpHeaders(), preview, System.nanoTime() - start));
+							}
+						}))
+				.build();
+	}
+
+	/**
+	 * レスポンスボディ有無を判定する
+	 * @param res
+	 * @return
+	 */
+	private boolean hasBody(ClientResponse res) {
+		long length = res.headers().contentLength().orElse(-1L);
+		String transferEncoding = res.headers().asHttpHeaders().getFirst("Transfer-Encoding");
+		boolean hasChunked = transferEncoding != null && transferEncoding.equalsIgnoreCase("chunked");
+
+		return !((length == 0 && !hasChunked)
+				|| res.rawStatusCode() == HttpStatus.NO_CONTENT.value() // 204
+				|| res.rawStatusCode() == HttpStatus.RESET_CONTENT.value() // 205
+				|| res.rawStatusCode() == HttpStatus.NOT_MODIFIED.value()); // 304
+	}
+
+	/**
+	 * Content-Typeに対応するボディのログ出力最大バイト数を取得する
+	 * @param contentType
+	 * @param maxBytesByType
+	 * @param defaultMaxBytes
+	 * @return
+	 */
+	private static int maxBytes(MediaType contentType, Map<MediaType, Integer> maxBytesByType, int defaultMaxBytes) {
+		if (contentType != null) {
+			for (Map.Entry<MediaType, Integer> entry : maxBytesByType.entrySet()) {
+				if (entry.getKey().includes(contentType)) {
+					return entry.getValue();
+				}
+			}
+		}
+		return defaultMaxBytes;
+	}
+
+	/**
+	 * Content-Typeに応じたプレビューを生成する
+	 * バイナリ形式のボディは、変換しない場合はコピーしない（バイト数のみ出力する）
+	 * @param contentType
+	 * @param maxBytes
+	 * @return
+	 */
+	private BodyPreview createPreview(MediaType contentType, int maxBytes) {
+		if (!binaryBodyRenderer.isBinary(contentType)) {
+			return new BodyPreview(maxBytes, charset(contentType));
+		}
+		return binaryBodyRenderer.isEnabled()
+				? new BodyPreview(maxBytes, charset(contentType), contentType, binaryBodyRenderer)
+				: new BodyPreview(0, charset(contentType));
+	}
+
+	private static Charset charset(MediaType contentType) {
+		return (contentType != null && contentType.getCharset() != null)
+				? contentType.getCharset()
+				: StandardCharsets.UTF_8;
+	}
+
+	/**
+	 * 書き込まれるリクエストボディのプレビューをコピーするデコレーター
+	 * プレビューの最大バイト数は、書き込み開始時点のContent-Typeで決める（BodyInserterが設定するため）
+	 */
+	private class PreviewingRequest extends ClientHttpRequestDecorator {
+		private BodyPreview preview;
+
+		PreviewingRequest(ClientHttpRequest delegate) {
+			super(delegate);
+		}
+
+		BodyPreview preview() {
+			if (preview == null) {
+				MediaType contentType = getHeaders().getContentType();
+				preview = createPreview(contentType, maxBytes(contentType, requestMaxBytesByType, requestMaxBytes));
+			}
+			return preview;
+		}
+
+		@Override
+		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+			BodyPreview preview = preview();
+			// Monoの場合はMonoのまま渡す（Content-Length付きの送信を維持する）
+			return (body instanceof Mono)
+					? super.writeWith(Mono.from(body).doOnNext(preview::append))
+					: super.writeWith(Flux.from(body).doOnNext(preview::append));
+		}
+
+		@Override
+		public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+			BodyPreview preview = preview();
+			return super.writeAndFlushWith(Flux.from(body)
+					.map(chunk -> Flux.from(chunk).doOnNext(preview::append)));
+		}
+	}
+}
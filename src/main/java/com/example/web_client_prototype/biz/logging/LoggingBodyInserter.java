@@ -2,18 +2,20 @@ package com.example.web_client_prototype.biz.logging;
 
 import java.util.function.Consumer;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.http.client.reactive.ClientHttpRequest;
 import org.springframework.web.reactive.function.BodyInserter;
 import org.springframework.web.reactive.function.BodyInserters;
 
 import reactor.core.publisher.Mono;
 
+/**
+ * リクエストボディを挿入するBodyInserter
+ * リクエストボディのログ出力はExchangeLoggingFilterがシリアライズ後のバイト列から（サンプリング・切り詰めを行って）出力するため、
+ * fromObjectではI/Oスレッド上でボディの整形を行わない
+ * 任意の処理を挟みたい場合はコンストラクタでbodyLoggerを指定する
+ */
 public class LoggingBodyInserter<T> implements BodyInserter<T, ClientHttpRequest> {
 
-	private static final Logger logger = LoggerFactory.getLogger(LoggingBodyInserter.class);
-
 	private final T body;
 	private final Consumer<T> bodyLogger;
 
@@ -23,13 +25,14 @@ public class LoggingBodyInserter<T> implements BodyInserter<T, ClientHttpRequest
 	}
 
 	public static <T> LoggingBodyInserter<T> fromObject(T body) {
-		return new LoggingBodyInserter<>(body,
-				b -> logger.debug("\n\n----------★★リクエスト★★----------\n★Request Body: {}\n", b));
+		return new LoggingBodyInserter<>(body, null);
 	}
 
 	@Override
 	public Mono<Void> insert(ClientHttpRequest outputMessage, BodyInserter.Context context) {
-		bodyLogger.accept(body); // ログ出力
+		if (bodyLogger != null) {
+			bodyLogger.accept(body);
+		}
 		return BodyInserters.fromValue(body).insert(outputMessage, context); // 本来のボディ挿入
 	}
 }
@@ -0,0 +1,89 @@
+package com.example.web_client_prototype.biz.metrics;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 圧縮のメトリクス（リクエストの圧縮 / レスポンスの展開それぞれの件数・バイト数・処理時間）
+ */
+public class CompressionMetrics {
+
+	private final Counters requests = new Counters();
+	private final Counters responses = new Counters();
+
+	/**
+	 * リクエストボディの圧縮を記録する
+	 * @param plainBytes 圧縮前のバイト数
+	 * @param wireBytes 圧縮後のバイト数
+	 * @param nanos 処理時間
+	 */
+	public void recordRequest(long plainBytes, long wireBytes, long nanos) {
+		requests.record(plainBytes, wireBytes, nanos);
+	}
+
+	/**
+	 * レスポンスボディの展開を記録する
+	 * @param wireBytes 展開前のバイト数
+	 * @param plainBytes 展開後のバイト数
+	 * @param nanos 処理時間
+	 */
+	public void recordResponse(long wireBytes, long plainBytes, long nanos) {
+		responses.record(plainBytes, wireBytes, nanos);
+	}
+
+	/**
+	 * 現在値を取得する
+	 * @return リクエスト / レスポンスのスナップショット
+	 */
+	public List<Snapshot> snapshot() {
+		return List.of(requests.snapshot("request"), responses.snapshot("response"));
+	}
+
+	private static class Counters {
+		private final LongAdder count = new LongAdder();
+		private final LongAdder plainBytes = new LongAdder();
+		private final LongAdder wireBytes = new LongAdder();
+		private final LongAdder nanos = new LongAdder();
+
+		void record(long plain, long wire, long elapsed) {
+			count.increment();
+			plainBytes.add(plain);
+			wireBytes.add(wire);
+			nanos.add(elapsed);
+		}
+
+		Snapshot snapshot(String direction) {
+			long plain = plainBytes.sum();
+			long wire = wireBytes.sum();
+			return new Snapshot(direction, count.sum(), plain, wire,
+					plain > 0 ? (double) wire / plain : 0.0,
+					TimeUnit.NANOSECONDS.toMillis(nanos.sum()));
+		}
+	}
+
+	/**
+	 * 圧縮の状況
+	 */
+	@Getter
+	@ToString
+	@AllArgsConstructor
+	public static class Snapshot {
+		/** request（圧縮して送信） / response（受信して展開） */
+		private final String direction;
+		/** 件数 */
+		private final long count;
+		/** 圧縮前のバイト数 */
+		private final long plainBytes;
+		/** 圧縮後（送受信）のバイト数 */
+		private final long wireBytes;
+		/** 圧縮率（圧縮後 / 圧縮前） */
+		private final double ratio;
+		/** 圧縮・展開の処理時間の合計（ミリ秒） */
+		private final long timeMillis;
+	}
+}
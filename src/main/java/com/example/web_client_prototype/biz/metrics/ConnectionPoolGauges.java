@@ -0,0 +1,79 @@
+package com.example.web_client_prototype.biz.metrics;
+
+import java.net.SocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * コネクションプールのゲージ（接続先ごとの使用中 / アイドル / 取得待ちの接続数）
+ * Reactor NettyのConnectionProviderに登録し、接続先ごとのプール生成 / 破棄時に通知を受ける
+ */
+public class ConnectionPoolGauges implements ConnectionProvider.MeterRegistrar {
+
+	/** プールID → プールのメトリクス */
+	private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+
+	@Override
+	public void registerMetrics(String poolName, String id, SocketAddress remoteAddress,
+			ConnectionPoolMetrics metrics) {
+		pools.put(id, new Pool(poolName, remoteAddress, metrics));
+	}
+
+	@Override
+	public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+		pools.remove(id);
+	}
+
+	/**
+	 * 現在値を取得する
+	 * @return 接続先ごとのスナップショット
+	 */
+	public List<Snapshot> snapshot() {
+		return pools.values().stream()
+				.map(pool -> new Snapshot(pool.poolName, String.valueOf(pool.remoteAddress),
+						pool.metrics.acquiredSize(),
+						pool.metrics.idleSize(),
+						pool.metrics.pendingAcquireSize(),
+						pool.metrics.allocatedSize(),
+						pool.metrics.maxAllocatedSize()))
+				.collect(Collectors.toList());
+	}
+
+	@AllArgsConstructor
+	private static class Pool {
+		private final String poolName;
+		private final SocketAddress remoteAddress;
+		private final ConnectionPoolMetrics metrics;
+	}
+
+	/**
+	 * 接続先ごとのプールの状態
+	 */
+	@Getter
+	@ToString
+	@AllArgsConstructor
+	public static class Snapshot {
+		/** プール名 */
+		private final String poolName;
+		/** 接続先 */
+		private final String remoteAddress;
+		/** 使用中の接続数 */
+		private final int active;
+		/** アイドル状態の接続数 */
+		private final int idle;
+		/** 接続の取得待ち数 */
+		private final int pending;
+		/** 確立済みの接続数（使用中 + アイドル） */
+		private final int allocated;
+		/** 最大接続数 */
+		private final int maxAllocated;
+	}
+}
@@ -0,0 +1,215 @@
+package com.example.web_client_prototype.biz.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.http.HttpMethod;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 通信のメトリクス（エンドポイント：メソッド + URIテンプレートごと）
+ *  - ステータス区分（2xx / 3xx / 4xx / 5xx / ERROR）ごとの応答時間のヒストグラムと件数
+ *  - 送信中の件数、送信 / 受信バイト数、エラー種別（例外）ごとの件数
+ * 記録はLongAdder / ヒストグラムの加算のみとし、集計はsnapshot()の呼び出し時に行う
+ */
+public class ExchangeMetrics {
+
+	/** エンドポイント → メトリクス */
+	private final Map<Key, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+	/**
+	 * エンドポイントのメトリクスを取得する（未作成の場合は作成する）
+	 * @param method
+	 * @param uriTemplate
+	 * @return
+	 */
+	public Endpoint endpoint(HttpMethod method, String uriTemplate) {
+		return endpoints.computeIfAbsent(new Key(method, uriTemplate), Endpoint::new);
+	}
+
+	/**
+	 * 送信中の件数（全エンドポイントの合計）
+	 * @return
+	 */
+	public int getInflight() {
+		return endpoints.values().stream().mapToInt(endpoint -> endpoint.inflight.get()).sum();
+	}
+
+	/**
+	 * 現在値を取得する
+	 * @return エンドポイント・ステータス区分ごとのスナップショット
+	 */
+	public List<Snapshot> snapshot() {
+		List<Snapshot> snapshots = new ArrayList<>();
+		for (Endpoint endpoint : endpoints.values()) {
+			Map<String, Long> errors = new TreeMap<>();
+			endpoint.errors.forEach((type, count) -> errors.put(type, count.sum()));
+			endpoint.series.forEach((statusClass, series) -> snapshots.add(new Snapshot(
+					String.valueOf(endpoint.key.method), endpoint.key.uriTemplate, statusClass,
+					series.count.sum(),
+					millis(series.histogram.percentile(0.50)),
+					millis(series.histogram.percentile(0.95)),
+					millis(series.histogram.percentile(0.99)),
+					endpoint.inflight.get(), endpoint.bytesOut.sum(), endpoint.bytesIn.sum(), errors)));
+		}
+		snapshots.sort(Comparator.comparing(Snapshot::getUriTemplate)
+				.thenComparing(Snapshot::getMethod)
+				.thenComparing(Snapshot::getStatusClass));
+		return snapshots;
+	}
+
+	/**
+	 * 現在値をテキストで取得する（JMX / 画面表示用）
+	 * @return
+	 */
+	public String getSnapshotText() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%-7s %-50s %-6s %10s %9s %9s %9s %8s %12s %12s%n", "METHOD", "URI_TEMPLATE",
+				"STATUS", "COUNT", "P50(ms)", "P95(ms)", "P99(ms)", "INFLIGHT", "BYTES_OUT", "BYTES_IN"));
+		for (Snapshot s : snapshot()) {
+			sb.append(String.format("%-7s %-50s %-6s %10d %9.1f %9.1f %9.1f %8d %12d %12d%n", s.getMethod(),
+					s.getUriTemplate(), s.getStatusClass(), s.getCount(), s.getP50Millis(), s.getP95Millis(),
+					s.getP99Millis(), s.getInflight(), s.getBytesOut(), s.getBytesIn()));
+			if (!s.getErrors().isEmpty()) {
+				sb.append("        errors: ").append(s.getErrors()).append(System.lineSeparator());
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * 全メトリクスを破棄する
+	 */
+	public void reset() {
+		endpoints.clear();
+	}
+
+	private static double millis(long nanos) {
+		return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	/**
+	 * エンドポイントごとのメトリクス
+	 */
+	public static class Endpoint {
+		private final Key key;
+		private final AtomicInteger inflight = new AtomicInteger();
+		private final LongAdder bytesOut = new LongAdder();
+		private final LongAdder bytesIn = new LongAdder();
+		private final Map<String, Series> series = new ConcurrentHashMap<>();
+		private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+		private Endpoint(Key key) {
+			this.key = key;
+		}
+
+		public void incrementInflight() {
+			inflight.incrementAndGet();
+		}
+
+		public void decrementInflight() {
+			inflight.decrementAndGet();
+		}
+
+		public void addBytesOut(long bytes) {
+			bytesOut.add(bytes);
+		}
+
+		public void addBytesIn(long bytes) {
+			bytesIn.add(bytes);
+		}
+
+		/**
+		 * 応答時間を記録する
+		 * @param statusClass ステータス区分（2xx / 3xx / 4xx / 5xx / ERROR）
+		 * @param nanos
+		 */
+		public void record(String statusClass, long nanos) {
+			Series target = series.computeIfAbsent(statusClass, key -> new Series());
+			target.count.increment();
+			target.histogram.record(nanos);
+		}
+
+		/**
+		 * エラーを記録する
+		 * @param type エラー種別（例外のクラス名など）
+		 */
+		public void recordError(String type) {
+			errors.computeIfAbsent(type, key -> new LongAdder()).increment();
+		}
+	}
+
+	private static class Series {
+		private final LongAdder count = new LongAdder();
+		private final LatencyHistogram histogram = new LatencyHistogram();
+	}
+
+	private static final class Key {
+		private final HttpMethod method;
+		private final String uriTemplate;
+
+		Key(HttpMethod method, String uriTemplate) {
+			this.method = method;
+			this.uriTemplate = uriTemplate;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) o;
+			return method == other.method && uriTemplate.equals(other.uriTemplate);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(method, uriTemplate);
+		}
+	}
+
+	/**
+	 * エンドポイント・ステータス区分ごとのメトリクス
+	 */
+	@Getter
+	@ToString
+	@AllArgsConstructor
+	public static class Snapshot {
+		/** メソッド */
+		private final String method;
+		/** URIテンプレート */
+		private final String uriTemplate;
+		/** ステータス区分 */
+		private final String statusClass;
+		/** 件数 */
+		private final long count;
+		/** 応答時間（p50、ミリ秒） */
+		private final double p50Millis;
+		/** 応答時間（p95、ミリ秒） */
+		private final double p95Millis;
+		/** 応答時間（p99、ミリ秒） */
+		private final double p99Millis;
+		/** 送信中の件数（エンドポイント単位） */
+		private final int inflight;
+		/** 送信バイト数（エンドポイント単位） */
+		private final long bytesOut;
+		/** 受信バイト数（エンドポイント単位） */
+		private final long bytesIn;
+		/** エラー種別ごとの件数（エンドポイント単位） */
+		private final Map<String, Long> errors;
+	}
+}
@@ -0,0 +1,130 @@
+package com.example.web_client_prototype.biz.metrics;
+
+import java.net.URI;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpRequestDecorator;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import io.netty.handler.timeout.ReadTimeoutException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 通信のメトリクスの記録
+ *  - ラベルはURIテンプレート（リクエスト属性URI_TEMPLATE_ATTRIBUTE）を使用し、展開後のURIは使用しない
+ *    （属性がない場合は「スキーム://ホスト:ポート」とし、ラベルの種類が増え続けないようにする）
+ *  - 応答時間はレスポンスヘッダー受信までとする
+ *  - エラー種別は呼び出し元で発生させるカスタム例外に合わせる（4xx：ClientErrorException / 5xx：ServerErrorException /
+ *    それ以外：UnknownErrorException / タイムアウト：Timeout / その他は例外のクラス名）
+ */
+public class ExchangeMetricsFilter implements ExchangeFilterFunction {
+
+	/** URIテンプレートのリクエスト属性（WebClientのuri(String, Object...)で設定される属性と同じキー） */
+	public static final String URI_TEMPLATE_ATTRIBUTE = WebClient.class.getName() + ".uriTemplate";
+
+	private final ExchangeMetrics metrics;
+
+	public ExchangeMetricsFilter(ExchangeMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	@Override
+	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+		ExchangeMetrics.Endpoint endpoint = metrics.endpoint(request.method(), uriTemplate(request));
+
+		return Mono.defer(() -> {
+			endpoint.incrementInflight();
+			AtomicBoolean done = new AtomicBoolean();
+			long start = System.nanoTime();
+
+			return next.exchange(countBytesOut(request, endpoint))
+					.doOnNext(res -> {
+						if (done.compareAndSet(false, true)) {
+							endpoint.decrementInflight();
+							int status = res.rawStatusCode();
+							endpoint.record((status / 100) + "xx", System.nanoTime() - start);
+							if (status >= 400 && status < 500) {
+								endpoint.recordError("ClientErrorException");
+							} else if (status >= 500) {
+								endpoint.recordError("ServerErrorException");
+							} else if (status < 200 || status >= 300) {
+								endpoint.recordError("UnknownErrorException");
+							}
+						}
+					})
+					.doOnError(e -> {
+						if (done.compareAndSet(false, true)) {
+							endpoint.decrementInflight();
+							endpoint.record("ERROR", System.nanoTime() - start);
+							endpoint.recordError(errorType(e));
+						}
+					})
+					.doOnCancel(() -> {
+						if (done.compareAndSet(false, true)) {
+							endpoint.decrementInflight();
+						}
+					})
+					.map(res -> res.mutate()
+							.body(body -> body.doOnNext(buffer -> endpoint.addBytesIn(buffer.readableByteCount())))
+							.build());
+		});
+	}
+
+	private String uriTemplate(ClientRequest request) {
+		Object template = request.attribute(URI_TEMPLATE_ATTRIBUTE).orElse(null);
+		if (template != null) {
+			return template.toString();
+		}
+		URI url = request.url();
+		return url.getScheme() + "://" + url.getRawAuthority();
+	}
+
+	private String errorType(Throwable e) {
+		Throwable cause = (e instanceof WebClientRequestException && e.getCause() != null) ? e.getCause() : e;
+		if (cause instanceof TimeoutException || cause instanceof ReadTimeoutException) {
+			return "Timeout";
+		}
+		return cause.getClass().getSimpleName();
+	}
+
+	/**
+	 * 送信バイト数を記録するようリクエストボディの書き込みをフックする
+	 * @param request
+	 * @param endpoint
+	 * @return
+	 */
+	private ClientRequest countBytesOut(ClientRequest request, ExchangeMetrics.Endpoint endpoint) {
+		BodyInserter<?, ? super ClientHttpRequest> inserter = request.body();
+		return ClientRequest.from(request)
+				.body((outputMessage, context) -> inserter.insert(new ClientHttpRequestDecorator(outputMessage) {
+					@Override
+					public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+						// Monoの場合はMonoのまま渡す（Content-Length付きの送信を維持する）
+						return (body instanceof Mono)
+								? super.writeWith(Mono.from(body).doOnNext(this::count))
+								: super.writeWith(Flux.from(body).doOnNext(this::count));
+					}
+
+					@Override
+					public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+						return super.writeAndFlushWith(Flux.from(body).map(chunk -> Flux.from(chunk).doOnNext(this::count)));
+					}
+
+					private void count(DataBuffer buffer) {
+						endpoint.addBytesOut(buffer.readableByteCount());
+					}
+				}, context))
+				.build();
+	}
+}
@@ -0,0 +1,110 @@
+package com.example.web_client_prototype.biz.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 応答時間のヒストグラム（ロックフリー、HDR Histogram風の対数線形バケット）
+ *  - マイクロ秒単位で記録し、2のべき乗ごとの区間をさらに16分割する（相対誤差は約6%以内）
+ *  - 記録はバケットの加算のみのため、I/Oスレッドから呼び出してよい
+ *  - decay()で全バケットを半分にし、古い記録の影響を減らす（直近の分布に追従させる）
+ */
+public class LatencyHistogram {
+
+	/** 2のべき乗ごとの分割数（2^SUB_BITS） */
+	private static final int SUB_BITS = 4;
+	private static final int SUB_COUNT = 1 << SUB_BITS;
+	/** 記録できる最大値（マイクロ秒、約38時間） */
+	private static final int MAX_EXPONENT = 37;
+	private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BITS + 2) * SUB_COUNT;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+	/**
+	 * 応答時間を記録する
+	 * @param nanos
+	 */
+	public void record(long nanos) {
+		counts.incrementAndGet(index(Math.max(0L, TimeUnit.NANOSECONDS.toMicros(nanos))));
+	}
+
+	/**
+	 * 記録件数
+	 * @return
+	 */
+	public long count() {
+		long total = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			total += counts.get(i);
+		}
+		return total;
+	}
+
+	/**
+	 * パーセンタイル値を取得する
+	 * @param percentile 0.0～1.0（0.95ならp95）
+	 * @return ナノ秒（記録がない場合は0）
+	 */
+	public long percentile(double percentile) {
+		long[] snapshot = new long[BUCKET_COUNT];
+		long total = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			snapshot[i] = counts.get(i);
+			total += snapshot[i];
+		}
+		if (total == 0) {
+			return 0L;
+		}
+
+		long target = Math.max(1L, (long) Math.ceil(percentile * total));
+		long cumulative = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			cumulative += snapshot[i];
+			if (cumulative >= target) {
+				// バケットの上限値を返却する（実際の値以上となる側に丸める）
+				return TimeUnit.MICROSECONDS.toNanos(lowerBound(i + 1) - 1);
+			}
+		}
+		return TimeUnit.MICROSECONDS.toNanos(lowerBound(BUCKET_COUNT) - 1);
+	}
+
+	/**
+	 * 全バケットを半分にする
+	 */
+	public void decay() {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts.getAndUpdate(i, count -> count >> 1);
+		}
+	}
+
+	/**
+	 * 全バケットを0にする
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts.set(i, 0L);
+		}
+	}
+
+	private static int index(long micros) {
+		if (micros < SUB_COUNT) {
+			return (int) micros;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(micros);
+		if (exponent > MAX_EXPONENT) {
+			return BUCKET_COUNT - 1;
+		}
+		int shift = exponent - SUB_BITS;
+		int sub = (int) (micros >>> shift) & (SUB_COUNT - 1);
+		return (shift + 1) * SUB_COUNT + sub;
+	}
+
+	private static long lowerBound(int index) {
+		if (index < SUB_COUNT) {
+			return index;
+		}
+		int shift = index / SUB_COUNT - 1;
+		int sub = index % SUB_COUNT;
+		return (long) (SUB_COUNT + sub) << shift;
+	}
+}
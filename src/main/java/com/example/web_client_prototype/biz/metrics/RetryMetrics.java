@@ -0,0 +1,88 @@
+package com.example.web_client_prototype.biz.metrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * リトライのメトリクス（リトライ方針ごとの件数）
+ */
+public class RetryMetrics {
+
+	/** リトライ方針名 → カウンター */
+	private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+	public void recordRequest(String policy) {
+		counters(policy).requests.increment();
+	}
+
+	public void recordRetry(String policy) {
+		counters(policy).retries.increment();
+	}
+
+	public void recordRecovered(String policy) {
+		counters(policy).recovered.increment();
+	}
+
+	public void recordAttemptsExhausted(String policy) {
+		counters(policy).attemptsExhausted.increment();
+	}
+
+	public void recordBudgetExhausted(String policy) {
+		counters(policy).budgetExhausted.increment();
+	}
+
+	/**
+	 * 現在値を取得する
+	 * @return リトライ方針ごとのスナップショット
+	 */
+	public List<Snapshot> snapshot() {
+		return counters.entrySet().stream()
+				.map(entry -> new Snapshot(entry.getKey(),
+						entry.getValue().requests.sum(),
+						entry.getValue().retries.sum(),
+						entry.getValue().recovered.sum(),
+						entry.getValue().attemptsExhausted.sum(),
+						entry.getValue().budgetExhausted.sum()))
+				.collect(Collectors.toList());
+	}
+
+	private Counters counters(String policy) {
+		return counters.computeIfAbsent(policy, key -> new Counters());
+	}
+
+	private static class Counters {
+		private final LongAdder requests = new LongAdder();
+		private final LongAdder retries = new LongAdder();
+		private final LongAdder recovered = new LongAdder();
+		private final LongAdder attemptsExhausted = new LongAdder();
+		private final LongAdder budgetExhausted = new LongAdder();
+	}
+
+	/**
+	 * リトライ方針ごとの件数
+	 */
+	@Getter
+	@ToString
+	@AllArgsConstructor
+	public static class Snapshot {
+		/** リトライ方針名 */
+		private final String policy;
+		/** リクエスト数（リトライを除く） */
+		private final long requests;
+		/** リトライ数 */
+		private final long retries;
+		/** リトライにより成功（レスポンスを受信）した数 */
+		private final long recovered;
+		/** 最大試行回数に達したためリトライしなかった数 */
+		private final long attemptsExhausted;
+		/** 予算がないためリトライしなかった数 */
+		private final long budgetExhausted;
+	}
+}
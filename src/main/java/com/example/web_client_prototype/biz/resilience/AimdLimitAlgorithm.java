@@ -0,0 +1,37 @@
+package com.example.web_client_prototype.biz.resilience;
+
+/**
+ * AIMD（加算増加・乗算減少）
+ *  - 過負荷の兆候があれば上限にbackoffRatioを掛けて減らす
+ *  - 上限近くまで使用している状態で成功すれば上限を1増やす（使い切っていない場合は増やさない）
+ */
+public class AimdLimitAlgorithm implements LimitAlgorithm {
+
+	private final int initialLimit;
+	private final int minLimit;
+	private final int maxLimit;
+	private final double backoffRatio;
+
+	public AimdLimitAlgorithm(int initialLimit, int minLimit, int maxLimit, double backoffRatio) {
+		this.initialLimit = initialLimit;
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.backoffRatio = backoffRatio;
+	}
+
+	@Override
+	public int getInitialLimit() {
+		return initialLimit;
+	}
+
+	@Override
+	public double update(double limit, long rttNanos, int inflight, boolean dropped) {
+		if (dropped) {
+			return Math.max(minLimit, limit * backoffRatio);
+		}
+		if (inflight * 2 >= limit) {
+			return Math.min(maxLimit, limit + 1);
+		}
+		return limit;
+	}
+}
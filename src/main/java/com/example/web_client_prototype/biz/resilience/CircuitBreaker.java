@@ -0,0 +1,280 @@
+package com.example.web_client_prototype.biz.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * サーキットブレーカー（ロックフリー）
+ *  - CLOSED：直近windowSize件の結果（件数ベースのスライディングウィンドウ）から失敗率 / 遅延率を算出し、
+ *            いずれかが閾値以上になったらOPENにする
+ *  - OPEN：即時に失敗させる。waitDuration経過後の最初のリクエストでHALF_OPENにする
+ *  - HALF_OPEN：halfOpenCalls件のみ試行し、すべて完了した時点の失敗率 / 遅延率でCLOSED / OPENを判定する
+ * 状態はイミュータブルなStateHolderをCASで差し替えて遷移させる（遷移前の状態で開始したリクエストの結果は集計しない）
+ */
+public class CircuitBreaker {
+
+	/** 状態 */
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	/** 状態遷移の通知先 */
+	public interface Listener {
+		void onStateTransition(String name, State from, State to);
+	}
+
+	private final String name;
+	private final Settings settings;
+	private final Listener listener;
+	private final AtomicReference<StateHolder> holder;
+	/** OPENのため拒否した件数 */
+	private final LongAdder notPermitted = new LongAdder();
+	/** 状態遷移の回数 */
+	private final LongAdder transitions = new LongAdder();
+
+	public CircuitBreaker(String name, Settings settings, Listener listener) {
+		this.name = name;
+		this.settings = settings;
+		this.listener = listener;
+		this.holder = new AtomicReference<>(new StateHolder(State.CLOSED, 0L, settings.getWindowSize(), 0));
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public State getState() {
+		return holder.get().state;
+	}
+
+	/**
+	 * 送信してよいかを判定する
+	 * @return 送信してよい場合は結果の通知先、拒否する場合はnull
+	 */
+	public Permit tryAcquire() {
+		while (true) {
+			StateHolder current = holder.get();
+			switch (current.state) {
+			case CLOSED:
+				return new Permit(current);
+			case OPEN:
+				if (System.nanoTime() - current.openedAt < settings.getWaitDuration().toNanos()) {
+					notPermitted.increment();
+					return null;
+				}
+				// 待機時間経過後はHALF_OPENにして試行する
+				transition(current, new StateHolder(State.HALF_OPEN, 0L, settings.getHalfOpenCalls(),
+						settings.getHalfOpenCalls()));
+				continue;
+			default:
+				if (current.permits.getAndDecrement() > 0) {
+					return new Permit(current);
+				}
+				current.permits.incrementAndGet();
+				notPermitted.increment();
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * 現在値を取得する
+	 * @return
+	 */
+	public Snapshot snapshot() {
+		StateHolder current = holder.get();
+		Window window = current.window;
+		int calls = window.calls.get();
+		return new Snapshot(name, current.state, calls, rate(window.failures.get(), calls),
+				rate(window.slowCalls.get(), calls), notPermitted.sum(), transitions.sum());
+	}
+
+	private void onResult(StateHolder acquiredIn, long elapsedNanos, boolean failure) {
+		StateHolder current = holder.get();
+		if (current != acquiredIn || current.state == State.OPEN) {
+			// 状態遷移前に開始したリクエストの結果は集計しない
+			return;
+		}
+		boolean slow = elapsedNanos >= settings.getSlowCallDuration().toNanos();
+		current.window.record(failure, slow);
+
+		Window window = current.window;
+		int calls = window.calls.get();
+		if (current.state == State.CLOSED) {
+			if (calls >= settings.getMinimumCalls() && exceedsThreshold(window, calls)) {
+				transition(current, openState());
+			}
+		} else if (window.completed.incrementAndGet() >= settings.getHalfOpenCalls()) {
+			transition(current, exceedsThreshold(window, calls)
+					? openState()
+					: new StateHolder(State.CLOSED, 0L, settings.getWindowSize(), 0));
+		}
+	}
+
+	private void releasePermit(StateHolder acquiredIn) {
+		if (acquiredIn.state == State.HALF_OPEN && holder.get() == acquiredIn) {
+			// 試行枠を戻す（キャンセルされた試行で判定できないままにしない）
+			acquiredIn.permits.incrementAndGet();
+		}
+	}
+
+	private boolean exceedsThreshold(Window window, int calls) {
+		return rate(window.failures.get(), calls) >= settings.getFailureRateThreshold()
+				|| rate(window.slowCalls.get(), calls) >= settings.getSlowCallRateThreshold();
+	}
+
+	private StateHolder openState() {
+		return new StateHolder(State.OPEN, System.nanoTime(), 1, 0);
+	}
+
+	private void transition(StateHolder from, StateHolder to) {
+		if (holder.compareAndSet(from, to)) {
+			transitions.increment();
+			listener.onStateTransition(name, from.state, to.state);
+		}
+	}
+
+	private static double rate(int count, int calls) {
+		return calls == 0 ? 0.0 : (double) count / calls;
+	}
+
+	/**
+	 * 送信の許可（結果はonSuccess / onError / onCancelのいずれかで1回のみ通知する）
+	 */
+	public class Permit {
+		private final StateHolder acquiredIn;
+		private final long start = System.nanoTime();
+		private final AtomicInteger done = new AtomicInteger();
+
+		private Permit(StateHolder acquiredIn) {
+			this.acquiredIn = acquiredIn;
+		}
+
+		public void onSuccess() {
+			if (done.compareAndSet(0, 1)) {
+				onResult(acquiredIn, System.nanoTime() - start, false);
+			}
+		}
+
+		public void onError() {
+			if (done.compareAndSet(0, 1)) {
+				onResult(acquiredIn, System.nanoTime() - start, true);
+			}
+		}
+
+		public void onCancel() {
+			if (done.compareAndSet(0, 1)) {
+				releasePermit(acquiredIn);
+			}
+		}
+	}
+
+	/**
+	 * 状態（イミュータブル、遷移時は新しいインスタンスに差し替える）
+	 */
+	private static final class StateHolder {
+		private final State state;
+		private final long openedAt;
+		private final Window window;
+		/** HALF_OPENの残り試行枠 */
+		private final AtomicInteger permits;
+
+		StateHolder(State state, long openedAt, int windowSize, int permits) {
+			this.state = state;
+			this.openedAt = openedAt;
+			this.window = new Window(windowSize);
+			this.permits = new AtomicInteger(permits);
+		}
+	}
+
+	/**
+	 * 件数ベースのスライディングウィンドウ（リングバッファ）
+	 * 書き込み位置をgetAndIncrementで確保し、上書きした結果との差分で集計値を更新する
+	 */
+	private static final class Window {
+		private static final int SUCCESS = 1;
+		private static final int FAILURE = 2;
+		private static final int SLOW = 4;
+
+		private final AtomicIntegerArray outcomes;
+		private final AtomicLong index = new AtomicLong();
+		private final AtomicInteger calls = new AtomicInteger();
+		private final AtomicInteger failures = new AtomicInteger();
+		private final AtomicInteger slowCalls = new AtomicInteger();
+		/** 完了件数（HALF_OPENの判定用） */
+		private final AtomicInteger completed = new AtomicInteger();
+
+		Window(int size) {
+			this.outcomes = new AtomicIntegerArray(size);
+		}
+
+		void record(boolean failure, boolean slow) {
+			int outcome = SUCCESS | (failure ? FAILURE : 0) | (slow ? SLOW : 0);
+			int slot = (int) (index.getAndIncrement() % outcomes.length());
+			int previous = outcomes.getAndSet(slot, outcome);
+			if (previous == 0) {
+				calls.incrementAndGet();
+			}
+			failures.addAndGet(bit(outcome, FAILURE) - bit(previous, FAILURE));
+			slowCalls.addAndGet(bit(outcome, SLOW) - bit(previous, SLOW));
+		}
+
+		private static int bit(int outcome, int flag) {
+			return (outcome & flag) != 0 ? 1 : 0;
+		}
+	}
+
+	/**
+	 * 設定値
+	 */
+	@Getter
+	@ToString
+	@AllArgsConstructor
+	public static class Settings {
+		/** スライディングウィンドウの件数 */
+		private final int windowSize;
+		/** 判定に必要な最小件数 */
+		private final int minimumCalls;
+		/** 失敗率の閾値（0.0～1.0） */
+		private final double failureRateThreshold;
+		/** 遅延率の閾値（0.0～1.0） */
+		private final double slowCallRateThreshold;
+		/** 遅延と判定する応答時間 */
+		private final Duration slowCallDuration;
+		/** OPENからHALF_OPENにするまでの待機時間 */
+		private final Duration waitDuration;
+		/** HALF_OPENで試行する件数 */
+		private final int halfOpenCalls;
+	}
+
+	/**
+	 * サーキットブレーカーの状態
+	 */
+	@Getter
+	@ToString
+	@AllArgsConstructor
+	public static class Snapshot {
+		/** 名前（接続先） */
+		private final String name;
+		/** 状態 */
+		private final State state;
+		/** 集計中の件数 */
+		private final int bufferedCalls;
+		/** 失敗率 */
+		private final double failureRate;
+		/** 遅延率 */
+		private final double slowCallRate;
+		/** OPENのため拒否した件数 */
+		private final long notPermitted;
+		/** 状態遷移の回数 */
+		private final long transitions;
+	}
+}
@@ -0,0 +1,53 @@
+package com.example.web_client_prototype.biz.resilience;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import com.example.web_client_prototype.exception.CircuitBreakerOpenException;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * 接続先ごとのサーキットブレーカー
+ *  - OPENの場合は送信せずにCircuitBreakerOpenExceptionで即時に失敗させる
+ *  - 送信エラー（接続エラー / タイムアウト）と5xxレスポンスを失敗とし、レスポンスヘッダー受信までの時間で遅延を判定する
+ */
+public class CircuitBreakerFilter implements ExchangeFilterFunction {
+
+	private final boolean enabled;
+	private final CircuitBreakerRegistry registry;
+
+	public CircuitBreakerFilter(boolean enabled, CircuitBreakerRegistry registry) {
+		this.enabled = enabled;
+		this.registry = registry;
+	}
+
+	@Override
+	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+		if (!enabled) {
+			return next.exchange(request);
+		}
+
+		return Mono.defer(() -> {
+			CircuitBreaker breaker = registry.forUri(request.url());
+			CircuitBreaker.Permit permit = breaker.tryAcquire();
+			if (permit == null) {
+				return Mono.error(new CircuitBreakerOpenException(breaker.getName()));
+			}
+
+			return next.exchange(request)
+					.doOnNext(res -> {
+						if (HttpStatus.Series.resolve(res.rawStatusCode()) == HttpStatus.Series.SERVER_ERROR) {
+							permit.onError();
+						} else {
+							permit.onSuccess();
+						}
+					})
+					.doOnError(e -> permit.onError())
+					.doOnCancel(permit::onCancel);
+		});
+	}
+}
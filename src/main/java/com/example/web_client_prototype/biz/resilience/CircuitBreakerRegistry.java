@@ -0,0 +1,75 @@
+package com.example.web_client_prototype.biz.resilience;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 接続先（ホスト:ポート）ごとのサーキットブレーカー
+ * 状態遷移はログ出力し、addListenerで登録した通知先にも通知する
+ */
+public class CircuitBreakerRegistry {
+
+	private static final Logger logger = LoggerFactory.getLogger(CircuitBreakerRegistry.class);
+
+	private final CircuitBreaker.Settings settings;
+	/** 接続先 → サーキットブレーカー */
+	private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+	private final List<CircuitBreaker.Listener> listeners = new CopyOnWriteArrayList<>();
+
+	public CircuitBreakerRegistry(CircuitBreaker.Settings settings) {
+		this.settings = settings;
+	}
+
+	/**
+	 * 接続先のサーキットブレーカーを取得する（未作成の場合は作成する）
+	 * @param uri
+	 * @return
+	 */
+	public CircuitBreaker forUri(URI uri) {
+		return breakers.computeIfAbsent(uri.getHost() + ":" + port(uri),
+				name -> new CircuitBreaker(name, settings, this::onStateTransition));
+	}
+
+	/**
+	 * 状態遷移の通知先を登録する
+	 * @param listener
+	 */
+	public void addListener(CircuitBreaker.Listener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * 現在値を取得する
+	 * @return 接続先ごとのスナップショット
+	 */
+	public List<CircuitBreaker.Snapshot> snapshot() {
+		return breakers.values().stream()
+				.map(CircuitBreaker::snapshot)
+				.collect(Collectors.toList());
+	}
+
+	private void onStateTransition(String name, CircuitBreaker.State from, CircuitBreaker.State to) {
+		logger.warn("サーキットブレーカー状態遷移: {} {} -> {}", name, from, to);
+		for (CircuitBreaker.Listener listener : listeners) {
+			try {
+				listener.onStateTransition(name, from, to);
+			} catch (RuntimeException e) {
+				logger.warn("状態遷移の通知に失敗: {}", e.toString());
+			}
+		}
+	}
+
+	private static int port(URI uri) {
+		if (uri.getPort() != -1) {
+			return uri.getPort();
+		}
+		return "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+	}
+}
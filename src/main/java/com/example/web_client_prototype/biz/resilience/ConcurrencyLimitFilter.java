@@ -0,0 +1,97 @@
+package com.example.web_client_prototype.biz.resilience;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import io.netty.handler.timeout.ReadTimeoutException;
+import reactor.core.publisher.Mono;
+
+/**
+ * 接続先（ホスト:ポート）ごとの同時実行数の制御
+ *  - 応答時間（レスポンスヘッダー受信まで、待機時間は含まない）と過負荷の兆候（429 / 503 / タイムアウト）を
+ *    LimitAlgorithmに渡し、上限を随時調整する
+ *  - 接続エラーなど過負荷と関係のないエラー、キャンセルは上限の算出に使用しない
+ */
+public class ConcurrencyLimitFilter implements ExchangeFilterFunction {
+
+	private final boolean enabled;
+	/** 接続先ごとのアルゴリズムの生成 */
+	private final Supplier<LimitAlgorithm> algorithmFactory;
+	private final ConcurrencyLimiter.Mode mode;
+	private final int maxQueueSize;
+	private final Duration queueTimeout;
+	/** 接続先 → 同時実行数の制御 */
+	private final Map<String, ConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+	public ConcurrencyLimitFilter(boolean enabled, Supplier<LimitAlgorithm> algorithmFactory,
+			ConcurrencyLimiter.Mode mode, int maxQueueSize, Duration queueTimeout) {
+		this.enabled = enabled;
+		this.algorithmFactory = algorithmFactory;
+		this.mode = mode;
+		this.maxQueueSize = maxQueueSize;
+		this.queueTimeout = queueTimeout;
+	}
+
+	@Override
+	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+		if (!enabled) {
+			return next.exchange(request);
+		}
+
+		return limiterFor(request.url()).acquire()
+				.flatMap(token -> next.exchange(request)
+						.doOnNext(res -> {
+							if (isDropped(res.rawStatusCode())) {
+								token.onDropped();
+							} else {
+								token.onSuccess();
+							}
+						})
+						.doOnError(e -> {
+							if (isTimeout(e)) {
+								token.onDropped();
+							} else {
+								token.onIgnore();
+							}
+						})
+						.doOnCancel(token::onIgnore));
+	}
+
+	/**
+	 * 現在値を取得する
+	 * @return 接続先ごとのスナップショット
+	 */
+	public List<ConcurrencyLimiter.Snapshot> snapshot() {
+		return limiters.values().stream()
+				.map(ConcurrencyLimiter::snapshot)
+				.collect(Collectors.toList());
+	}
+
+	private ConcurrencyLimiter limiterFor(URI uri) {
+		int port = uri.getPort() != -1 ? uri.getPort() : ("https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80);
+		return limiters.computeIfAbsent(uri.getHost() + ":" + port,
+				name -> new ConcurrencyLimiter(name, algorithmFactory.get(), mode, maxQueueSize, queueTimeout));
+	}
+
+	private boolean isDropped(int status) {
+		return status == HttpStatus.TOO_MANY_REQUESTS.value() || status == HttpStatus.SERVICE_UNAVAILABLE.value();
+	}
+
+	private boolean isTimeout(Throwable e) {
+		Throwable cause = (e instanceof WebClientRequestException) ? e.getCause() : e;
+		return cause instanceof TimeoutException || cause instanceof ReadTimeoutException;
+	}
+}
@@ -0,0 +1,215 @@
+package com.example.web_client_prototype.biz.resilience;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.example.web_client_prototype.exception.ConcurrencyLimitExceededException;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * 接続先ごとの同時実行数の制御
+ *  - 上限はLimitAlgorithmにより応答時間 / 過負荷の兆候から随時算出する
+ *  - 上限を超えるリクエストは、QUEUEモードでは空きが出るまで待機させ（待機数 / 待機時間に上限あり）、
+ *    REJECTモードでは即時にConcurrencyLimitExceededExceptionで失敗させる
+ */
+public class ConcurrencyLimiter {
+
+	/** 上限を超えた場合の動作 */
+	public enum Mode {
+		QUEUE, REJECT
+	}
+
+	private final String name;
+	private final LimitAlgorithm algorithm;
+	private final Mode mode;
+	private final int maxQueueSize;
+	private final Duration queueTimeout;
+
+	/** 現在の上限（更新はalgorithmのロック内で行う） */
+	private volatile double limit;
+	/** 送信中の件数 */
+	private final AtomicInteger inflight = new AtomicInteger();
+	/** 待機中の件数 */
+	private final AtomicInteger queued = new AtomicInteger();
+	private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+	/** 拒否した件数（待機のタイムアウトを含む） */
+	private final LongAdder rejected = new LongAdder();
+
+	public ConcurrencyLimiter(String name, LimitAlgorithm algorithm, Mode mode, int maxQueueSize,
+			Duration queueTimeout) {
+		this.name = name;
+		this.algorithm = algorithm;
+		this.mode = mode;
+		this.maxQueueSize = maxQueueSize;
+		this.queueTimeout = queueTimeout;
+		this.limit = algorithm.getInitialLimit();
+	}
+
+	/**
+	 * 送信枠を取得する（QUEUEモードでは空きが出るまで待機する）
+	 * @return 送信枠（送信完了時にいずれかのメソッドで返却すること）
+	 */
+	public Mono<Token> acquire() {
+		return Mono.defer(() -> {
+			Token token = tryAcquire();
+			if (token != null) {
+				return Mono.just(token);
+			}
+			if (mode == Mode.REJECT || queued.get() >= maxQueueSize) {
+				rejected.increment();
+				return Mono.error(new ConcurrencyLimitExceededException(name,
+						mode == Mode.REJECT ? "limit=" + (int) limit : "queue full"));
+			}
+
+			return Mono.<Token> create(sink -> {
+				Waiter waiter = new Waiter(sink);
+				queued.incrementAndGet();
+				waiters.offer(waiter);
+				sink.onCancel(waiter::cancel);
+				drain();
+			})
+					.timeout(queueTimeout, Mono.defer(() -> {
+						rejected.increment();
+						return Mono.error(new ConcurrencyLimitExceededException(name, "queue timeout"));
+					}))
+					// 取得直後にキャンセルされた場合は送信枠を返却する
+					.doOnDiscard(Token.class, Token::onIgnore);
+		});
+	}
+
+	/**
+	 * 現在値を取得する
+	 * @return
+	 */
+	public Snapshot snapshot() {
+		return new Snapshot(name, (int) limit, inflight.get(), queued.get(), rejected.sum());
+	}
+
+	private Token tryAcquire() {
+		while (true) {
+			int current = inflight.get();
+			if (current >= (int) limit) {
+				return null;
+			}
+			if (inflight.compareAndSet(current, current + 1)) {
+				return new Token(current + 1);
+			}
+		}
+	}
+
+	/**
+	 * 空きがあれば待機中のリクエストに送信枠を渡す
+	 */
+	private void drain() {
+		while (!waiters.isEmpty()) {
+			Token token = tryAcquire();
+			if (token == null) {
+				return;
+			}
+			Waiter waiter = waiters.poll();
+			if (waiter == null || !waiter.grant(token)) {
+				// 待機中のリクエストがない（キャンセル済み）場合は送信枠を戻す
+				inflight.decrementAndGet();
+			}
+		}
+	}
+
+	private void release(Token token, long rttNanos, boolean dropped, boolean sample) {
+		inflight.decrementAndGet();
+		if (sample) {
+			synchronized (algorithm) {
+				limit = algorithm.update(limit, rttNanos, token.inflight, dropped);
+			}
+		}
+		drain();
+	}
+
+	/**
+	 * 送信枠（返却は1回のみ有効）
+	 */
+	public class Token {
+		private final int inflight;
+		private final long start = System.nanoTime();
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		private Token(int inflight) {
+			this.inflight = inflight;
+		}
+
+		/** 正常に応答した */
+		public void onSuccess() {
+			if (released.compareAndSet(false, true)) {
+				release(this, System.nanoTime() - start, false, true);
+			}
+		}
+
+		/** 過負荷の兆候があった */
+		public void onDropped() {
+			if (released.compareAndSet(false, true)) {
+				release(this, System.nanoTime() - start, true, true);
+			}
+		}
+
+		/** 上限の算出に使用せずに返却する（キャンセル / 過負荷と関係のないエラー） */
+		public void onIgnore() {
+			if (released.compareAndSet(false, true)) {
+				release(this, 0L, false, false);
+			}
+		}
+	}
+
+	/**
+	 * 待機中のリクエスト
+	 */
+	private class Waiter {
+		private final MonoSink<Token> sink;
+		private final AtomicBoolean done = new AtomicBoolean();
+
+		Waiter(MonoSink<Token> sink) {
+			this.sink = sink;
+		}
+
+		boolean grant(Token token) {
+			if (!done.compareAndSet(false, true)) {
+				return false;
+			}
+			queued.decrementAndGet();
+			sink.success(token);
+			return true;
+		}
+
+		void cancel() {
+			if (done.compareAndSet(false, true)) {
+				queued.decrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * 接続先ごとの同時実行数の状態
+	 */
+	@Getter
+	@ToString
+	@AllArgsConstructor
+	public static class Snapshot {
+		/** 接続先 */
+		private final String name;
+		/** 現在の上限 */
+		private final int limit;
+		/** 送信中の件数 */
+		private final int inflight;
+		/** 待機中の件数 */
+		private final int queued;
+		/** 拒否した件数（待機のタイムアウトを含む） */
+		private final long rejected;
+	}
+}
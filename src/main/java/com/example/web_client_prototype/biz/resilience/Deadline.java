@@ -0,0 +1,117 @@
+package com.example.web_client_prototype.biz.resilience;
+
+import java.time.Duration;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * リクエストの期限（System.nanoTime()基準の時刻）
+ * Reactor Context（CONTEXT_KEY）で伝播し、リトライ・ヘッジリクエスト・一括API通信の各リクエストで残り時間を共有する
+ * 期限が複数ある場合（呼び出し元の期限と、リクエストごとのタイムアウトなど）は早い方を使用する
+ * 複数の呼び出し元で共有する通信（RequestCoalescer）は延長可能な期限（extendable）を使用し、
+ * 呼び出し元が加わるごとに遅い方の期限へ延長する（期限のない呼び出し元が加わった場合は期限なしとなる）
+ */
+public final class Deadline {
+
+	/** Reactor Contextのキー */
+	public static final String CONTEXT_KEY = Deadline.class.getName();
+
+	private volatile long deadlineNanos;
+	/** 期限なしに延長した（extendableの場合のみ） */
+	private volatile boolean unbounded;
+	private final boolean extendable;
+
+	private Deadline(long deadlineNanos, boolean extendable) {
+		this.deadlineNanos = deadlineNanos;
+		this.extendable = extendable;
+	}
+
+	/**
+	 * 現在から指定した時間後の期限
+	 * @param timeout
+	 * @return
+	 */
+	public static Deadline after(Duration timeout) {
+		return new Deadline(System.nanoTime() + timeout.toNanos(), false);
+	}
+
+	/**
+	 * 延長可能な期限（初期値は指定した期限）
+	 * @param initial
+	 * @return
+	 */
+	public static Deadline extendable(Deadline initial) {
+		return new Deadline(initial.deadlineNanos, true);
+	}
+
+	/**
+	 * Reactor Contextに設定された期限
+	 * @param ctx
+	 * @return 設定されていない場合はnull
+	 */
+	public static Deadline from(ContextView ctx) {
+		Deadline deadline = ctx.getOrDefault(CONTEXT_KEY, null);
+		return (deadline != null && deadline.unbounded) ? null : deadline;
+	}
+
+	/**
+	 * 期限を設定するReactor Context（contextWriteで使用する）
+	 * @param deadline
+	 * @return
+	 */
+	public static Context context(Deadline deadline) {
+		return Context.of(CONTEXT_KEY, deadline);
+	}
+
+	/**
+	 * 早い方の期限（nullは期限なし）
+	 * @param a
+	 * @param b
+	 * @return
+	 */
+	public static Deadline earliest(Deadline a, Deadline b) {
+		if (a == null || a.unbounded) {
+			return b;
+		}
+		if (b == null || b.unbounded) {
+			return a;
+		}
+		return (a.deadlineNanos - b.deadlineNanos <= 0) ? a : b;
+	}
+
+	/**
+	 * 遅い方の期限へ延長する（nullの場合は期限なし）
+	 * @param other
+	 */
+	public synchronized void extend(Deadline other) {
+		if (!extendable) {
+			throw new IllegalStateException("Deadline is not extendable.");
+		}
+		if (other == null || other.unbounded) {
+			unbounded = true;
+		} else if (other.deadlineNanos - deadlineNanos > 0) {
+			deadlineNanos = other.deadlineNanos;
+		}
+	}
+
+	/**
+	 * 残り時間（期限切れの場合は0）
+	 * @return
+	 */
+	public Duration remaining() {
+		if (unbounded) {
+			return Duration.ofNanos(Long.MAX_VALUE);
+		}
+		return Duration.ofNanos(Math.max(deadlineNanos - System.nanoTime(), 0L));
+	}
+
+	public boolean isExpired() {
+		return !unbounded && deadlineNanos - System.nanoTime() <= 0;
+	}
+
+	@Override
+	public String toString() {
+		return unbounded ? "Deadline(unbounded)" : "Deadline(remaining=" + remaining().toMillis() + "ms)";
+	}
+}
@@ -0,0 +1,82 @@
+package com.example.web_client_prototype.biz.resilience;
+
+/**
+ * 応答時間の勾配（Vegas / Gradient方式）
+ *  - 最小の応答時間を「負荷がない状態の応答時間」とみなし、今回の応答時間との比（勾配）を算出する
+ *  - 勾配が1未満（応答時間が伸びている＝接続先でキューイングが発生している）なら上限を減らし、
+ *    1（伸びていない）なら待ち行列分（√上限）だけ上限を増やす
+ *  - 過負荷の兆候があれば勾配を下限（0.5）として扱う
+ *  - 接続先の性能の変化に追従するため、probeInterval件ごとに上限を半分にして最小の応答時間を測り直す
+ *    （上限を下げた後に送信したリクエストの応答時間のみ使用する）
+ */
+public class GradientLimitAlgorithm implements LimitAlgorithm {
+
+	/** 勾配の下限（1回で半分より小さくしない） */
+	private static final double MIN_GRADIENT = 0.5;
+
+	private final int initialLimit;
+	private final int minLimit;
+	private final int maxLimit;
+	/** 応答時間の揺らぎの許容率（1.5なら1.5倍までは伸びていないとみなす） */
+	private final double rttTolerance;
+	/** 新しい上限の反映率（0.0～1.0） */
+	private final double smoothing;
+	/** 最小の応答時間を測り直す間隔（件数） */
+	private final int probeInterval;
+
+	/** 負荷がない状態の応答時間（ナノ秒） */
+	private long rttNoLoad;
+	private int samples;
+	/** 測り直し中の上限（0の場合は測り直し中でない） */
+	private int probeLimit;
+
+	public GradientLimitAlgorithm(int initialLimit, int minLimit, int maxLimit, double rttTolerance, double smoothing,
+			int probeInterval) {
+		this.initialLimit = initialLimit;
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.rttTolerance = rttTolerance;
+		this.smoothing = smoothing;
+		this.probeInterval = probeInterval;
+	}
+
+	@Override
+	public int getInitialLimit() {
+		return initialLimit;
+	}
+
+	@Override
+	public double update(double limit, long rttNanos, int inflight, boolean dropped) {
+		if (rttNanos <= 0) {
+			return limit;
+		}
+		if (probeLimit > 0) {
+			if (inflight > probeLimit) {
+				// 上限を下げる前に送信したリクエストは使用しない
+				return limit;
+			}
+			probeLimit = 0;
+			rttNoLoad = rttNanos;
+		} else if (++samples >= probeInterval) {
+			samples = 0;
+			probeLimit = Math.max(minLimit, (int) (limit / 2));
+			return probeLimit;
+		}
+		if (rttNoLoad == 0 || rttNanos < rttNoLoad) {
+			rttNoLoad = rttNanos;
+		}
+
+		if (!dropped && inflight < limit / 2) {
+			// 上限を使い切っていない場合は、勾配を判断できないため変更しない
+			return limit;
+		}
+
+		double gradient = dropped
+				? MIN_GRADIENT
+				: Math.max(MIN_GRADIENT, Math.min(1.0, rttTolerance * rttNoLoad / rttNanos));
+		double queueSize = Math.sqrt(limit);
+		double newLimit = limit * gradient + queueSize;
+		newLimit = limit * (1 - smoothing) + newLimit * smoothing;
+		return Math.max(minLimit, Math.min(maxLimit, newLimit));
+	}
+}
@@ -0,0 +1,24 @@
+package com.example.web_client_prototype.biz.resilience;
+
+/**
+ * 同時実行数の上限を算出するアルゴリズム
+ * 接続先ごとにインスタンスを生成し、ConcurrencyLimiterからロックを取得した状態で呼び出す（スレッドセーフでなくてよい）
+ */
+public interface LimitAlgorithm {
+
+	/**
+	 * 初期の上限
+	 * @return
+	 */
+	int getInitialLimit();
+
+	/**
+	 * 1リクエスト分の結果から新しい上限を算出する
+	 * @param limit 現在の上限
+	 * @param rttNanos 応答時間（レスポンスヘッダー受信まで）
+	 * @param inflight 送信時点の同時実行数
+	 * @param dropped 過負荷の兆候（429 / 503 / タイムアウト）があったか
+	 * @return 新しい上限
+	 */
+	double update(double limit, long rttNanos, int inflight, boolean dropped);
+}
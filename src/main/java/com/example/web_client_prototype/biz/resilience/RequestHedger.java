@@ -0,0 +1,190 @@
+package com.example.web_client_prototype.biz.resilience;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.http.HttpMethod;
+
+import com.example.web_client_prototype.biz.WebClientRequest;
+import com.example.web_client_prototype.biz.metrics.LatencyHistogram;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * ヘッジリクエスト（応答が遅い場合に同じリクエストを追加で送信し、先に応答した方を採用する）
+ *  - WebClientRequest#isHedgeがtrue、かつべき等なメソッドのみ対象とする
+ *  - 追加で送信するまでの待機時間は固定値、またはエンドポイント（メソッド + URIテンプレート）ごとの
+ *    直近の応答時間のパーセンタイル値（例：p95）とする
+ *  - 先に正常に応答した方を採用し、もう一方はキャンセルする（コネクションプールの枠を解放する）
+ *    一方のみ失敗した場合はもう一方の応答を待ち、両方とも失敗した場合は初回のリクエストのエラーとする
+ *    （追加で送信する前に初回のリクエストが失敗した場合は、追加で送信せずにそのエラーとする）
+ *  - 追加のリクエスト数はRetryBudgetと同じ仕組みの予算で通常のリクエスト数の一定割合までに抑える
+ *  - 期限（Deadline）までの残り時間が待機時間以下の場合は追加で送信しない
+ */
+public class RequestHedger {
+
+	/** べき等なHTTPメソッド */
+	private static final Set<HttpMethod> IDEMPOTENT_METHODS = EnumSet.of(HttpMethod.GET, HttpMethod.HEAD,
+			HttpMethod.OPTIONS, HttpMethod.PUT, HttpMethod.DELETE, HttpMethod.TRACE);
+
+	private final boolean enabled;
+	/** 固定の待機時間（パーセンタイル値を算出できない場合も使用する） */
+	private final Duration fixedDelay;
+	/** 待機時間とするパーセンタイル（0以下の場合は固定の待機時間を使用する） */
+	private final double percentile;
+	/** パーセンタイル値を使用するために必要な記録件数 */
+	private final int minSamples;
+	/** 応答時間の記録を半減させる間隔 */
+	private final Duration decayInterval;
+	private final RetryBudget budget;
+	/** エンドポイント → 応答時間 / 件数 */
+	private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+	public RequestHedger(boolean enabled, Duration fixedDelay, double percentile, int minSamples,
+			Duration decayInterval, RetryBudget budget) {
+		this.enabled = enabled;
+		this.fixedDelay = fixedDelay;
+		this.percentile = percentile;
+		this.minSamples = minSamples;
+		this.decayInterval = decayInterval;
+		this.budget = budget;
+	}
+
+	/**
+	 * ヘッジリクエストの対象であれば、応答が遅い場合にcallを追加で呼び出す
+	 * @param <T>
+	 * @param req
+	 * @param call
+	 * @return
+	 */
+	public <T> Mono<T> hedge(WebClientRequest req, Supplier<Mono<T>> call) {
+		if (!enabled || !req.isHedge() || !IDEMPOTENT_METHODS.contains(req.getMethod())) {
+			return call.get();
+		}
+
+		Endpoint endpoint = endpoints.computeIfAbsent(
+				req.getMethod() + " " + (req.getUriTemplate() != null ? req.getUriTemplate() : req.getUri().getPath()),
+				Endpoint::new);
+		return Mono.deferContextual(ctx -> {
+			budget.deposit();
+			long start = System.nanoTime();
+			Duration delay = endpoint.delay();
+			Deadline deadline = Deadline.from(ctx);
+
+			if (deadline != null && deadline.remaining().compareTo(delay) <= 0) {
+				// 追加で送信しても期限までに応答できない
+				return call.get()
+						.doOnNext(value -> endpoint.record(System.nanoTime() - start))
+						.doOnCancel(() -> endpoint.record(System.nanoTime() - start));
+			}
+
+			AtomicReference<Throwable> primaryError = new AtomicReference<>();
+			AtomicReference<Throwable> hedgeError = new AtomicReference<>();
+			Sinks.One<Boolean> primaryFailed = Sinks.one();
+			// 初回のリクエストの応答時間のみ記録する（キャンセルされた場合はその時点までの時間）
+			Mono<T> primary = call.get()
+					.doOnNext(value -> endpoint.record(System.nanoTime() - start))
+					.doOnCancel(() -> endpoint.record(System.nanoTime() - start))
+					.doOnError(e -> {
+						primaryError.set(e);
+						primaryFailed.tryEmitValue(Boolean.TRUE);
+					});
+			Mono<T> hedged = Mono.delay(delay)
+					.takeUntilOther(primaryFailed.asMono()) // 待機中に初回のリクエストが失敗した場合は送信しない
+					.flatMap(tick -> {
+						if (!budget.tryWithdraw()) {
+							// 予算がない場合は初回のリクエストの結果を待つ
+							endpoint.budgetExhausted.increment();
+							return Mono.<T> empty();
+						}
+						endpoint.hedged.increment();
+						return call.get()
+								.doOnNext(value -> endpoint.hedgeWins.increment())
+								.doOnError(hedgeError::set);
+					});
+			// 両方とも値なしで終了した場合（NoSuchElementException）は、初回のリクエストのエラーを通知する
+			return Mono.firstWithValue(primary, hedged)
+					.onErrorMap(NoSuchElementException.class, e -> primaryError.get() != null ? primaryError.get()
+							: (hedgeError.get() != null ? hedgeError.get() : e));
+		});
+	}
+
+	/**
+	 * 現在値を取得する
+	 * @return エンドポイントごとのスナップショット
+	 */
+	public List<Snapshot> snapshot() {
+		return endpoints.values().stream()
+				.map(endpoint -> new Snapshot(endpoint.name, endpoint.delay().toMillis(),
+						endpoint.histogram.count(), endpoint.hedged.sum(), endpoint.hedgeWins.sum(),
+						endpoint.budgetExhausted.sum()))
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * エンドポイントごとの応答時間 / 件数
+	 */
+	private class Endpoint {
+		private final String name;
+		private final LatencyHistogram histogram = new LatencyHistogram();
+		private final AtomicLong lastDecay = new AtomicLong(System.nanoTime());
+		private final LongAdder hedged = new LongAdder();
+		private final LongAdder hedgeWins = new LongAdder();
+		private final LongAdder budgetExhausted = new LongAdder();
+
+		Endpoint(String name) {
+			this.name = name;
+		}
+
+		void record(long nanos) {
+			histogram.record(nanos);
+			long now = System.nanoTime();
+			long last = lastDecay.get();
+			if (now - last >= decayInterval.toNanos() && lastDecay.compareAndSet(last, now)) {
+				histogram.decay();
+			}
+		}
+
+		Duration delay() {
+			if (percentile <= 0 || histogram.count() < minSamples) {
+				return fixedDelay;
+			}
+			return Duration.ofNanos(histogram.percentile(percentile));
+		}
+	}
+
+	/**
+	 * エンドポイントごとのヘッジリクエストの状態
+	 */
+	@Getter
+	@ToString
+	@AllArgsConstructor
+	public static class Snapshot {
+		/** エンドポイント（メソッド + URIテンプレート） */
+		private final String endpoint;
+		/** 現在の待機時間（ミリ秒） */
+		private final long delayMillis;
+		/** 応答時間の記録件数（半減後） */
+		private final long samples;
+		/** 追加で送信した件数 */
+		private final long hedged;
+		/** 追加で送信したリクエストが先に応答した件数 */
+		private final long hedgeWins;
+		/** 予算がないため追加で送信しなかった件数 */
+		private final long budgetExhausted;
+	}
+}
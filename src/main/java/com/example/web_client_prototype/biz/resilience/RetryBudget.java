@@ -0,0 +1,87 @@
+package com.example.web_client_prototype.biz.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * リトライの予算（トークンバケット、全接続先で共有）
+ *  - リクエストごとにratio分のトークンを積み、リトライごとに1トークン消費する
+ *    ⇒ リトライ数は通常のリクエスト数のratio（例：0.1なら10%）までに抑えられる
+ *  - 通信量が少ない場合に備え、1秒あたりminPerSecond分のトークンを補充する
+ *  - 接続先の障害時にリトライが殺到する（retry storm）のを防ぐ
+ */
+public class RetryBudget {
+
+	/** トークンの内部表現の倍率（1トークン = 1000） */
+	private static final long SCALE = 1000;
+	/** 時間による補充の最小間隔 */
+	private static final long REFILL_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+	private final long depositPerRequest;
+	private final long maxBalance;
+	private final long minPerSecond;
+	private final AtomicLong balance;
+	private final AtomicLong lastRefillNanos = new AtomicLong(System.nanoTime());
+
+	/**
+	 * @param ratio リクエスト1件あたりに積むトークン数（通常のリクエストに対するリトライの割合）
+	 * @param maxTokens 積み上げるトークンの上限
+	 * @param minPerSecond 1秒あたりに補充するトークン数
+	 */
+	public RetryBudget(double ratio, int maxTokens, int minPerSecond) {
+		this.depositPerRequest = Math.round(ratio * SCALE);
+		this.maxBalance = maxTokens * SCALE;
+		this.minPerSecond = minPerSecond * SCALE;
+		// 起動直後は1秒分のトークンのみとする
+		this.balance = new AtomicLong(Math.min(this.minPerSecond, this.maxBalance));
+	}
+
+	/**
+	 * 通常のリクエスト1件分のトークンを積む
+	 */
+	public void deposit() {
+		add(depositPerRequest);
+	}
+
+	/**
+	 * リトライ1回分のトークンを消費する
+	 * @return 予算がない場合はfalse（リトライしない）
+	 */
+	public boolean tryWithdraw() {
+		refill();
+		while (true) {
+			long current = balance.get();
+			if (current < SCALE) {
+				return false;
+			}
+			if (balance.compareAndSet(current, current - SCALE)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * 現在のトークン数
+	 * @return
+	 */
+	public double getAvailable() {
+		refill();
+		return (double) balance.get() / SCALE;
+	}
+
+	private void refill() {
+		long now = System.nanoTime();
+		long last = lastRefillNanos.get();
+		long elapsed = now - last;
+		if (elapsed >= REFILL_INTERVAL_NANOS && lastRefillNanos.compareAndSet(last, now)) {
+			add(minPerSecond * elapsed / TimeUnit.SECONDS.toNanos(1));
+		}
+	}
+
+	private void add(long amount) {
+		if (amount <= 0) {
+			return;
+		}
+		balance.accumulateAndGet(amount, (current, delta) -> Math.min(maxBalance, current + delta));
+	}
+}
@@ -0,0 +1,143 @@
+package com.example.web_client_prototype.biz.resilience;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import com.example.web_client_prototype.biz.metrics.RetryMetrics;
+
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * 一時的なエラー（接続エラー / タイムアウト / 503など）のリトライ
+ *  - リトライ方針はパスの前方一致で選択する（登録順に判定、該当しない場合はデフォルト）
+ *  - リトライ前にRetryBudgetからトークンを消費し、予算がない場合はリトライせずに結果をそのまま返却する
+ *  - リトライ対象のステータスで試行回数 / 予算が尽きた場合は、最後のレスポンスをそのまま返却する
+ *  - レスポンス受信後（ボディ読み込み中）のエラーはリトライしない
+ *  - 期限（Deadline）がある場合、期限切れ後はリトライせず、リトライ前の待機時間は残り時間までとする
+ *  - ボディを再送できないリクエスト（NON_RETRYABLE_ATTRIBUTE）はリトライしない
+ */
+public class RetryFilter implements ExchangeFilterFunction {
+
+	/** ボディを再送できない（1回しか読み込めない）ことを示すリクエストの属性（Boolean） */
+	public static final String NON_RETRYABLE_ATTRIBUTE = RetryFilter.class.getName() + ".nonRetryable";
+
+	private final boolean enabled;
+	private final RetryPolicy defaultPolicy;
+	private final List<RetryPolicy> policies;
+	private final RetryBudget budget;
+	private final RetryMetrics metrics;
+
+	public RetryFilter(boolean enabled, RetryPolicy defaultPolicy, List<RetryPolicy> policies, RetryBudget budget,
+			RetryMetrics metrics) {
+		this.enabled = enabled;
+		this.defaultPolicy = defaultPolicy;
+		this.policies = new ArrayList<>(policies);
+		this.budget = budget;
+		this.metrics = metrics;
+	}
+
+	@Override
+	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+		if (!enabled || isNonRetryable(request)) {
+			return next.exchange(request);
+		}
+
+		RetryPolicy policy = policyFor(request);
+		return Mono.deferContextual(ctx -> {
+			Deadline deadline = Deadline.from(ctx);
+			budget.deposit();
+			metrics.recordRequest(policy.getName());
+			AtomicInteger retries = new AtomicInteger();
+
+			return Mono.defer(() -> next.exchange(request))
+					.flatMap(res -> {
+						if (policy.isRetryable(request.method(), res.rawStatusCode()) && acquire(policy, retries, deadline)) {
+							// ボディを解放してからリトライする
+							return res.releaseBody().then(Mono.error(new RetryableStatusException(res.rawStatusCode())));
+						}
+						return Mono.just(res);
+					})
+					.retryWhen(Retry.from(signals -> signals.concatMap(signal -> {
+						Throwable e = signal.failure();
+						boolean retry = (e instanceof RetryableStatusException)
+								|| (policy.isRetryable(request.method(), e) && acquire(policy, retries, deadline));
+						if (!retry) {
+							return Mono.error(e);
+						}
+						Duration backoff = policy.backoff(signal.totalRetries());
+						if (deadline != null && deadline.remaining().compareTo(backoff) < 0) {
+							backoff = deadline.remaining();
+						}
+						return Mono.delay(backoff).thenReturn(signal);
+					})))
+					.doOnNext(res -> {
+						if (retries.get() > 0 && !policy.getRetryableStatuses().contains(res.rawStatusCode())) {
+							metrics.recordRecovered(policy.getName());
+						}
+					});
+		});
+	}
+
+	/**
+	 * リトライ可能であればリトライ回数を加算し、予算を消費する
+	 * @param policy
+	 * @param retries
+	 * @param deadline
+	 * @return
+	 */
+	private boolean acquire(RetryPolicy policy, AtomicInteger retries, Deadline deadline) {
+		if (deadline != null && deadline.isExpired()) {
+			// 期限切れの場合は予算を消費しない
+			return false;
+		}
+		if (retries.get() + 1 >= policy.getMaxAttempts()) {
+			metrics.recordAttemptsExhausted(policy.getName());
+			return false;
+		}
+		if (!budget.tryWithdraw()) {
+			metrics.recordBudgetExhausted(policy.getName());
+			return false;
+		}
+		retries.incrementAndGet();
+		metrics.recordRetry(policy.getName());
+		return true;
+	}
+
+	/**
+	 * ボディを再送できないリクエストか
+	 * @param request
+	 * @return
+	 */
+	public static boolean isNonRetryable(ClientRequest request) {
+		return Boolean.TRUE.equals(request.attribute(NON_RETRYABLE_ATTRIBUTE).orElse(null));
+	}
+
+	private RetryPolicy policyFor(ClientRequest request) {
+		String path = request.url().getRawPath();
+		for (RetryPolicy policy : policies) {
+			if (policy.matches(path)) {
+				return policy;
+			}
+		}
+		return defaultPolicy;
+	}
+
+	/**
+	 * リトライ対象のステータスを受信したことを示す（フィルター内でのみ使用）
+	 */
+	private static class RetryableStatusException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		RetryableStatusException(int status) {
+			super("Retryable status: " + status, null, false, false);
+		}
+	}
+}
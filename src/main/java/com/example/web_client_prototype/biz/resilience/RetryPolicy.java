@@ -0,0 +1,99 @@
+package com.example.web_client_prototype.biz.resilience;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import io.netty.channel.ConnectTimeoutException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 接続先（パスの前方一致）ごとのリトライ方針
+ * 待機時間は「0 ～ min(maxBackoff, firstBackoff × 2^リトライ回数)」の一様乱数（full jitter）とする
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class RetryPolicy {
+
+	/** べき等なHTTPメソッド（デフォルトではこれらのみリトライする） */
+	private static final Set<HttpMethod> IDEMPOTENT_METHODS = EnumSet.of(HttpMethod.GET, HttpMethod.HEAD,
+			HttpMethod.OPTIONS, HttpMethod.PUT, HttpMethod.DELETE, HttpMethod.TRACE);
+
+	/** 名前（メトリクスの集計単位） */
+	private final String name;
+	/** 対象のパス（前方一致、nullの場合はすべて） */
+	private final String pathPrefix;
+	/** 最大試行回数（初回を含む、1の場合はリトライしない） */
+	private final int maxAttempts;
+	/** 初回リトライの待機時間の上限 */
+	private final Duration firstBackoff;
+	/** 待機時間の上限 */
+	private final Duration maxBackoff;
+	/** リトライするステータスコード */
+	private final Set<Integer> retryableStatuses;
+	/** べき等でないメソッド（POST / PATCH）もリトライするか */
+	private final boolean retryNonIdempotent;
+
+	/**
+	 * パスが対象か
+	 * @param path
+	 * @return
+	 */
+	public boolean matches(String path) {
+		return pathPrefix == null || (path != null && path.startsWith(pathPrefix));
+	}
+
+	/**
+	 * ステータスコードをリトライするか
+	 * @param method
+	 * @param status
+	 * @return
+	 */
+	public boolean isRetryable(HttpMethod method, int status) {
+		return retryableStatuses.contains(status) && isRetryableMethod(method);
+	}
+
+	/**
+	 * 例外をリトライするか（接続エラー / タイムアウト）
+	 * @param method
+	 * @param e
+	 * @return
+	 */
+	public boolean isRetryable(HttpMethod method, Throwable e) {
+		if (isConnectFailure(e)) {
+			// 接続できていない＝リクエストは送信されていないため、メソッドによらずリトライする
+			return true;
+		}
+		return (e instanceof WebClientRequestException || e instanceof TimeoutException) && isRetryableMethod(method);
+	}
+
+	/**
+	 * リトライ前の待機時間（full jitter）
+	 * @param retry 何回目のリトライか（0始まり）
+	 * @return
+	 */
+	public Duration backoff(long retry) {
+		long first = firstBackoff.toMillis();
+		long cap = maxBackoff.toMillis();
+		long ceiling = (retry >= 31 || first << retry > cap) ? cap : first << retry;
+		return ceiling <= 0 ? Duration.ZERO : Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling + 1));
+	}
+
+	private boolean isRetryableMethod(HttpMethod method) {
+		return retryNonIdempotent || IDEMPOTENT_METHODS.contains(method);
+	}
+
+	private boolean isConnectFailure(Throwable e) {
+		Throwable cause = (e instanceof WebClientRequestException) ? e.getCause() : null;
+		return cause instanceof ConnectException || cause instanceof ConnectTimeoutException;
+	}
+}
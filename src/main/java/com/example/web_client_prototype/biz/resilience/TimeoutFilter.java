@@ -0,0 +1,91 @@
+package com.example.web_client_prototype.biz.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import com.example.web_client_prototype.exception.DeadlineExceededException;
+
+import io.netty.handler.timeout.ReadTimeoutException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClientRequest;
+
+/**
+ * リクエストごとのタイムアウトと期限（Deadline）の適用（試行ごと、リトライより内側で実行する）
+ *  - レスポンスタイムアウト：レスポンスヘッダー受信までの時間（属性で指定、期限までの残り時間が短い場合はそちらを使用する）
+ *    HttpClientのresponseTimeout（全体の設定）をこのリクエストのみ上書きする
+ *  - 読み込みタイムアウト：レスポンスボディのデータ受信の間隔（属性で指定、なければデフォルト）
+ *  - 期限：Reactor Context（Deadline.CONTEXT_KEY）から取得し、期限切れの場合は送信しない
+ *    ヘッダー名を設定した場合は、残り時間（ミリ秒）を接続先に伝える
+ * タイムアウト / 期限切れの場合はコネクションを切断するため、プールの枠はすぐに解放される
+ */
+public class TimeoutFilter implements ExchangeFilterFunction {
+
+	/** レスポンスタイムアウト（Duration）を指定するリクエストの属性 */
+	public static final String RESPONSE_TIMEOUT_ATTRIBUTE = TimeoutFilter.class.getName() + ".responseTimeout";
+	/** 読み込みタイムアウト（Duration）を指定するリクエストの属性 */
+	public static final String READ_TIMEOUT_ATTRIBUTE = TimeoutFilter.class.getName() + ".readTimeout";
+
+	/** 読み込みタイムアウト（デフォルト、nullの場合はなし） */
+	private final Duration defaultReadTimeout;
+	/** 期限までの残り時間を伝えるヘッダー名（nullの場合は送信しない） */
+	private final String deadlineHeader;
+
+	public TimeoutFilter(Duration defaultReadTimeout, String deadlineHeader) {
+		this.defaultReadTimeout = defaultReadTimeout;
+		this.deadlineHeader = deadlineHeader;
+	}
+
+	@Override
+	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+		Duration responseTimeout = (Duration) request.attribute(RESPONSE_TIMEOUT_ATTRIBUTE).orElse(null);
+		Duration readTimeout = (Duration) request.attribute(READ_TIMEOUT_ATTRIBUTE).orElse(defaultReadTimeout);
+		return Mono.deferContextual(ctx -> {
+			Deadline deadline = Deadline.from(ctx);
+			if (deadline == null && responseTimeout == null && readTimeout == null) {
+				return next.exchange(request);
+			}
+			if (deadline != null && deadline.isExpired()) {
+				// リトライ・ヘッジリクエストの送信前に期限切れとなった場合
+				return Mono.error(new DeadlineExceededException(request.method(), request.url()));
+			}
+
+			ClientRequest.Builder builder = ClientRequest.from(request);
+			Duration timeout = (deadline != null) ? min(responseTimeout, deadline.remaining()) : responseTimeout;
+			if (timeout != null) {
+				builder.httpRequest(httpRequest -> ((HttpClientRequest) httpRequest.getNativeRequest())
+						.responseTimeout(timeout));
+			}
+			if (deadline != null && deadlineHeader != null) {
+				builder.header(deadlineHeader, String.valueOf(Math.max(deadline.remaining().toMillis(), 1L)));
+			}
+
+			Mono<ClientResponse> exchange = next.exchange(builder.build());
+			if (deadline != null) {
+				exchange = exchange.onErrorMap(e -> isTimeout(e) && deadline.isExpired(),
+						e -> new DeadlineExceededException(request.method(), request.url()));
+			}
+			if (readTimeout != null) {
+				// 受信の間隔が空いた場合はボディの購読をキャンセルする（読み込み途中のコネクションは切断される）
+				exchange = exchange.map(res -> res.mutate()
+						.body(body -> body.timeout(readTimeout))
+						.build());
+			}
+			return exchange;
+		});
+	}
+
+	private static Duration min(Duration a, Duration b) {
+		return (a == null || b.compareTo(a) < 0) ? b : a;
+	}
+
+	private static boolean isTimeout(Throwable e) {
+		Throwable cause = (e instanceof WebClientRequestException && e.getCause() != null) ? e.getCause() : e;
+		return cause instanceof TimeoutException || cause instanceof ReadTimeoutException;
+	}
+}
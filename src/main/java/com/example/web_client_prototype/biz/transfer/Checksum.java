@@ -0,0 +1,47 @@
+package com.example.web_client_prototype.biz.transfer;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * ダウンロードしたファイルの検証に使用するチェックサムの期待値
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class Checksum {
+	/** アルゴリズム（MessageDigestのアルゴリズム名） */
+	private final String algorithm;
+	/** 期待値（16進数） */
+	private final String hex;
+
+	public static Checksum sha256(String hex) {
+		return new Checksum("SHA-256", hex);
+	}
+
+	public static Checksum md5(String hex) {
+		return new Checksum("MD5", hex);
+	}
+
+	/**
+	 * 実際の値と一致するか（大文字 / 小文字は区別しない）
+	 * @param actualHex
+	 * @return
+	 */
+	public boolean matches(String actualHex) {
+		return hex.toLowerCase(Locale.ROOT).equals(actualHex.toLowerCase(Locale.ROOT));
+	}
+
+	MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance(algorithm);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalArgumentException("Unsupported checksum algorithm: " + algorithm, e);
+		}
+	}
+}
@@ -0,0 +1,24 @@
+package com.example.web_client_prototype.biz.transfer;
+
+import java.nio.file.Path;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * ダウンロード結果
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class DownloadResult {
+	/** 保存先 */
+	private final Path path;
+	/** ファイルサイズ */
+	private final long size;
+	/** 再開した位置（最初からダウンロードした場合は0） */
+	private final long resumedFrom;
+	/** チェックサム（16進数、検証しない場合はnull） */
+	private final String checksum;
+}
@@ -0,0 +1,548 @@
+package com.example.web_client_prototype.biz.transfer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.example.web_client_prototype.biz.error.ErrorResponseHandler;
+import com.example.web_client_prototype.biz.resilience.RetryFilter;
+import com.example.web_client_prototype.exception.ChecksumMismatchException;
+import com.example.web_client_prototype.exception.UnknownErrorException;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * ファイルのダウンロード / アップロード
+ * ダウンロード
+ *  - レスポンスボディ（DataBuffer）を受信したものから順にファイルへ書き込み、書き込み後すぐに解放する
+ *    （レスポンス全体をメモリに保持しないため、ファイルサイズによらずメモリ使用量は一定）
+ *  - 書き込み中は「保存先.part」に保存し、完了後に保存先へ移動する
+ *  - 「保存先.part」が残っている場合は、Rangeリクエストで続きからダウンロードする
+ *    （サーバーがRangeに対応していない場合は最初からダウンロードする）
+ *  - Rangeの位置がずれないよう、Accept-Encoding: identityで圧縮せずに受信する
+ *  - チェックサムを指定した場合は、受信しながら計算して完了時に検証する（不一致の場合は.partを削除する）
+ * アップロード
+ *  - ファイル・InputStream・Flux<DataBuffer>から一定サイズずつ読み込みながら送信する（送信済みのバッファは解放される）
+ *  - InputStream・Flux<DataBuffer>は1回しか読み込めないため、リトライ（RetryFilter）・415の再送（PayloadFormatFilter）はしない
+ *    （ファイルは再度読み込めるため、リトライの対象とする）
+ *  - multipart/form-dataはMultipartBodyBuilderで組み立てる（ファイルはFileSystemResourceで指定すると、同様に読み込みながら送信する）
+ *    asyncPart・InputStreamResourceなど1回しか読み込めないパートを含む場合は、同様にリトライ・再送はしない
+ *  - ボディのログ出力は先頭の一部とサイズのみ（ExchangeLoggingFilter、webclient.logging.request.max-bytes-by-type）
+ * ファイル操作（サイズ確認・オープン・移動・削除・再開時のチェックサム計算）はI/Oスレッドで行わない
+ */
+@Component
+public class FileTransferClient {
+
+	private static final Logger logger = LoggerFactory.getLogger(FileTransferClient.class);
+
+	/** ダウンロード中のファイルの拡張子 */
+	static final String PART_SUFFIX = ".part";
+	/** 再開時のチェックサム計算の読み込みサイズ */
+	private static final int HASH_CHUNK_SIZE = 64 * 1024;
+	/** ダウンロード時のAccept-Encoding（圧縮しない） */
+	private static final String IDENTITY = "identity";
+	/** アップロード時の読み込みサイズ */
+	private static final int UPLOAD_CHUNK_SIZE = 64 * 1024;
+
+	@Autowired
+	private WebClient webClient;
+
+	/** 2xx系以外のレスポンスの処理（転送は常に例外とする） */
+	@Autowired
+	private ErrorResponseHandler errorResponseHandler;
+
+	/**
+	 * ファイルをダウンロードする
+	 * @param uri
+	 * @param target 保存先
+	 * @return
+	 */
+	public DownloadResult download(URI uri, Path target) {
+		return downloadAsync(uri, target, null).block();
+	}
+
+	/**
+	 * ファイルをダウンロードし、チェックサムを検証する
+	 * 不一致の場合はChecksumMismatchExceptionをスローする
+	 * @param uri
+	 * @param target 保存先
+	 * @param expected チェックサムの期待値（nullの場合は検証しない）
+	 * @return
+	 */
+	public DownloadResult download(URI uri, Path target, Checksum expected) {
+		return downloadAsync(uri, target, expected).block();
+	}
+
+	/**
+	 * ファイルをダウンロードする（非同期）
+	 * @param uri
+	 * @param target 保存先
+	 * @param expected チェックサムの期待値（nullの場合は検証しない）
+	 * @return
+	 */
+	public Mono<DownloadResult> downloadAsync(URI uri, Path target, Checksum expected) {
+		Path part = target.resolveSibling(target.getFileName() + PART_SUFFIX);
+		return blocking(() -> Files.exists(part) ? Files.size(part) : 0L)
+				.flatMap(offset -> transfer(uri, part, offset, expected, true))
+				.flatMap(state -> blocking(() -> complete(target, part, state, expected)));
+	}
+
+	/**
+	 * ファイルをダウンロードする（Future）
+	 * @param uri
+	 * @param target 保存先
+	 * @param expected チェックサムの期待値（nullの場合は検証しない）
+	 * @return
+	 */
+	public CompletableFuture<DownloadResult> downloadFuture(URI uri, Path target, Checksum expected) {
+		return downloadAsync(uri, target, expected).toFuture();
+	}
+
+	/**
+	 * ファイルをアップロードする
+	 * @param <T>
+	 * @param method POST / PUTなど
+	 * @param uri
+	 * @param file
+	 * @param contentType
+	 * @param responseType レスポンスボディの型（不要な場合はVoid.class）
+	 * @return
+	 */
+	public <T> ResponseEntity<T> upload(HttpMethod method, URI uri, Path file, MediaType contentType,
+			Class<T> responseType) {
+		return uploadAsync(method, uri, file, contentType, responseType).block();
+	}
+
+	/**
+	 * ファイルをアップロードする（非同期）
+	 * Content-Lengthはファイルサイズを設定する
+	 * @param <T>
+	 * @param method POST / PUTなど
+	 * @param uri
+	 * @param file
+	 * @param contentType
+	 * @param responseType レスポンスボディの型（不要な場合はVoid.class）
+	 * @return
+	 */
+	public <T> Mono<ResponseEntity<T>> uploadAsync(HttpMethod method, URI uri, Path file, MediaType contentType,
+			Class<T> responseType) {
+		return blocking(() -> Files.size(file))
+				.flatMap(size -> send(method, uri,
+						DataBufferUtils.read(file, DefaultDataBufferFactory.sharedInstance, UPLOAD_CHUNK_SIZE),
+						contentType, size, responseType, true));
+	}
+
+	/**
+	 * InputStreamの内容をアップロードする
+	 * InputStreamは送信完了時にクローズする
+	 * @param <T>
+	 * @param method POST / PUTなど
+	 * @param uri
+	 * @param inputStream
+	 * @param contentType
+	 * @param contentLength 不明な場合は-1（chunkedで送信する）
+	 * @param responseType レスポンスボディの型（不要な場合はVoid.class）
+	 * @return
+	 */
+	public <T> ResponseEntity<T> upload(HttpMethod method, URI uri, InputStream inputStream, MediaType contentType,
+			long contentLength, Class<T> responseType) {
+		return uploadAsync(method, uri, inputStream, contentType, contentLength, responseType).block();
+	}
+
+	/**
+	 * InputStreamの内容をアップロードする（非同期）
+	 * InputStreamの読み込み（ブロッキング）はI/Oスレッド以外で行う
+	 * @param <T>
+	 * @param method POST / PUTなど
+	 * @param uri
+	 * @param inputStream
+	 * @param contentType
+	 * @param contentLength 不明な場合は-1（chunkedで送信する）
+	 * @param responseType レスポンスボディの型（不要な場合はVoid.class）
+	 * @return
+	 */
+	public <T> Mono<ResponseEntity<T>> uploadAsync(HttpMethod method, URI uri, InputStream inputStream,
+			MediaType contentType, long contentLength, Class<T> responseType) {
+		Flux<DataBuffer> body = DataBufferUtils
+				.readInputStream(() -> inputStream, DefaultDataBufferFactory.sharedInstance, UPLOAD_CHUNK_SIZE)
+				.subscribeOn(Schedulers.boundedElastic());
+		return send(method, uri, body, contentType, contentLength, responseType, false);
+	}
+
+	/**
+	 * Flux<DataBuffer>の内容をアップロードする（非同期）
+	 * 送信済みのバッファは解放される
+	 * @param <T>
+	 * @param method POST / PUTなど
+	 * @param uri
+	 * @param body
+	 * @param contentType
+	 * @param contentLength 不明な場合は-1（chunkedで送信する）
+	 * @param responseType レスポンスボディの型（不要な場合はVoid.class）
+	 * @return
+	 */
+	public <T> Mono<ResponseEntity<T>> uploadAsync(HttpMethod method, URI uri, Flux<DataBuffer> body,
+			MediaType contentType, long contentLength, Class<T> responseType) {
+		return send(method, uri, body, contentType, contentLength, responseType, false);
+	}
+
+	/**
+	 * multipart/form-dataでアップロードする
+	 * @param <T>
+	 * @param uri
+	 * @param parts MultipartBodyBuilder#buildの結果
+	 * @param responseType レスポンスボディの型（不要な場合はVoid.class）
+	 * @return
+	 */
+	public <T> ResponseEntity<T> uploadMultipart(URI uri, MultiValueMap<String, HttpEntity<?>> parts,
+			Class<T> responseType) {
+		return uploadMultipartAsync(uri, parts, responseType).block();
+	}
+
+	/**
+	 * multipart/form-dataでアップロードする（非同期）
+	 * ファイルのパートはFileSystemResource、またはMultipartBodyBuilder#asyncPartで指定する（メモリに読み込まずに送信する）
+	 * asyncPart（Publisher）・InputStreamResourceのパートを含む場合はリトライしない
+	 * @param <T>
+	 * @param uri
+	 * @param parts MultipartBodyBuilder#buildの結果
+	 * @param responseType レスポンスボディの型（不要な場合はVoid.class）
+	 * @return
+	 */
+	public <T> Mono<ResponseEntity<T>> uploadMultipartAsync(URI uri, MultiValueMap<String, HttpEntity<?>> parts,
+			Class<T> responseType) {
+		return webClient.post()
+				.uri(uri)
+				.attribute(RetryFilter.NON_RETRYABLE_ATTRIBUTE, !isRepeatable(parts))
+				.body(BodyInserters.fromMultipartData(parts)) // Content-Type（boundary付き）はBodyInserterが設定する
+				.exchangeToMono(res -> toEntity(res, HttpMethod.POST, uri, responseType));
+	}
+
+	/**
+	 * DataBufferのストリームをリクエストボディとして送信する
+	 * @param <T>
+	 * @param method
+	 * @param uri
+	 * @param body
+	 * @param contentType
+	 * @param contentLength 不明な場合は-1
+	 * @param responseType
+	 * @param retryable ボディを再度読み込めるか（falseの場合はリトライしない）
+	 * @return
+	 */
+	private <T> Mono<ResponseEntity<T>> send(HttpMethod method, URI uri, Flux<DataBuffer> body,
+			MediaType contentType, long contentLength, Class<T> responseType, boolean retryable) {
+		return webClient.method(method)
+				.uri(uri)
+				.attribute(RetryFilter.NON_RETRYABLE_ATTRIBUTE, !retryable)
+				.headers(headers -> {
+					headers.setContentType(contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM);
+					if (contentLength >= 0) {
+						headers.setContentLength(contentLength);
+					}
+				})
+				.body(BodyInserters.fromDataBuffers(body))
+				.exchangeToMono(res -> toEntity(res, method, uri, responseType));
+	}
+
+	/**
+	 * multipartの全てのパートを再度読み込めるか
+	 * Publisher（asyncPart）は再購読できるとは限らないため、読み込めないものとする
+	 * @param parts
+	 * @return
+	 */
+	private static boolean isRepeatable(MultiValueMap<String, HttpEntity<?>> parts) {
+		for (List<HttpEntity<?>> entities : parts.values()) {
+			for (HttpEntity<?> entity : entities) {
+				Object body = entity.getBody();
+				if (body instanceof Publisher || (body instanceof Resource && ((Resource) body).isOpen())) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private <T> Mono<ResponseEntity<T>> toEntity(ClientResponse res, HttpMethod method, URI uri,
+			Class<T> responseType) {
+		if (errorResponseHandler.isError(res)) {
+			return errorResponseHandler.handleError(res, method, uri);
+		}
+		return res.toEntity(responseType);
+	}
+
+	/**
+	 * 通信して.partに書き込む
+	 * @param uri
+	 * @param part
+	 * @param offset .partの現在のサイズ（0より大きい場合はRangeリクエストを送信する）
+	 * @param expected
+	 * @param canRestart 続きからのダウンロードができない場合に、最初からやり直すか
+	 * @return
+	 */
+	private Mono<TransferState> transfer(URI uri, Path part, long offset, Checksum expected, boolean canRestart) {
+		return webClient.get()
+				.uri(uri)
+				.headers(headers -> {
+					// Rangeの位置は.partのバイト数（展開後）のため、圧縮しない（CompressionFilterはAccept-Encodingを付与しない）
+					headers.set(HttpHeaders.ACCEPT_ENCODING, IDENTITY);
+					if (offset > 0) {
+						headers.setRange(List.of(HttpRange.createByteRange(offset)));
+					}
+				})
+				.exchangeToMono(res -> {
+					int status = res.rawStatusCode();
+					if (offset > 0 && status == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value()) {
+						// 416：.partが全体のサイズに達している場合はダウンロード済み
+						long total = totalLength(res.headers().asHttpHeaders());
+						if (total == offset) {
+							return res.releaseBody().then(hashExisting(part, offset, expected))
+									.map(digest -> new TransferState(offset, offset, digest));
+						}
+						return res.releaseBody().then(restart(uri, part, expected, canRestart, "416"));
+					}
+					if (errorResponseHandler.isError(res)) {
+						return errorResponseHandler.handleError(res, HttpMethod.GET, uri);
+					}
+
+					long start = 0L;
+					if (status == HttpStatus.PARTIAL_CONTENT.value()) {
+						start = rangeStart(res.headers().asHttpHeaders());
+						if (start != offset) {
+							// 要求した位置と異なる範囲が返却された場合は最初からやり直す
+							return res.releaseBody().then(restart(uri, part, expected, canRestart,
+									"Content-Range: " + res.headers().asHttpHeaders().getFirst(HttpHeaders.CONTENT_RANGE)));
+						}
+					} else if (offset > 0) {
+						// 200：Rangeに対応していないため、最初から書き込む
+						logger.info("Rangeに対応していないため最初からダウンロード: {}", uri);
+					}
+					long position = start;
+					return hashExisting(part, position, expected)
+							.flatMap(digest -> write(res, part, position, digest.orElse(null))
+									.map(size -> new TransferState(position, size, digest)));
+				});
+	}
+
+	/**
+	 * .partを削除して最初からダウンロードする
+	 * @param uri
+	 * @param part
+	 * @param expected
+	 * @param canRestart
+	 * @param reason
+	 * @return
+	 */
+	private Mono<TransferState> restart(URI uri, Path part, Checksum expected, boolean canRestart, String reason) {
+		if (!canRestart) {
+			return Mono.error(new UnknownErrorException("Unexpected range response: " + reason));
+		}
+		logger.info("続きからダウンロードできないため最初からダウンロード: {} ({})", uri, reason);
+		return blocking(() -> Files.deleteIfExists(part))
+				.then(Mono.defer(() -> transfer(uri, part, 0L, expected, false)));
+	}
+
+	/**
+	 * レスポンスボディを.partのposition以降に書き込む
+	 * @param res
+	 * @param part
+	 * @param position
+	 * @param digest チェックサムを計算しない場合はnull
+	 * @return 書き込み後のファイルサイズ
+	 */
+	private Mono<Long> write(ClientResponse res, Path part, long position, MessageDigest digest) {
+		Flux<DataBuffer> body = res.bodyToFlux(DataBuffer.class);
+		if (digest != null) {
+			// 書き込み前にチェックサムを更新する（asByteBufferはコピーしない）
+			body = body.doOnNext(buffer -> digest.update(buffer.asByteBuffer()));
+		}
+		Flux<DataBuffer> source = body;
+		// オープンもI/Oスレッド以外で行う（レスポンスの受信後のため、ここはI/Oスレッドで実行される）
+		return Mono.usingWhen(
+				blocking(() -> AsynchronousFileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE)),
+				channel -> blocking(() -> {
+					// 最初から書き込む場合は、以前の.partの内容を切り詰める
+					channel.truncate(position);
+					return position;
+				}).thenMany(DataBufferUtils.write(source, channel, position))
+						.doOnNext(DataBufferUtils::release) // 書き込み済みのバッファはすぐに解放する
+						.then(blocking(channel::size)),
+				channel -> Mono.fromRunnable(() -> {
+					try {
+						channel.close();
+					} catch (IOException e) {
+						logger.warn("ファイルのクローズに失敗: {}", e.toString());
+					}
+				}));
+	}
+
+	/**
+	 * 再開時に、.partの既存部分（先頭からlengthバイト）のチェックサムを計算する
+	 * @param part
+	 * @param length
+	 * @param expected
+	 * @return チェックサムを計算しない場合はempty
+	 */
+	private Mono<Optional<MessageDigest>> hashExisting(Path part, long length, Checksum expected) {
+		if (expected == null) {
+			return Mono.just(Optional.empty());
+		}
+		return blocking(() -> {
+			MessageDigest digest = expected.newDigest();
+			if (length > 0) {
+				try (FileChannel channel = FileChannel.open(part, StandardOpenOption.READ)) {
+					ByteBuffer buffer = ByteBuffer.allocate(HASH_CHUNK_SIZE);
+					long remaining = length;
+					while (remaining > 0) {
+						buffer.clear().limit((int) Math.min(buffer.capacity(), remaining));
+						int read = channel.read(buffer);
+						if (read < 0) {
+							break;
+						}
+						remaining -= read;
+						digest.update(buffer.flip());
+					}
+				}
+			}
+			return Optional.of(digest);
+		});
+	}
+
+	/**
+	 * チェックサムを検証し、.partを保存先に移動する
+	 * @param target
+	 * @param part
+	 * @param state
+	 * @param expected
+	 * @return
+	 * @throws IOException
+	 */
+	private DownloadResult complete(Path target, Path part, TransferState state, Checksum expected)
+			throws IOException {
+		String actual = state.digest.map(digest -> toHex(digest.digest())).orElse(null);
+		if (expected != null && !expected.matches(actual)) {
+			// 不一致の場合は再開できないよう削除する
+			Files.deleteIfExists(part);
+			throw new ChecksumMismatchException(expected.getAlgorithm(), expected.getHex(), actual);
+		}
+		try {
+			Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+		return new DownloadResult(target, state.size, state.resumedFrom, actual);
+	}
+
+	/**
+	 * Content-Range（bytes 開始-終了/全体）の開始位置
+	 * @param headers
+	 * @return
+	 */
+	private static long rangeStart(HttpHeaders headers) {
+		String contentRange = headers.getFirst(HttpHeaders.CONTENT_RANGE);
+		if (contentRange == null || !contentRange.startsWith("bytes ")) {
+			return -1L;
+		}
+		int dash = contentRange.indexOf('-');
+		try {
+			return dash > 0 ? Long.parseLong(contentRange.substring("bytes ".length(), dash).trim()) : -1L;
+		} catch (NumberFormatException e) {
+			return -1L;
+		}
+	}
+
+	/**
+	 * Content-Range（bytes 星印/全体）の全体のサイズ
+	 * @param headers
+	 * @return
+	 */
+	private static long totalLength(HttpHeaders headers) {
+		String contentRange = headers.getFirst(HttpHeaders.CONTENT_RANGE);
+		int slash = contentRange != null ? contentRange.lastIndexOf('/') : -1;
+		try {
+			return slash > 0 ? Long.parseLong(contentRange.substring(slash + 1).trim()) : -1L;
+		} catch (NumberFormatException e) {
+			return -1L;
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		StringBuilder sb = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * ファイル操作をI/Oスレッド以外で実行する
+	 * @param <T>
+	 * @param operation
+	 * @return
+	 */
+	private static <T> Mono<T> blocking(IoCallable<T> operation) {
+		return Mono.fromCallable(() -> {
+			try {
+				return operation.call();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}).subscribeOn(Schedulers.boundedElastic());
+	}
+
+	@FunctionalInterface
+	private interface IoCallable<T> {
+		T call() throws IOException;
+	}
+
+	/**
+	 * 書き込み結果
+	 */
+	private static class TransferState {
+		final long resumedFrom;
+		final long size;
+		final Optional<MessageDigest> digest;
+
+		TransferState(long resumedFrom, long size, Optional<MessageDigest> digest) {
+			this.resumedFrom = resumedFrom;
+			this.size = size;
+			this.digest = digest;
+		}
+	}
+}
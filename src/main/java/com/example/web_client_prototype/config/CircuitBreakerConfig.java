@@ -0,0 +1,72 @@
+package com.example.web_client_prototype.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.web_client_prototype.biz.resilience.CircuitBreaker;
+import com.example.web_client_prototype.biz.resilience.CircuitBreakerFilter;
+import com.example.web_client_prototype.biz.resilience.CircuitBreakerRegistry;
+
+/**
+ * サーキットブレーカーのBean定義
+ * 設定値はwebclient.propertiesの「webclient.circuit-breaker.〜」を参照（接続先ごとに同じ設定で作成する）
+ */
+@Configuration
+public class CircuitBreakerConfig {
+
+	/** サーキットブレーカーの有効 / 無効 */
+	@Value("${webclient.circuit-breaker.enabled:true}")
+	private boolean enabled;
+
+	/** スライディングウィンドウの件数 */
+	@Value("${webclient.circuit-breaker.window-size:100}")
+	private int windowSize;
+
+	/** 判定に必要な最小件数 */
+	@Value("${webclient.circuit-breaker.minimum-calls:20}")
+	private int minimumCalls;
+
+	/** 失敗率の閾値 */
+	@Value("${webclient.circuit-breaker.failure-rate-threshold:0.5}")
+	private double failureRateThreshold;
+
+	/** 遅延率の閾値 */
+	@Value("${webclient.circuit-breaker.slow-call-rate-threshold:0.8}")
+	private double slowCallRateThreshold;
+
+	/** 遅延と判定する応答時間（ミリ秒） */
+	@Value("${webclient.circuit-breaker.slow-call-duration-millis:5000}")
+	private long slowCallDurationMillis;
+
+	/** OPENからHALF_OPENにするまでの待機時間（ミリ秒） */
+	@Value("${webclient.circuit-breaker.wait-duration-millis:10000}")
+	private long waitDurationMillis;
+
+	/** HALF_OPENで試行する件数 */
+	@Value("${webclient.circuit-breaker.half-open-calls:5}")
+	private int halfOpenCalls;
+
+	/**
+	 * 接続先ごとのサーキットブレーカー（状態はsnapshot()で取得する）
+	 * @return
+	 */
+	@Bean
+	public CircuitBreakerRegistry circuitBreakerRegistry() {
+		return new CircuitBreakerRegistry(new CircuitBreaker.Settings(windowSize, minimumCalls, failureRateThreshold,
+				slowCallRateThreshold, Duration.ofMillis(slowCallDurationMillis), Duration.ofMillis(waitDurationMillis),
+				halfOpenCalls));
+	}
+
+	/**
+	 * 接続先ごとのサーキットブレーカー
+	 * @param circuitBreakerRegistry
+	 * @return
+	 */
+	@Bean
+	public CircuitBreakerFilter circuitBreakerFilter(CircuitBreakerRegistry circuitBreakerRegistry) {
+		return new CircuitBreakerFilter(enabled, circuitBreakerRegistry);
+	}
+}
@@ -0,0 +1,143 @@
+package com.example.web_client_prototype.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+
+import com.example.web_client_prototype.biz.codec.BufferingJackson2CborDecoder;
+import com.example.web_client_prototype.biz.codec.BufferingJackson2CborEncoder;
+import com.example.web_client_prototype.biz.codec.CachingJackson2JsonDecoder;
+import com.example.web_client_prototype.biz.codec.CachingJackson2JsonEncoder;
+import com.example.web_client_prototype.biz.codec.LocalDateFastPathModule;
+import com.example.web_client_prototype.biz.codec.PayloadFormat;
+import com.example.web_client_prototype.biz.codec.PayloadFormatFilter;
+import com.example.web_client_prototype.biz.codec.PayloadFormatPolicy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * コーデック（エンコーダー / デコーダー）のBean定義
+ * 設定値はwebclient.propertiesの「webclient.codec.〜」を参照
+ * 接続先ごとのペイロード形式（Smile / CBOR）は「webclient.codec.binary.endpoint.{名前}.〜」で指定する
+ */
+@Configuration
+public class CodecConfig {
+
+	private static final String BINARY_PREFIX = "webclient.codec.binary.";
+
+	@Autowired
+	private Environment env;
+
+	/** レスポンスボディをメモリに保持する最大バイト数（bodyToMono等、超過した場合はDataBufferLimitException） */
+	@Value("${webclient.codec.max-in-memory-size:262144}")
+	private int maxInMemorySize;
+
+	/** 型ごとのObjectReader / ObjectWriterのキャッシュ数 */
+	@Value("${webclient.codec.reader-writer-cache-size:256}")
+	private int readerWriterCacheSize;
+
+	/** LocalDate（yyyy-MM-dd）の高速な変換の有効 / 無効 */
+	@Value("${webclient.codec.fast-local-date:true}")
+	private boolean fastLocalDate;
+
+	/** Blackbird（getter / setterのバイトコード生成）の有効 / 無効 */
+	@Value("${webclient.codec.blackbird.enabled:false}")
+	private boolean blackbirdEnabled;
+
+	/**
+	 * WebClientで使用するObjectMapper（全てのリクエストで共有する）
+	 * 設定はExchangeStrategies.withDefaults()と同じ（Jackson2ObjectMapperBuilderの初期値）
+	 * @return
+	 */
+	@Bean
+	public ObjectMapper webClientObjectMapper() {
+		return customize(Jackson2ObjectMapperBuilder.json().build());
+	}
+
+	/**
+	 * SmileのObjectMapper（JSONと同じモジュール・設定）
+	 * @return
+	 */
+	@Bean
+	public ObjectMapper webClientSmileObjectMapper() {
+		return customize(Jackson2ObjectMapperBuilder.smile().build());
+	}
+
+	/**
+	 * CBORのObjectMapper（JSONと同じモジュール・設定）
+	 * @return
+	 */
+	@Bean
+	public ObjectMapper webClientCborObjectMapper() {
+		return customize(Jackson2ObjectMapperBuilder.cbor().build());
+	}
+
+	private ObjectMapper customize(ObjectMapper mapper) {
+		if (fastLocalDate) {
+			// JavaTimeModuleより優先させるため、build後に登録する
+			mapper.registerModule(new LocalDateFastPathModule());
+		}
+		if (blackbirdEnabled) {
+			mapper.registerModule(new BlackbirdModule());
+		}
+		return mapper;
+	}
+
+	/**
+	 * コーデック（エンコーダー / デコーダー）の設定
+	 * レスポンスはContent-Typeに応じてJSON / Smile / CBORのいずれでもデコードする
+	 * @return
+	 */
+	@Bean
+	public ExchangeStrategies exchangeStrategies() {
+		ObjectMapper jsonMapper = webClientObjectMapper();
+		ObjectMapper smileMapper = webClientSmileObjectMapper();
+		ObjectMapper cborMapper = webClientCborObjectMapper();
+		return ExchangeStrategies.builder()
+				.codecs(configurer -> {
+					configurer.defaultCodecs().jackson2JsonDecoder(
+							new CachingJackson2JsonDecoder(jsonMapper, readerWriterCacheSize));
+					configurer.defaultCodecs().jackson2JsonEncoder(
+							new CachingJackson2JsonEncoder(jsonMapper, readerWriterCacheSize));
+					configurer.defaultCodecs().jackson2SmileDecoder(
+							new Jackson2SmileDecoder(smileMapper, PayloadFormat.SMILE.getMediaType()));
+					configurer.defaultCodecs().jackson2SmileEncoder(
+							new Jackson2SmileEncoder(smileMapper, PayloadFormat.SMILE.getMediaType()));
+					// CBORはデフォルトのコーデックに含まれないため追加する（maxInMemorySizeは共通の設定を適用）
+					configurer.customCodecs().registerWithDefaultConfig(
+							new BufferingJackson2CborDecoder(cborMapper));
+					configurer.customCodecs().registerWithDefaultConfig(
+							new BufferingJackson2CborEncoder(cborMapper));
+					configurer.defaultCodecs().maxInMemorySize(maxInMemorySize);
+				})
+				.build();
+	}
+
+	/**
+	 * 接続先ごとのペイロード形式（Smile / CBOR）の切り替え
+	 * @return
+	 */
+	@Bean
+	public PayloadFormatFilter payloadFormatFilter() {
+		List<PayloadFormatPolicy> policies = new ArrayList<>();
+		for (String name : StringUtils.commaDelimitedListToSet(env.getProperty(BINARY_PREFIX + "endpoints", ""))) {
+			String endpointPrefix = BINARY_PREFIX + "endpoint." + name.trim() + ".";
+			policies.add(new PayloadFormatPolicy(name.trim(),
+					env.getRequiredProperty(endpointPrefix + "path-prefix"),
+					PayloadFormat.valueOf(env.getRequiredProperty(endpointPrefix + "format").trim().toUpperCase(Locale.ROOT)),
+					env.getProperty(endpointPrefix + "request-body", Boolean.class, true)));
+		}
+		return new PayloadFormatFilter(policies);
+	}
+}
@@ -0,0 +1,69 @@
+package com.example.web_client_prototype.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+
+import com.example.web_client_prototype.biz.compression.CompressionFilter;
+import com.example.web_client_prototype.biz.compression.RequestCompressionPolicy;
+import com.example.web_client_prototype.biz.metrics.CompressionMetrics;
+
+/**
+ * 圧縮のBean定義
+ * 設定値はwebclient.propertiesの「webclient.compression.〜」を参照
+ * 接続先ごとのリクエストの圧縮は「webclient.compression.request.endpoint.{名前}.〜」で上書きする
+ */
+@Configuration
+public class CompressionConfig {
+
+	private static final String PREFIX = "webclient.compression.";
+	private static final String REQUEST_PREFIX = PREFIX + "request.";
+
+	@Autowired
+	private Environment env;
+
+	/**
+	 * 圧縮のメトリクス
+	 * @return
+	 */
+	@Bean
+	public CompressionMetrics compressionMetrics() {
+		return new CompressionMetrics();
+	}
+
+	/**
+	 * リクエスト / レスポンスボディの圧縮
+	 * @param compressionMetrics
+	 * @return
+	 */
+	@Bean
+	public CompressionFilter compressionFilter(CompressionMetrics compressionMetrics) {
+		List<RequestCompressionPolicy> policies = new ArrayList<>();
+		for (String name : StringUtils.commaDelimitedListToSet(env.getProperty(REQUEST_PREFIX + "endpoints", ""))) {
+			String endpointPrefix = REQUEST_PREFIX + "endpoint." + name.trim() + ".";
+			policies.add(new RequestCompressionPolicy(name.trim(),
+					env.getRequiredProperty(endpointPrefix + "path-prefix"),
+					env.getProperty(endpointPrefix + "min-bytes", Long.class, minBytes())));
+		}
+		List<MediaType> mimeTypes = StringUtils.commaDelimitedListToSet(env.getProperty(REQUEST_PREFIX + "mime-types",
+				"application/json,application/*+json,application/xml,text/*"))
+				.stream()
+				.map(type -> MediaType.parseMediaType(type.trim()))
+				.collect(Collectors.toList());
+
+		return new CompressionFilter(env.getProperty(PREFIX + "enabled", Boolean.class, true),
+				new RequestCompressionPolicy("default", null, minBytes()), policies, mimeTypes,
+				env.getProperty(REQUEST_PREFIX + "level", Integer.class, 6), compressionMetrics);
+	}
+
+	private long minBytes() {
+		return env.getProperty(REQUEST_PREFIX + "min-bytes", Long.class, -1L);
+	}
+}
@@ -0,0 +1,85 @@
+package com.example.web_client_prototype.config;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.web_client_prototype.biz.resilience.AimdLimitAlgorithm;
+import com.example.web_client_prototype.biz.resilience.ConcurrencyLimitFilter;
+import com.example.web_client_prototype.biz.resilience.ConcurrencyLimiter;
+import com.example.web_client_prototype.biz.resilience.GradientLimitAlgorithm;
+import com.example.web_client_prototype.biz.resilience.LimitAlgorithm;
+
+/**
+ * 同時実行数の制御のBean定義
+ * 設定値はwebclient.propertiesの「webclient.limiter.〜」を参照（接続先ごとに同じ設定で作成する）
+ */
+@Configuration
+public class ConcurrencyLimitConfig {
+
+	/** 同時実行数の制御の有効 / 無効 */
+	@Value("${webclient.limiter.enabled:true}")
+	private boolean enabled;
+
+	/** アルゴリズム（aimd / gradient） */
+	@Value("${webclient.limiter.algorithm:gradient}")
+	private String algorithm;
+
+	/** 上限を超えた場合の動作（queue / reject） */
+	@Value("${webclient.limiter.mode:queue}")
+	private String mode;
+
+	/** 初期の上限 */
+	@Value("${webclient.limiter.initial-limit:20}")
+	private int initialLimit;
+
+	/** 上限の最小値 */
+	@Value("${webclient.limiter.min-limit:1}")
+	private int minLimit;
+
+	/** 上限の最大値 */
+	@Value("${webclient.limiter.max-limit:200}")
+	private int maxLimit;
+
+	/** 最大待機数 */
+	@Value("${webclient.limiter.max-queue-size:200}")
+	private int maxQueueSize;
+
+	/** 最大待機時間（ミリ秒） */
+	@Value("${webclient.limiter.queue-timeout-millis:5000}")
+	private long queueTimeoutMillis;
+
+	/** AIMD：過負荷時に上限に掛ける率 */
+	@Value("${webclient.limiter.aimd.backoff-ratio:0.9}")
+	private double aimdBackoffRatio;
+
+	/** Gradient：応答時間の揺らぎの許容率 */
+	@Value("${webclient.limiter.gradient.rtt-tolerance:1.5}")
+	private double gradientRttTolerance;
+
+	/** Gradient：新しい上限の反映率 */
+	@Value("${webclient.limiter.gradient.smoothing:0.2}")
+	private double gradientSmoothing;
+
+	/** Gradient：最小の応答時間を測り直す間隔（件数） */
+	@Value("${webclient.limiter.gradient.probe-interval:1000}")
+	private int gradientProbeInterval;
+
+	/**
+	 * 接続先ごとの同時実行数の制御（状態はsnapshot()で取得する）
+	 * @return
+	 */
+	@Bean
+	public ConcurrencyLimitFilter concurrencyLimitFilter() {
+		Supplier<LimitAlgorithm> algorithmFactory = "aimd".equalsIgnoreCase(algorithm)
+				? () -> new AimdLimitAlgorithm(initialLimit, minLimit, maxLimit, aimdBackoffRatio)
+				: () -> new GradientLimitAlgorithm(initialLimit, minLimit, maxLimit, gradientRttTolerance,
+						gradientSmoothing, gradientProbeInterval);
+		return new ConcurrencyLimitFilter(enabled, algorithmFactory,
+				ConcurrencyLimiter.Mode.valueOf(mode.trim().toUpperCase()), maxQueueSize,
+				Duration.ofMillis(queueTimeoutMillis));
+	}
+}
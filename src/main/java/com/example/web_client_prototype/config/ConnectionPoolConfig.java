@@ -0,0 +1,127 @@
+package com.example.web_client_prototype.config;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+import com.example.web_client_prototype.biz.metrics.ConnectionPoolGauges;
+
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * コネクションプールのBean定義
+ * 設定値はwebclient.propertiesの「webclient.pool.〜」を参照
+ * 接続先ごとの設定は「webclient.pool.remote.{名前}.〜」で上書きする（未指定の項目は全体の設定を使用）
+ * HTTP/2を使用する場合（webclient.http.protocols）は、最大接続数と1接続あたりの同時ストリーム数を「webclient.pool.http2.〜」で設定する
+ */
+@Configuration
+public class ConnectionPoolConfig {
+
+	private static final String PREFIX = "webclient.pool.";
+
+	/** 使用するHTTPプロトコルの設定キー */
+	static final String PROTOCOLS_KEY = "webclient.http.protocols";
+
+	@Autowired
+	private Environment env;
+
+	/**
+	 * コネクションプールのゲージ
+	 * @return
+	 */
+	@Bean
+	public ConnectionPoolGauges connectionPoolGauges() {
+		return new ConnectionPoolGauges();
+	}
+
+	/**
+	 * 名前付きのコネクションプール
+	 * @param connectionPoolGauges
+	 * @return
+	 */
+	@Bean(destroyMethod = "dispose")
+	public ConnectionProvider connectionProvider(ConnectionPoolGauges connectionPoolGauges) {
+		ConnectionProvider.Builder builder = ConnectionProvider
+				.builder(env.getProperty(PREFIX + "name", "web-client-pool"));
+		applyPoolSpec(builder, PREFIX, connectionPoolGauges);
+
+		// 接続先ごとの設定
+		for (String name : StringUtils.commaDelimitedListToSet(env.getProperty(PREFIX + "remote-hosts", ""))) {
+			String hostPrefix = PREFIX + "remote." + name.trim() + ".";
+			String address = env.getRequiredProperty(hostPrefix + "address");
+			int idx = address.lastIndexOf(':');
+			builder.forRemoteHost(
+					InetSocketAddress.createUnresolved(address.substring(0, idx), Integer.parseInt(address.substring(idx + 1))),
+					spec -> applyPoolSpec(spec, hostPrefix, connectionPoolGauges));
+		}
+		return builder.build();
+	}
+
+	/**
+	 * プールの設定を反映する
+	 * prefixの設定がない項目は、全体の設定（webclient.pool.〜）を使用する
+	 * @param <S>
+	 * @param spec
+	 * @param prefix
+	 * @param gauges
+	 */
+	private <S extends ConnectionProvider.ConnectionPoolSpec<S>> void applyPoolSpec(S spec, String prefix,
+			ConnectionPoolGauges gauges) {
+		spec.maxConnections(intProperty(prefix, "max-connections", 100))
+				.pendingAcquireMaxCount(intProperty(prefix, "pending-acquire-max-count", 200))
+				.pendingAcquireTimeout(millisProperty(prefix, "pending-acquire-timeout-millis", 5000))
+				.maxIdleTime(millisProperty(prefix, "max-idle-time-millis", 20000))
+				.maxLifeTime(millisProperty(prefix, "max-life-time-millis", 300000))
+				.evictInBackground(millisProperty(prefix, "evict-in-background-millis", 30000))
+				.metrics(true, () -> gauges);
+
+		if (isHttp2(protocols(env.getProperty(PROTOCOLS_KEY, "")))) {
+			// HTTP/2の接続は複数のリクエストで共有する（同時ストリーム数はサーバーのSETTINGSの値が小さければそちらに従う）
+			// 接続数の上限はHTTP/1.1とは別に小さく設定する（一斉に送信した場合に、既存の接続のストリームが空く前に
+			// 新しい接続を上限まで作成してしまうため）
+			spec.allocationStrategy(Http2AllocationStrategy.builder()
+					.maxConnections(intProperty(prefix, "http2.max-connections", 4))
+					.minConnections(intProperty(prefix, "http2.min-connections", 1))
+					.maxConcurrentStreams(intProperty(prefix, "http2.max-concurrent-streams", 100))
+					.build());
+		}
+	}
+
+	/**
+	 * 使用するHTTPプロトコルの設定（カンマ区切り）を解釈する
+	 * @param spec HTTP11 / H2C / H2 のカンマ区切り（未指定の場合はHTTP11）
+	 * @return
+	 */
+	static HttpProtocol[] protocols(String spec) {
+		HttpProtocol[] protocols = StringUtils.commaDelimitedListToSet(spec).stream()
+				.map(name -> HttpProtocol.valueOf(name.trim().toUpperCase()))
+				.toArray(HttpProtocol[]::new);
+		return protocols.length > 0 ? protocols : new HttpProtocol[] { HttpProtocol.HTTP11 };
+	}
+
+	/**
+	 * HTTP/2（H2 / H2C）を含むか
+	 * @param protocols
+	 * @return
+	 */
+	static boolean isHttp2(HttpProtocol[] protocols) {
+		return Arrays.stream(protocols).anyMatch(p -> p == HttpProtocol.H2 || p == HttpProtocol.H2C);
+	}
+
+	private int intProperty(String prefix, String key, int defaultValue) {
+		return env.getProperty(prefix + key, Integer.class, env.getProperty(PREFIX + key, Integer.class, defaultValue));
+	}
+
+	private Duration millisProperty(String prefix, String key, long defaultValue) {
+		return Duration.ofMillis(
+				env.getProperty(prefix + key, Long.class, env.getProperty(PREFIX + key, Long.class, defaultValue)));
+	}
+}
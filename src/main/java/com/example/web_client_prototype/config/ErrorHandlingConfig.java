@@ -0,0 +1,35 @@
+package com.example.web_client_prototype.config;
+
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.web_client_prototype.biz.error.ErrorHandlingMode;
+import com.example.web_client_prototype.biz.error.ErrorResponseHandler;
+
+/**
+ * 2xx系以外のレスポンスの処理のBean定義
+ * 設定値はwebclient.propertiesの「webclient.error.〜」を参照
+ */
+@Configuration
+public class ErrorHandlingConfig {
+
+	/** 2xx系以外のレスポンスの扱い（full / stackless / return_status） */
+	@Value("${webclient.error.mode:stackless}")
+	private String mode;
+
+	/** 例外に保持するエラーレスポンスのボディの上限バイト数 */
+	@Value("${webclient.error.body.max-bytes:1024}")
+	private int maxBodyBytes;
+
+	/**
+	 * 2xx系以外のレスポンスの処理（WebClientHelper / WebApiClient / FileTransferClientで共有する）
+	 * @return
+	 */
+	@Bean
+	public ErrorResponseHandler errorResponseHandler() {
+		return new ErrorResponseHandler(ErrorHandlingMode.valueOf(mode.trim().toUpperCase(Locale.ROOT)), maxBodyBytes);
+	}
+}
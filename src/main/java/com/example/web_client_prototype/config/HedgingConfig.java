@@ -0,0 +1,61 @@
+package com.example.web_client_prototype.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.web_client_prototype.biz.resilience.RequestHedger;
+import com.example.web_client_prototype.biz.resilience.RetryBudget;
+
+/**
+ * ヘッジリクエストのBean定義
+ * 設定値はwebclient.propertiesの「webclient.hedging.〜」を参照
+ */
+@Configuration
+public class HedgingConfig {
+
+	/** ヘッジリクエストの有効 / 無効（有効な場合もWebClientRequestで指定したリクエストのみ対象） */
+	@Value("${webclient.hedging.enabled:true}")
+	private boolean enabled;
+
+	/** 固定の待機時間（ミリ秒） */
+	@Value("${webclient.hedging.delay-millis:100}")
+	private long delayMillis;
+
+	/** 待機時間とするパーセンタイル（0の場合は固定の待機時間） */
+	@Value("${webclient.hedging.percentile:0.95}")
+	private double percentile;
+
+	/** パーセンタイル値を使用するために必要な記録件数 */
+	@Value("${webclient.hedging.min-samples:100}")
+	private int minSamples;
+
+	/** 応答時間の記録を半減させる間隔（ミリ秒） */
+	@Value("${webclient.hedging.decay-interval-millis:30000}")
+	private long decayIntervalMillis;
+
+	/** 予算：リクエスト1件あたりに積むトークン数 */
+	@Value("${webclient.hedging.budget.ratio:0.05}")
+	private double budgetRatio;
+
+	/** 予算：積み上げるトークンの上限 */
+	@Value("${webclient.hedging.budget.max-tokens:50}")
+	private int budgetMaxTokens;
+
+	/** 予算：1秒あたりに補充するトークン数 */
+	@Value("${webclient.hedging.budget.min-per-second:5}")
+	private int budgetMinPerSecond;
+
+	/**
+	 * ヘッジリクエスト（状態はsnapshot()で取得する）
+	 * 追加のリクエストの予算はリトライの予算とは別に持つ
+	 * @return
+	 */
+	@Bean
+	public RequestHedger requestHedger() {
+		return new RequestHedger(enabled, Duration.ofMillis(delayMillis), percentile, minSamples,
+				Duration.ofMillis(decayIntervalMillis), new RetryBudget(budgetRatio, budgetMaxTokens, budgetMinPerSecond));
+	}
+}
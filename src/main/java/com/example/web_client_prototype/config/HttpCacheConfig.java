@@ -0,0 +1,57 @@
+package com.example.web_client_prototype.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+
+import com.example.web_client_prototype.biz.cache.HttpCacheFilter;
+import com.example.web_client_prototype.biz.cache.HttpResponseCache;
+
+/**
+ * レスポンスキャッシュのBean定義
+ * 設定値はwebclient.propertiesの「webclient.cache.〜」を参照
+ */
+@Configuration
+public class HttpCacheConfig {
+
+	/** キャッシュの有効 / 無効 */
+	@Value("${webclient.cache.enabled:true}")
+	private boolean enabled;
+
+	/** 最大エントリ数 */
+	@Value("${webclient.cache.max-entries:1000}")
+	private int maxEntries;
+
+	/** 合計の最大バイト数 */
+	@Value("${webclient.cache.max-bytes:16777216}")
+	private long maxBytes;
+
+	/** 1エントリの最大バイト数 */
+	@Value("${webclient.cache.max-entry-bytes:1048576}")
+	private int maxEntryBytes;
+
+	/** 404のキャッシュ期間（ミリ秒、0の場合はキャッシュしない） */
+	@Value("${webclient.cache.negative-ttl-millis:0}")
+	private long negativeTtlMillis;
+
+	/**
+	 * レスポンスのインメモリキャッシュ（統計情報はstats()で取得する）
+	 * @return
+	 */
+	@Bean
+	public HttpResponseCache httpResponseCache() {
+		return new HttpResponseCache(maxEntries, maxBytes);
+	}
+
+	/**
+	 * GETリクエストのレスポンスキャッシュ
+	 * @param httpResponseCache
+	 * @param exchangeStrategies
+	 * @return
+	 */
+	@Bean
+	public HttpCacheFilter httpCacheFilter(HttpResponseCache httpResponseCache, ExchangeStrategies exchangeStrategies) {
+		return new HttpCacheFilter(httpResponseCache, exchangeStrategies, enabled, maxEntryBytes, negativeTtlMillis);
+	}
+}
@@ -0,0 +1,56 @@
+package com.example.web_client_prototype.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jmx.export.MBeanExporter;
+import org.springframework.jmx.support.RegistrationPolicy;
+
+import com.example.web_client_prototype.biz.metrics.ExchangeMetrics;
+import com.example.web_client_prototype.biz.metrics.ExchangeMetricsFilter;
+
+/**
+ * 通信のメトリクスのBean定義
+ * JMX（com.example.web_client_prototype:type=ExchangeMetrics）に公開する
+ */
+@Configuration
+public class MetricsConfig {
+
+	/**
+	 * 通信のメトリクス
+	 * @return
+	 */
+	@Bean
+	public ExchangeMetrics exchangeMetrics() {
+		return new ExchangeMetrics();
+	}
+
+	/**
+	 * 通信のメトリクスの記録
+	 * @param exchangeMetrics
+	 * @return
+	 */
+	@Bean
+	public ExchangeMetricsFilter exchangeMetricsFilter(ExchangeMetrics exchangeMetrics) {
+		return new ExchangeMetricsFilter(exchangeMetrics);
+	}
+
+	/**
+	 * JMXへの公開（getInflight / getSnapshotTextを属性、resetを操作として公開する）
+	 * @param exchangeMetrics
+	 * @return
+	 */
+	@Bean
+	public MBeanExporter metricsMBeanExporter(ExchangeMetrics exchangeMetrics) {
+		Map<String, Object> beans = new LinkedHashMap<>();
+		beans.put("com.example.web_client_prototype:type=ExchangeMetrics", exchangeMetrics);
+
+		MBeanExporter exporter = new MBeanExporter();
+		exporter.setBeans(beans);
+		// 同じJVMで複数のコンテキストを起動した場合は上書きする
+		exporter.setRegistrationPolicy(RegistrationPolicy.REPLACE_EXISTING);
+		return exporter;
+	}
+}
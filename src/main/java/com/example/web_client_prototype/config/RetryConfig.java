@@ -0,0 +1,95 @@
+package com.example.web_client_prototype.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+import com.example.web_client_prototype.biz.metrics.RetryMetrics;
+import com.example.web_client_prototype.biz.resilience.RetryBudget;
+import com.example.web_client_prototype.biz.resilience.RetryFilter;
+import com.example.web_client_prototype.biz.resilience.RetryPolicy;
+
+/**
+ * リトライのBean定義
+ * 設定値はwebclient.propertiesの「webclient.retry.〜」を参照
+ * 接続先ごとの設定は「webclient.retry.endpoint.{名前}.〜」で上書きする（未指定の項目は全体の設定を使用）
+ */
+@Configuration
+public class RetryConfig {
+
+	private static final String PREFIX = "webclient.retry.";
+
+	@Autowired
+	private Environment env;
+
+	/**
+	 * リトライのメトリクス
+	 * @return
+	 */
+	@Bean
+	public RetryMetrics retryMetrics() {
+		return new RetryMetrics();
+	}
+
+	/**
+	 * リトライの予算（全接続先で共有）
+	 * @return
+	 */
+	@Bean
+	public RetryBudget retryBudget() {
+		return new RetryBudget(
+				env.getProperty(PREFIX + "budget.ratio", Double.class, 0.1),
+				env.getProperty(PREFIX + "budget.max-tokens", Integer.class, 100),
+				env.getProperty(PREFIX + "budget.min-retries-per-second", Integer.class, 10));
+	}
+
+	/**
+	 * 一時的なエラーのリトライ
+	 * @param retryBudget
+	 * @param retryMetrics
+	 * @return
+	 */
+	@Bean
+	public RetryFilter retryFilter(RetryBudget retryBudget, RetryMetrics retryMetrics) {
+		List<RetryPolicy> policies = new ArrayList<>();
+		for (String name : StringUtils.commaDelimitedListToSet(env.getProperty(PREFIX + "endpoints", ""))) {
+			String endpointPrefix = PREFIX + "endpoint." + name.trim() + ".";
+			policies.add(policy(name.trim(), env.getRequiredProperty(endpointPrefix + "path-prefix"), endpointPrefix));
+		}
+		return new RetryFilter(env.getProperty(PREFIX + "enabled", Boolean.class, true),
+				policy("default", null, PREFIX), policies, retryBudget, retryMetrics);
+	}
+
+	/**
+	 * リトライ方針を生成する
+	 * prefixの設定がない項目は、全体の設定（webclient.retry.〜）を使用する
+	 * @param name
+	 * @param pathPrefix
+	 * @param prefix
+	 * @return
+	 */
+	private RetryPolicy policy(String name, String pathPrefix, String prefix) {
+		Set<Integer> statuses = StringUtils.commaDelimitedListToSet(property(prefix, "retryable-statuses", "502,503,504"))
+				.stream()
+				.map(status -> Integer.valueOf(status.trim()))
+				.collect(Collectors.toUnmodifiableSet());
+		return new RetryPolicy(name, pathPrefix,
+				Integer.parseInt(property(prefix, "max-attempts", "3")),
+				Duration.ofMillis(Long.parseLong(property(prefix, "first-backoff-millis", "100"))),
+				Duration.ofMillis(Long.parseLong(property(prefix, "max-backoff-millis", "2000"))),
+				statuses,
+				Boolean.parseBoolean(property(prefix, "retry-non-idempotent", "false")));
+	}
+
+	private String property(String prefix, String key, String defaultValue) {
+		return env.getProperty(prefix + key, env.getProperty(PREFIX + key, defaultValue));
+	}
+}
@@ -0,0 +1,37 @@
+package com.example.web_client_prototype.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import com.example.web_client_prototype.biz.resilience.TimeoutFilter;
+
+/**
+ * リクエストごとのタイムアウト・期限のBean定義
+ * 設定値はwebclient.propertiesの「webclient.timeout.〜」を参照
+ * （接続タイムアウト・レスポンスタイムアウトの全体の設定はWebClientConfig#httpClientで使用する）
+ */
+@Configuration
+public class TimeoutConfig {
+
+	/** レスポンスボディの受信間隔のタイムアウト（ミリ秒、0の場合はなし） */
+	@Value("${webclient.timeout.read-millis:0}")
+	private long readMillis;
+
+	/** 期限までの残り時間（ミリ秒）を伝えるヘッダー名（空の場合は送信しない） */
+	@Value("${webclient.timeout.deadline-header:}")
+	private String deadlineHeader;
+
+	/**
+	 * リクエストごとのタイムアウト・期限の適用
+	 * @return
+	 */
+	@Bean
+	public TimeoutFilter timeoutFilter() {
+		return new TimeoutFilter(readMillis > 0 ? Duration.ofMillis(readMillis) : null,
+				StringUtils.hasText(deadlineHeader) ? deadlineHeader.trim() : null);
+	}
+}
@@ -1,36 +1,139 @@
 package com.example.web_client_prototype.config;
 
 import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
-import org.springframework.web.reactive.function.client.ClientResponse;
-import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import com.example.web_client_prototype.biz.cache.HttpCacheFilter;
+import com.example.web_client_prototype.biz.codec.PayloadFormatFilter;
+import com.example.web_client_prototype.biz.compression.CompressionFilter;
+import com.example.web_client_prototype.biz.logging.BinaryBodyRenderer;
+import com.example.web_client_prototype.biz.logging.ExchangeLogger;
+import com.example.web_client_prototype.biz.logging.ExchangeLoggingFilter;
+import com.example.web_client_prototype.biz.metrics.ExchangeMetricsFilter;
+import com.example.web_client_prototype.biz.resilience.CircuitBreakerFilter;
+import com.example.web_client_prototype.biz.resilience.ConcurrencyLimitFilter;
+import com.example.web_client_prototype.biz.resilience.RetryFilter;
+import com.example.web_client_prototype.biz.resilience.TimeoutFilter;
+
 import io.netty.channel.ChannelOption;
-import reactor.core.publisher.Mono;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
 
 /**
  * WebClientのBean定義
  */
 @Configuration
+@PropertySource(value = "classpath:webclient.properties", encoding = "UTF-8")
 public class WebClientConfig {
 
 	private static final Logger logger = LoggerFactory.getLogger(WebClientConfig.class);
 
+	/** 通信ログの出力有無 */
+	@Value("${webclient.logging.exchange.enabled:true}")
+	private boolean exchangeLogEnabled;
+
+	/** 出力待ちの通信ログの最大件数（超過分は破棄） */
+	@Value("${webclient.logging.exchange.buffer-size:4096}")
+	private int exchangeLogBufferSize;
+
+	/** サンプリング率（デフォルト） */
+	@Value("${webclient.logging.exchange.sampling-rate:1.0}")
+	private double exchangeLogSamplingRate;
+
+	/** パスごとのサンプリング率 */
+	@Value("${webclient.logging.exchange.sampling-rate-by-path:}")
+	private String exchangeLogSamplingRateByPath;
+
+	/** マスク対象のヘッダー名 */
+	@Value("${webclient.logging.exchange.redacted-headers:Authorization,Proxy-Authorization,Cookie,Set-Cookie}")
+	private String exchangeLogRedactedHeaders;
+
+	/** リクエストボディのログ出力最大バイト数 */
+	@Value("${webclient.logging.request.max-bytes:1024}")
+	private int requestLogMaxBytes;
+
+	/** Content-Typeごとのリクエストボディのログ出力最大バイト数 */
+	@Value("${webclient.logging.request.max-bytes-by-type:}")
+	private String requestLogMaxBytesByType;
+
+	/** レスポンスボディのログ出力最大バイト数（デフォルト） */
+	@Value("${webclient.logging.response.max-bytes:1024}")
+	private int responseLogMaxBytes;
+
+	/** Content-Typeごとのレスポンスボディのログ出力最大バイト数 */
+	@Value("${webclient.logging.response.max-bytes-by-type:}")
+	private String responseLogMaxBytesByType;
+
+	/** バイナリ形式（Smile / CBOR）のボディをJSONに変換してログ出力するか */
+	@Value("${webclient.logging.binary-body.render:false}")
+	private boolean binaryBodyRender;
+
+	/** 接続タイムアウト（ミリ秒） */
+	@Value("${webclient.timeout.connect-millis:10000}")
+	private int connectTimeoutMillis;
+
+	/** レスポンスヘッダー受信までのタイムアウト（ミリ秒、WebClientRequestで指定がない場合） */
+	@Value("${webclient.timeout.response-millis:10000}")
+	private long responseTimeoutMillis;
+
+	/** 使用するHTTPプロトコル（HTTP11 / H2C / H2 のカンマ区切り） */
+	@Value("${" + ConnectionPoolConfig.PROTOCOLS_KEY + ":HTTP11}")
+	private String httpProtocols;
+
+	/** イベントループのスレッド数（0の場合はReactor Nettyのデフォルト：CPU数、最小4） */
+	@Value("${webclient.loop.worker-count:0}")
+	private int loopWorkerCount;
+
+	/** ネイティブトランスポート（Linuxはepoll）を使用するか（使用できない環境ではNIO） */
+	@Value("${webclient.loop.native:true}")
+	private boolean loopNative;
+
+	/** イベントループのスレッドをデーモンスレッドにするか */
+	@Value("${webclient.loop.daemon:true}")
+	private boolean loopDaemon;
+
+	/** イベントループのスレッド名の接頭辞（「{接頭辞}-epoll-1」「{接頭辞}-nio-1」等） */
+	@Value("${webclient.loop.thread-prefix:web-client}")
+	private String loopThreadPrefix;
+
+	/**
+	 * WebClientのイベントループ（HttpClientで共有し、グローバルのイベントループ（reactor-http-〜）は使用しない）
+	 * @return
+	 */
+	@Bean(destroyMethod = "dispose")
+	public LoopResources loopResources() {
+		int workerCount = (loopWorkerCount > 0) ? loopWorkerCount : LoopResources.DEFAULT_IO_WORKER_COUNT;
+		boolean nativeTransport = loopNative && LoopResources.hasNativeSupport();
+		if (loopNative && !nativeTransport) {
+			logger.warn("ネイティブトランスポートを使用できないため、NIOを使用します");
+		}
+		logger.info("WebClientのイベントループ：transport={}, workerCount={}, daemon={}",
+				nativeTransport ? "native" : "nio", workerCount, loopDaemon);
+		return LoopResources.create(loopThreadPrefix, workerCount, loopDaemon);
+	}
+
 	@Bean
-	public HttpClient httpClient() {
-	    return HttpClient.create()
-	            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 10000) // 接続タイムアウト（10秒）
-	            .responseTimeout(Duration.ofSeconds(10)); // レスポンス全体のタイムアウト（10秒）
+	public HttpClient httpClient(ConnectionProvider connectionProvider, LoopResources loopResources) {
+	    return HttpClient.create(connectionProvider) // コネクションプール（ConnectionPoolConfig）
+	            .runOn(loopResources, loopNative) // イベントループ（ネイティブトランスポートを使用できない場合はNIO）
+	            .protocol(ConnectionPoolConfig.protocols(httpProtocols)) // HTTP/1.1 / HTTP/2（h2c / h2）
+	            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis) // 接続タイムアウト
+	            .responseTimeout(Duration.ofMillis(responseTimeoutMillis)); // レスポンスヘッダー受信までのタイムアウト（リクエストごとに上書き可能）
 	}
 
 	@Bean
@@ -38,104 +141,85 @@ public class WebClientConfig {
 		return new ReactorClientHttpConnector(httpClient);
 	}
 
+	/**
+	 * 通信ログの出力パイプライン
+	 * @return
+	 */
+	@Bean(destroyMethod = "shutdown")
+	public ExchangeLogger exchangeLogger() {
+		Map<String, Double> samplingRateByPath = new LinkedHashMap<>();
+		parseMapping(exchangeLogSamplingRateByPath)
+				.forEach((path, rate) -> samplingRateByPath.put(path, Double.valueOf(rate)));
+
+		return new ExchangeLogger(exchangeLogEnabled, exchangeLogBufferSize, exchangeLogSamplingRate,
+				samplingRateByPath, StringUtils.commaDelimitedListToSet(exchangeLogRedactedHeaders));
+	}
+
+	/**
+	 * WebClientのリクエスト / レスポンスのログ出力
+	 * @param exchangeLogger
+	 * @return
+	 */
 	@Bean
-	public WebClient webClient(ReactorClientHttpConnector reactorClientHttpConnector) {
+	public ExchangeLoggingFilter exchangeLoggingFilter(ExchangeLogger exchangeLogger) {
+		return new ExchangeLoggingFilter(exchangeLogger, requestLogMaxBytes, maxBytesByType(requestLogMaxBytesByType),
+				responseLogMaxBytes, maxBytesByType(responseLogMaxBytesByType), new BinaryBodyRenderer(binaryBodyRender));
+	}
+
+	@Bean
+	public WebClient webClient(ReactorClientHttpConnector reactorClientHttpConnector,
+			ExchangeStrategies exchangeStrategies,
+			RetryFilter retryFilter,
+			TimeoutFilter timeoutFilter,
+			ExchangeMetricsFilter exchangeMetricsFilter,
+			ExchangeLoggingFilter exchangeLoggingFilter,
+			HttpCacheFilter httpCacheFilter,
+			ConcurrencyLimitFilter concurrencyLimitFilter,
+			CircuitBreakerFilter circuitBreakerFilter,
+			PayloadFormatFilter payloadFormatFilter,
+			CompressionFilter compressionFilter) {
 		return WebClient.builder()
 				.defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
 				.defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE + ", " + MediaType.APPLICATION_PROBLEM_JSON_VALUE)
 				.clientConnector(reactorClientHttpConnector)
-				.filter(logRequest())
-				.filter(logResponse())
+				.exchangeStrategies(exchangeStrategies)
+				.filter(retryFilter) // 一時的なエラーのリトライ（試行ごとにログ出力するため、ログ出力より外側）
+				.filter(timeoutFilter) // リクエストごとのタイムアウト・期限（試行ごとに残り時間を適用する）
+				.filter(exchangeMetricsFilter) // 通信のメトリクス（リトライは試行ごとに記録する）
+				.filter(exchangeLoggingFilter) // リクエスト / レスポンスのログ出力
+				.filter(httpCacheFilter) // GETリクエストのレスポンスキャッシュ
+				.filter(concurrencyLimitFilter) // 接続先ごとの同時実行数の制御（上限超過による拒否はサーキットブレーカーで集計しない）
+				.filter(circuitBreakerFilter) // 接続先ごとのサーキットブレーカー（キャッシュから返却した分は集計しない）
+				.filter(payloadFormatFilter) // 接続先ごとのペイロード形式（Smile / CBOR）への切り替え
+				.filter(compressionFilter) // ボディの圧縮 / 展開（外側のフィルターは圧縮前 / 展開後のボディを扱う）
 				.build();
 	}
 
 	/**
-	 * WebClientのリクエストログ出力
-	 * リクエストボディは別途「LoggingBodyInserter」で処理している
-	 * @return
+	 * 「Content-Type:バイト数」のカンマ区切り設定を解釈する
+	 * @param spec
+	 * @return 設定順を保持したMap
 	 */
-	private ExchangeFilterFunction logRequest() {
-		return ExchangeFilterFunction.ofRequestProcessor(req -> {
-			// リクエストメソッド、URLをログに出力
-			StringBuilder sb = new StringBuilder();
-			sb.append("\n\n----------★★リクエスト★★----------\n")
-					.append("★Request Method: ").append(req.method()).append("\n")
-					.append("★Request URI: ").append(req.url()).append("\n")
-					.append("★Request Headers:\n");
-
-			req.headers().forEach((name, values) -> values
-					.forEach(value -> sb.append("  ")
-							.append(name)
-							.append(": ")
-							.append(value)
-							.append("\n")));
-			logger.debug(sb.toString());
-
-			return Mono.just(req);
-		});
+	private static Map<MediaType, Integer> maxBytesByType(String spec) {
+		Map<MediaType, Integer> maxBytesByType = new LinkedHashMap<>();
+		parseMapping(spec)
+				.forEach((type, maxBytes) -> maxBytesByType.put(MediaType.parseMediaType(type), Integer.valueOf(maxBytes)));
+		return maxBytesByType;
 	}
 
 	/**
-	 * WebClientのレスポンスログ出力
-	 * @return
+	 * 「キー:値」のカンマ区切り設定を解釈する
+	 * @param spec
+	 * @return 設定順を保持したMap
 	 */
-	private ExchangeFilterFunction logResponse() {
-		return ExchangeFilterFunction.ofResponseProcessor(res -> {
-			// HTTPステータスとヘッダー情報取得
-			StringBuilder sb = createLogWithoutBody(res);
-
-			// レスポンスボディ判定
-			long length = res.headers().contentLength().orElse(-1L);
-			boolean hasChunked = res.headers().asHttpHeaders()
-					.getFirst("Transfer-Encoding") != null &&
-					res.headers().asHttpHeaders().getFirst("Transfer-Encoding").equalsIgnoreCase("chunked");
-
-			if ((length == 0 && !hasChunked)
-					|| res.statusCode() == HttpStatus.NO_CONTENT // 204
-				    || res.statusCode() == HttpStatus.RESET_CONTENT // 205
-				    || res.statusCode() == HttpStatus.NOT_MODIFIED) { // 304
-				// ボディなしの場合
-				sb.append("★Response Body: ").append("No Body\n");
-				logger.debug(sb.toString());
-
-				return Mono.just(res);
+	private static Map<String, String> parseMapping(String spec) {
+		Map<String, String> mapping = new LinkedHashMap<>();
+		for (String entry : StringUtils.commaDelimitedListToStringArray(spec)) {
+			int idx = entry.lastIndexOf(':');
+			if (idx > 0) {
+				mapping.put(entry.substring(0, idx).trim(), entry.substring(idx + 1).trim());
 			}
-
-			// ボディありの場合
-			return res.bodyToMono(String.class)
-					.flatMap(body -> {
-						sb.append("★Response Body: ").append(body).append("\n");
-						logger.debug(sb.toString()); // ログにボディ部追加
-
-						// bodyを再度、呼び出し元で使えるように再作成
-						ClientResponse newResponse = ClientResponse.create(res.statusCode())
-								.headers(headers -> headers.addAll(res.headers().asHttpHeaders()))
-								.body(body)
-								.build();
-
-						return Mono.just(newResponse);
-					});
-		});
-	}
-
-	/**
-	 * レスポンスボディ以外のログ情報を作成する
-	 * @param res
-	 * @return
-	 */
-	private StringBuilder createLogWithoutBody(ClientResponse res) {
-		var sb = new StringBuilder();
-		sb.append("\n\n----------★★レスポンス★★----------\n")
-				.append("★Response Status Code: ").append(res.statusCode()).append("\n")
-				.append("★Response Headers:\n");
-
-		res.headers().asHttpHeaders().forEach((name, values) -> values.forEach(
-				value -> sb.append("  ")
-						.append(name)
-						.append(": ")
-						.append(value)
-						.append("\n")));
-
-		return sb;
+		}
+		return mapping;
 	}
 }
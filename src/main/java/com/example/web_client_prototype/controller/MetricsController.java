@@ -0,0 +1,65 @@
+package com.example.web_client_prototype.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.web_client_prototype.biz.cache.HttpResponseCache;
+import com.example.web_client_prototype.biz.metrics.CompressionMetrics;
+import com.example.web_client_prototype.biz.metrics.ConnectionPoolGauges;
+import com.example.web_client_prototype.biz.metrics.ExchangeMetrics;
+import com.example.web_client_prototype.biz.metrics.RetryMetrics;
+import com.example.web_client_prototype.biz.resilience.CircuitBreakerRegistry;
+import com.example.web_client_prototype.biz.resilience.ConcurrencyLimitFilter;
+import com.example.web_client_prototype.biz.resilience.RequestHedger;
+
+/**
+ * WebClientのメトリクスをテキストで表示する
+ */
+@RestController
+public class MetricsController {
+
+	@Autowired
+	private ExchangeMetrics exchangeMetrics;
+
+	@Autowired
+	private ConnectionPoolGauges connectionPoolGauges;
+
+	@Autowired
+	private HttpResponseCache httpResponseCache;
+
+	@Autowired
+	private RetryMetrics retryMetrics;
+
+	@Autowired
+	private CircuitBreakerRegistry circuitBreakerRegistry;
+
+	@Autowired
+	private ConcurrencyLimitFilter concurrencyLimitFilter;
+
+	@Autowired
+	private RequestHedger requestHedger;
+
+	@Autowired
+	private CompressionMetrics compressionMetrics;
+
+	@GetMapping(value = "/metrics/webclient", produces = "text/plain; charset=UTF-8")
+	public String webclient() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("# 通信").append("\n").append(exchangeMetrics.getSnapshotText()).append("\n");
+		sb.append("# コネクションプール").append("\n");
+		connectionPoolGauges.snapshot().forEach(s -> sb.append(s).append("\n"));
+		sb.append("\n# レスポンスキャッシュ").append("\n").append(httpResponseCache.stats()).append("\n");
+		sb.append("\n# リトライ").append("\n");
+		retryMetrics.snapshot().forEach(s -> sb.append(s).append("\n"));
+		sb.append("\n# サーキットブレーカー").append("\n");
+		circuitBreakerRegistry.snapshot().forEach(s -> sb.append(s).append("\n"));
+		sb.append("\n# 同時実行数").append("\n");
+		concurrencyLimitFilter.snapshot().forEach(s -> sb.append(s).append("\n"));
+		sb.append("\n# ヘッジリクエスト").append("\n");
+		requestHedger.snapshot().forEach(s -> sb.append(s).append("\n"));
+		sb.append("\n# 圧縮").append("\n");
+		compressionMetrics.snapshot().forEach(s -> sb.append(s).append("\n"));
+		return sb.toString();
+	}
+}
@@ -0,0 +1,24 @@
+package com.example.web_client_prototype.exception;
+
+import lombok.Getter;
+
+// ダウンロードしたファイルのチェックサムが期待値と一致しない
+@Getter
+public class ChecksumMismatchException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	/** アルゴリズム（SHA-256など） */
+	private final String algorithm;
+	/** 期待値（16進数） */
+	private final String expected;
+	/** 実際の値（16進数） */
+	private final String actual;
+
+    public ChecksumMismatchException(String algorithm, String expected, String actual) {
+    	super("Checksum Mismatch: " + algorithm + " expected=" + expected + ", actual=" + actual);
+    	this.algorithm = algorithm;
+    	this.expected = expected;
+    	this.actual = actual;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.web_client_prototype.exception;
+
+import lombok.Getter;
+
+// サーキットブレーカーが開いている（接続先への送信を遮断中）
+@Getter
+public class CircuitBreakerOpenException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	/** サーキットブレーカー名（接続先） */
+	private final String name;
+
+    public CircuitBreakerOpenException(String name) {
+    	// 即時に失敗させるため、スタックトレースは取得しない
+    	super("Circuit Breaker Open: " + name, null, false, false);
+    	this.name = name;
+    }
+}
@@ -1,5 +1,10 @@
 package com.example.web_client_prototype.exception;
 
+import java.net.URI;
+import java.nio.charset.Charset;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 
 import lombok.Getter;
@@ -8,16 +13,25 @@ import lombok.Setter;
 // 4xx系エラー
 @Getter
 @Setter
-public class ClientErrorException extends RuntimeException {
+public class ClientErrorException extends ErrorStatusException {
 	
 	private HttpStatus status;
 	
     public ClientErrorException(String message) {
-        super(message);
+        super(message, 0);
     }
     
     public ClientErrorException(String message, HttpStatus status) {
-    	super(message);
+    	super(message, status != null ? status.value() : 0);
     	this.status = status;
     }
+
+    /**
+     * ErrorResponseHandlerで生成する（スタックトレースなし）
+     */
+    public ClientErrorException(String statusLine, int rawStatusCode, HttpMethod method, URI uri, HttpHeaders headers,
+    		byte[] responseBody, Charset charset) {
+    	super(statusLine, rawStatusCode, method, uri, headers, responseBody, charset);
+    	this.status = HttpStatus.resolve(rawStatusCode);
+    }
 }
@@ -0,0 +1,19 @@
+package com.example.web_client_prototype.exception;
+
+import lombok.Getter;
+
+// 同時実行数の上限超過（接続先への送信を待たずに拒否）
+@Getter
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	/** 接続先 */
+	private final String name;
+
+    public ConcurrencyLimitExceededException(String name, String message) {
+    	// 即時に失敗させるため、スタックトレースは取得しない
+    	super("Concurrency Limit Exceeded: " + name + " (" + message + ")", null, false, false);
+    	this.name = name;
+    }
+}
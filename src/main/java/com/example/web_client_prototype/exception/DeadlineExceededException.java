@@ -0,0 +1,26 @@
+package com.example.web_client_prototype.exception;
+
+import java.net.URI;
+
+import org.springframework.http.HttpMethod;
+
+import lombok.Getter;
+
+// リクエストの期限（WebClientRequestのtimeout / deadline、一括API通信のtimeout）を超過した
+@Getter
+public class DeadlineExceededException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	/** リクエストのメソッド */
+	private final HttpMethod method;
+	/** リクエストのURI */
+	private final URI uri;
+
+    public DeadlineExceededException(HttpMethod method, URI uri) {
+    	// 期限切れは大量に発生し得るため、スタックトレースは取得しない
+    	super("Deadline Exceeded: " + method + " " + uri, null, false, false);
+    	this.method = method;
+    	this.uri = uri;
+    }
+}
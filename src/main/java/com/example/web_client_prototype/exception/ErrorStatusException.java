@@ -0,0 +1,95 @@
+package com.example.web_client_prototype.exception;
+
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+// 2xx系以外のレスポンスによるエラー（ClientErrorException / ServerErrorException / UnknownErrorException の共通部分）
+// ErrorResponseHandlerで生成する場合はスタックトレースを取得せず、メッセージ・ボディの文字列は取得時に生成する
+@Getter
+public abstract class ErrorStatusException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final byte[] EMPTY = new byte[0];
+
+	/** ステータスコード（不明な場合は0） */
+	private final int rawStatusCode;
+	/** リクエストのメソッド（ErrorResponseHandlerで生成した場合のみ） */
+	private final HttpMethod method;
+	/** リクエストのURI（ErrorResponseHandlerで生成した場合のみ） */
+	private final URI uri;
+	/** レスポンスヘッダー（ErrorResponseHandlerで生成した場合のみ） */
+	private final HttpHeaders headers;
+
+	/** メッセージの先頭（ステータスごとに生成済みの文字列、nullの場合は通常のメッセージ） */
+	@Getter(AccessLevel.NONE)
+	private final String statusLine;
+	/** エラーレスポンスのボディ（上限バイト数まで） */
+	@Getter(AccessLevel.NONE)
+	private final byte[] responseBody;
+	@Getter(AccessLevel.NONE)
+	private final transient Charset charset;
+	@Getter(AccessLevel.NONE)
+	private String message;
+
+	protected ErrorStatusException(String message, int rawStatusCode) {
+		super(message);
+		this.rawStatusCode = rawStatusCode;
+		this.method = null;
+		this.uri = null;
+		this.headers = HttpHeaders.EMPTY;
+		this.statusLine = null;
+		this.responseBody = EMPTY;
+		this.charset = StandardCharsets.UTF_8;
+	}
+
+	protected ErrorStatusException(String statusLine, int rawStatusCode, HttpMethod method, URI uri,
+			HttpHeaders headers, byte[] responseBody, Charset charset) {
+		// スタックトレースは取得しない（block()の呼び出し箇所はsuppressedとして付与される）
+		super(null, null, true, false);
+		this.rawStatusCode = rawStatusCode;
+		this.method = method;
+		this.uri = uri;
+		this.headers = headers;
+		this.statusLine = statusLine;
+		this.responseBody = responseBody;
+		this.charset = charset;
+	}
+
+	@Override
+	public String getMessage() {
+		if (statusLine == null) {
+			return super.getMessage();
+		}
+		String m = message;
+		if (m == null) {
+			// 従来（WebClientResponseException経由）と同じ形式
+			m = statusLine + " from " + method + " " + uri;
+			message = m;
+		}
+		return m;
+	}
+
+	/**
+	 * エラーレスポンスのボディ（上限バイト数まで）
+	 * @return
+	 */
+	public byte[] getResponseBodyAsByteArray() {
+		return responseBody.clone();
+	}
+
+	/**
+	 * エラーレスポンスのボディ（上限バイト数まで）を文字列で取得する
+	 * @return
+	 */
+	public String getResponseBodyAsString() {
+		return new String(responseBody, charset);
+	}
+}
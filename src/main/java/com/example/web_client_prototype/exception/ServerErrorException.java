@@ -1,9 +1,37 @@
 package com.example.web_client_prototype.exception;
 
+import java.net.URI;
+import java.nio.charset.Charset;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import lombok.Getter;
+import lombok.Setter;
+
 // 5xx系エラー
-public class ServerErrorException extends RuntimeException {
+@Getter
+@Setter
+public class ServerErrorException extends ErrorStatusException {
+
+	private HttpStatus status;
+
     public ServerErrorException(String message) {
-        super(message);
+        super(message, 0);
+    }
+
+    public ServerErrorException(String message, HttpStatus status) {
+    	super(message, status != null ? status.value() : 0);
+    	this.status = status;
     }
 
+    /**
+     * ErrorResponseHandlerで生成する（スタックトレースなし）
+     */
+    public ServerErrorException(String statusLine, int rawStatusCode, HttpMethod method, URI uri, HttpHeaders headers,
+    		byte[] responseBody, Charset charset) {
+    	super(statusLine, rawStatusCode, method, uri, headers, responseBody, charset);
+    	this.status = HttpStatus.resolve(rawStatusCode);
+    }
 }
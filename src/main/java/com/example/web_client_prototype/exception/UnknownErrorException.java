@@ -1,8 +1,22 @@
 package com.example.web_client_prototype.exception;
 
+import java.net.URI;
+import java.nio.charset.Charset;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
 // 想定外エラー
-public class UnknownErrorException extends RuntimeException {
+public class UnknownErrorException extends ErrorStatusException {
     public UnknownErrorException(String message) {
-        super(message);
+        super(message, 0);
+    }
+
+    /**
+     * ErrorResponseHandlerで生成する（スタックトレースなし）
+     */
+    public UnknownErrorException(String statusLine, int rawStatusCode, HttpMethod method, URI uri, HttpHeaders headers,
+    		byte[] responseBody, Charset charset) {
+    	super(statusLine, rawStatusCode, method, uri, headers, responseBody, charset);
     }
 }
@@ -0,0 +1,254 @@
+package com.example.web_client_prototype.executor.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.core.ParameterizedTypeReference;
+
+import com.example.web_client_prototype.biz.WebClientHelper;
+import com.example.web_client_prototype.biz.metrics.LatencyHistogram;
+import com.example.web_client_prototype.exception.ClientErrorException;
+import com.example.web_client_prototype.exception.ServerErrorException;
+
+/**
+ * 一定の到着レートでリクエストを送信する負荷生成（オープンループ）
+ *  - 送信予定時刻はシナリオの開始時刻と到着レートから決め、応答を待たずに次のリクエストを送信する
+ *  - 応答時間は送信予定時刻から計測する（送信が遅れた分も含める。Coordinated Omissionの補正）
+ *  - あわせて実際の送信時刻からの応答時間（サービス時間）も記録する
+ *  - 送信中のリクエスト数が上限を超えた場合は送信せずにdroppedとして集計する（負荷生成側の保護）
+ *    droppedのリクエストは、完了を待つ期限（試験終了 + drain-timeout）に応答したものとして応答時間に含める
+ *    （詰まった分を除外すると、過負荷時のパーセンタイルが実際より良く見えるため）
+ *  - 完了を待つ期限までに完了しなかったリクエストも、期限に応答したものとして応答時間に含める（droppedと同じ理由）
+ */
+public class LoadGenerator {
+
+	/** レスポンスボディはデコードせずに読み捨てる */
+	private static final ParameterizedTypeReference<byte[]> BYTES = new ParameterizedTypeReference<byte[]>() {};
+	/** 送信予定時刻までの待機をスピンに切り替える残り時間 */
+	private static final long SPIN_THRESHOLD_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+	/** 試験時間の終了後に、送信中のリクエストの完了を確認する間隔 */
+	private static final long DRAIN_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+	private final WebClientHelper webClientHelper;
+
+	public LoadGenerator(WebClientHelper webClientHelper) {
+		this.webClientHelper = webClientHelper;
+	}
+
+	/**
+	 * シナリオを実行する（試験時間が終わり、送信中のリクエストが完了するまで戻らない）
+	 * @param scenario
+	 * @return
+	 */
+	public LoadTestReport run(LoadTestScenario scenario) {
+		List<LoadTestScenario.Entry> entries = scenario.getEntries();
+		int[] cumulativeWeights = new int[entries.size()];
+		Map<String, Stats> stats = new LinkedHashMap<>();
+		Stats total = new Stats();
+		int totalWeight = 0;
+		for (int i = 0; i < entries.size(); i++) {
+			totalWeight += entries.get(i).getWeight();
+			cumulativeWeights[i] = totalWeight;
+			stats.put(entries.get(i).getName(), new Stats());
+		}
+
+		AtomicInteger inflight = new AtomicInteger();
+		// 計測対象で送信中のリクエスト（完了時に取り除く。期限に残っているものはincompleteとして記録する）
+		Set<Pending> pending = ConcurrentHashMap.newKeySet();
+		long warmupNanos = scenario.getWarmup().toNanos();
+		long measureNanos = scenario.getDuration().toNanos();
+		double intervalNanos = TimeUnit.SECONDS.toNanos(1) / scenario.getRatePerSecond();
+
+		long start = System.nanoTime();
+		long measureStart = start + warmupNanos;
+		long end = measureStart + measureNanos;
+		// droppedのリクエストの応答時刻とみなす時刻（完了を待つ期限）
+		long droppedAt = end + scenario.getDrainTimeout().toNanos();
+		for (long i = 0;; i++) {
+			// 予定時刻は都度計算する（間隔の足し込みによる誤差を蓄積させない）
+			long intended = start + (long) (i * intervalNanos);
+			if (intended - end >= 0) {
+				break;
+			}
+			waitUntil(intended);
+
+			LoadTestScenario.Entry entry = entries.get(pick(cumulativeWeights, totalWeight));
+			boolean measured = intended - measureStart >= 0;
+			Stats stat = stats.get(entry.getName());
+			if (inflight.get() >= scenario.getMaxInflight()) {
+				if (measured) {
+					stat.drop(intended, droppedAt);
+					total.drop(intended, droppedAt);
+				}
+				continue;
+			}
+
+			inflight.incrementAndGet();
+			long sent = System.nanoTime();
+			Pending request = measured ? new Pending(intended, stat) : null;
+			if (request != null) {
+				pending.add(request);
+			}
+			webClientHelper.callForEntityAsync(entry.getRequest(), BYTES)
+					.subscribe(
+							res -> {
+								if (request != null && pending.remove(request)) {
+									stat.success(intended, sent);
+									total.success(intended, sent);
+								}
+							},
+							e -> {
+								if (request != null && pending.remove(request)) {
+									stat.failure(intended, sent, e);
+									total.failure(intended, sent, e);
+								}
+								inflight.decrementAndGet();
+							},
+							inflight::decrementAndGet);
+			if (measured) {
+				stat.sent.increment();
+				total.sent.increment();
+			}
+		}
+
+		// 送信中のリクエストの完了を待つ（待機時間を超えた分はincompleteとして集計する）
+		long drainDeadline = System.nanoTime() + scenario.getDrainTimeout().toNanos();
+		while (inflight.get() > 0 && drainDeadline - System.nanoTime() > 0) {
+			LockSupport.parkNanos(DRAIN_POLL_NANOS);
+		}
+		// 期限に残っているリクエストは期限に応答したものとして記録する（取り除けた場合のみ。期限後の完了と二重に記録しない）
+		for (Pending request : pending) {
+			if (pending.remove(request)) {
+				request.stat.incomplete(request.intended, drainDeadline);
+				total.incomplete(request.intended, drainDeadline);
+			}
+		}
+		long elapsed = Math.min(System.nanoTime(), end) - measureStart;
+		return LoadTestReport.of(scenario, total, stats, inflight.get(), elapsed);
+	}
+
+	/**
+	 * 送信予定時刻まで待機する（予定時刻を過ぎている場合は待たない）
+	 * @param deadline
+	 */
+	private static void waitUntil(long deadline) {
+		long remaining;
+		while ((remaining = deadline - System.nanoTime()) > 0) {
+			if (remaining > SPIN_THRESHOLD_NANOS) {
+				LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+			} else {
+				Thread.onSpinWait();
+			}
+		}
+	}
+
+	/**
+	 * 重みに従ってリクエストを選ぶ
+	 * @param cumulativeWeights
+	 * @param total
+	 * @return
+	 */
+	private static int pick(int[] cumulativeWeights, int total) {
+		int r = ThreadLocalRandom.current().nextInt(total);
+		for (int i = 0; i < cumulativeWeights.length; i++) {
+			if (r < cumulativeWeights[i]) {
+				return i;
+			}
+		}
+		return cumulativeWeights.length - 1;
+	}
+
+	/**
+	 * 計測対象で送信中のリクエスト（同一性で比較する）
+	 */
+	private static class Pending {
+		final long intended;
+		final Stats stat;
+
+		Pending(long intended, Stats stat) {
+			this.intended = intended;
+			this.stat = stat;
+		}
+	}
+
+	/**
+	 * 全体、およびリクエストの種類ごとの集計（送信予定時刻がウォームアップ後のもののみ）
+	 */
+	static class Stats {
+		final LongAdder sent = new LongAdder();
+		final LongAdder succeeded = new LongAdder();
+		final LongAdder failed = new LongAdder();
+		/** 送信上限により送信しなかったリクエスト数 */
+		final LongAdder dropped = new LongAdder();
+		/** 完了を待つ期限までに完了しなかったリクエスト数 */
+		final LongAdder incomplete = new LongAdder();
+		/** 送信予定時刻からの応答時間（dropped、incompleteを含む） */
+		final LatencyHistogram latency = new LatencyHistogram();
+		/** 実際の送信時刻からの応答時間 */
+		final LatencyHistogram serviceTime = new LatencyHistogram();
+		final LongAccumulator maxLatency = new LongAccumulator(Math::max, 0L);
+		/** エラー種別（例外のクラス名、ステータスエラーはステータスコード付き）ごとの件数 */
+		final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+		void success(long intended, long sent) {
+			record(intended, sent);
+			succeeded.increment();
+		}
+
+		void failure(long intended, long sent, Throwable e) {
+			record(intended, sent);
+			failed.increment();
+			errors.computeIfAbsent(errorType(e), key -> new LongAdder()).increment();
+		}
+
+		/**
+		 * 送信しなかったリクエストを、期限に応答したものとして記録する（実際の送信時刻からの応答時間には含めない）
+		 * @param intended
+		 * @param deadline
+		 */
+		void drop(long intended, long deadline) {
+			latency.record(deadline - intended);
+			maxLatency.accumulate(deadline - intended);
+			dropped.increment();
+		}
+
+		/**
+		 * 完了しなかったリクエストを、期限に応答したものとして記録する（実際の送信時刻からの応答時間には含めない）
+		 * @param intended
+		 * @param deadline
+		 */
+		void incomplete(long intended, long deadline) {
+			latency.record(deadline - intended);
+			maxLatency.accumulate(deadline - intended);
+			incomplete.increment();
+		}
+
+		private void record(long intended, long sent) {
+			long now = System.nanoTime();
+			latency.record(now - intended);
+			serviceTime.record(now - sent);
+			maxLatency.accumulate(now - intended);
+		}
+
+		private static String errorType(Throwable e) {
+			if (e instanceof ClientErrorException && ((ClientErrorException) e).getStatus() != null) {
+				return e.getClass().getSimpleName() + "(" + ((ClientErrorException) e).getStatus().value() + ")";
+			}
+			if (e instanceof ServerErrorException && ((ServerErrorException) e).getStatus() != null) {
+				return e.getClass().getSimpleName() + "(" + ((ServerErrorException) e).getStatus().value() + ")";
+			}
+			// 想定外の例外（IllegalStateExceptionでラップ）は原因の例外で分類する
+			Throwable cause = (e instanceof IllegalStateException && e.getCause() != null) ? e.getCause() : e;
+			return cause.getClass().getSimpleName();
+		}
+	}
+}
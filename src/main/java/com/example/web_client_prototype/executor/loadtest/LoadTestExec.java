@@ -0,0 +1,52 @@
+package com.example.web_client_prototype.executor.loadtest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+
+import com.example.web_client_prototype.biz.WebClientHelper;
+
+/**
+ * 負荷試験の実行
+ * 引数：[シナリオのプロパティファイル（省略時はクラスパスのloadtest.properties）] [JSONの出力先（省略時は標準出力）]
+ * webclient.propertiesの設定はシステムプロパティ（-Dwebclient.〜）で上書きできる
+ * レスポンスキャッシュ・同一リクエストの共有は、シナリオで有効にしない限り無効にする（接続先の応答を計測するため）
+ */
+public class LoadTestExec {
+	public static void main(String args[]) throws IOException {
+		Resource resource = (args.length > 0)
+				? new FileSystemResource(args[0])
+				: new ClassPathResource("loadtest.properties");
+		Properties props = PropertiesLoaderUtils.loadProperties(new EncodedResource(resource, StandardCharsets.UTF_8));
+		LoadTestScenario scenario = LoadTestScenario.fromProperties(props);
+		if (!scenario.isClientCacheEnabled()) {
+			// 同じURIのGETがキャッシュ・共有した結果で返却されないようにする（webclient.propertiesよりシステムプロパティが優先される）
+			System.setProperty("webclient.cache.enabled", "false");
+			System.setProperty("webclient.coalescing.enabled", "false");
+		}
+
+		try (var context = new ClassPathXmlApplicationContext("/META-INF/spring/applicationContext.xml")) {
+			var generator = new LoadGenerator(context.getBean(WebClientHelper.class));
+
+			System.out.println("負荷試験開始：" + scenario);
+			LoadTestReport report = generator.run(scenario);
+			System.out.println(report.toText());
+
+			if (args.length > 1) {
+				Files.writeString(Path.of(args[1]), report.toJson(), StandardCharsets.UTF_8);
+				System.out.println("JSON出力：" + args[1]);
+			} else {
+				System.out.println(report.toJson());
+			}
+		}
+	}
+}
@@ -0,0 +1,161 @@
+package com.example.web_client_prototype.executor.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import com.example.web_client_prototype.biz.metrics.LatencyHistogram;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 負荷試験の結果（テキスト、またはJSONで出力する）
+ * 応答時間は送信予定時刻からの値（latency）と、実際の送信時刻からの値（serviceTime）の両方を出力する
+ * 両者の差が大きい場合は、負荷生成側（またはクライアントのキュー）で送信が遅れている
+ * 送信上限によりdroppedとしたリクエスト、および完了を待つ期限までに完了しなかったリクエストは、
+ * 送信予定時刻からの応答時間に含める（完了を待つ期限に応答したものとする）
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class LoadTestReport {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+	/** 目標の到着レート（リクエスト数 / 秒） */
+	private final double targetRatePerSecond;
+	/** 計測時間（秒、ウォームアップを含まない） */
+	private final double elapsedSeconds;
+	/** 待機時間内に完了しなかったリクエスト数（ウォームアップ中に送信した分を含む） */
+	private final long incomplete;
+	/** 全体の結果 */
+	private final Result total;
+	/** リクエストの種類ごとの結果 */
+	private final Map<String, Result> requests;
+
+	/**
+	 * 集計結果
+	 */
+	@Getter
+	@ToString
+	@AllArgsConstructor
+	public static class Result {
+		private final long sent;
+		private final long succeeded;
+		private final long failed;
+		/** 送信上限により送信しなかったリクエスト数 */
+		private final long dropped;
+		/** droppedの割合（送信予定のリクエスト数に対する割合） */
+		private final double droppedRatio;
+		/** 完了を待つ期限までに完了しなかったリクエスト数 */
+		private final long incomplete;
+		/** 完了したリクエスト数 / 秒 */
+		private final double throughput;
+		/** エラー種別ごとの件数 */
+		private final Map<String, Long> errors;
+		/** 送信予定時刻からの応答時間（ミリ秒、dropped、incompleteを含む） */
+		private final Percentiles latencyMillis;
+		/** 実際の送信時刻からの応答時間（ミリ秒） */
+		private final Percentiles serviceTimeMillis;
+	}
+
+	/**
+	 * 応答時間のパーセンタイル（ミリ秒）
+	 */
+	@Getter
+	@ToString
+	@AllArgsConstructor
+	public static class Percentiles {
+		private final double p50;
+		private final double p90;
+		private final double p99;
+		private final double p999;
+		private final double max;
+	}
+
+	static LoadTestReport of(LoadTestScenario scenario, LoadGenerator.Stats total,
+			Map<String, LoadGenerator.Stats> stats, long incomplete, long elapsedNanos) {
+		double elapsedSeconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+		Map<String, Result> requests = new LinkedHashMap<>();
+		stats.forEach((name, stat) -> requests.put(name, result(stat, elapsedSeconds)));
+		return new LoadTestReport(scenario.getRatePerSecond(), elapsedSeconds, incomplete,
+				result(total, elapsedSeconds), requests);
+	}
+
+	private static Result result(LoadGenerator.Stats stat, double elapsedSeconds) {
+		Map<String, Long> errors = new TreeMap<>();
+		stat.errors.forEach((type, count) -> errors.put(type, count.sum()));
+		long succeeded = stat.succeeded.sum();
+		long failed = stat.failed.sum();
+		long sent = stat.sent.sum();
+		long dropped = stat.dropped.sum();
+		return new Result(sent, succeeded, failed, dropped,
+				(sent + dropped) > 0 ? dropped / (double) (sent + dropped) : 0.0,
+				stat.incomplete.sum(),
+				elapsedSeconds > 0 ? (succeeded + failed) / elapsedSeconds : 0.0,
+				errors,
+				percentiles(stat.latency, stat.maxLatency.get()),
+				percentiles(stat.serviceTime, -1L));
+	}
+
+	/**
+	 * @param histogram
+	 * @param maxNanos 正確な最大値（ない場合は負の値、ヒストグラムのバケットの上限値を使用する）
+	 * @return
+	 */
+	private static Percentiles percentiles(LatencyHistogram histogram, long maxNanos) {
+		return new Percentiles(millis(histogram.percentile(0.50)), millis(histogram.percentile(0.90)),
+				millis(histogram.percentile(0.99)), millis(histogram.percentile(0.999)),
+				millis(maxNanos >= 0 ? maxNanos : histogram.percentile(1.0)));
+	}
+
+	private static double millis(long nanos) {
+		return Math.round(nanos / 1_000.0) / 1_000.0;
+	}
+
+	/**
+	 * JSON形式
+	 * @return
+	 */
+	public String toJson() {
+		try {
+			return MAPPER.writeValueAsString(this);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * テキスト形式
+	 * @return
+	 */
+	public String toText() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("target rate: %.1f req/s, elapsed: %.1f s, dropped: %d (%.2f%%), incomplete: %d%n",
+				targetRatePerSecond, elapsedSeconds, total.getDropped(), total.getDroppedRatio() * 100, incomplete));
+		appendResult(sb, "total", total);
+		requests.forEach((name, result) -> appendResult(sb, name, result));
+		return sb.toString();
+	}
+
+	private static void appendResult(StringBuilder sb, String name, Result result) {
+		sb.append(String.format(
+				"%n[%s] sent=%d succeeded=%d failed=%d dropped=%d (%.2f%%) incomplete=%d throughput=%.1f req/s%n",
+				name, result.getSent(), result.getSucceeded(), result.getFailed(), result.getDropped(),
+				result.getDroppedRatio() * 100, result.getIncomplete(), result.getThroughput()));
+		appendPercentiles(sb, "latency (ms)", result.getLatencyMillis());
+		appendPercentiles(sb, "service time (ms)", result.getServiceTimeMillis());
+		result.getErrors().forEach((type, count) -> sb.append(String.format("  error %s: %d%n", type, count)));
+	}
+
+	private static void appendPercentiles(StringBuilder sb, String label, Percentiles p) {
+		sb.append(String.format("  %-18s p50=%.3f p90=%.3f p99=%.3f p99.9=%.3f max=%.3f%n",
+				label, p.getP50(), p.getP90(), p.getP99(), p.getP999(), p.getMax()));
+	}
+}
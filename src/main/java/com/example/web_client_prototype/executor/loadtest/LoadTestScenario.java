@@ -0,0 +1,125 @@
+package com.example.web_client_prototype.executor.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.util.StringUtils;
+
+import com.example.web_client_prototype.biz.WebClientRequest;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 負荷試験のシナリオ（到着レート・試験時間・リクエストの構成）
+ * プロパティファイル（「loadtest.〜」）から生成する
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class LoadTestScenario {
+
+	private static final String PREFIX = "loadtest.";
+
+	/** 到着レート（リクエスト数 / 秒） */
+	private final double ratePerSecond;
+	/** 試験時間（ウォームアップを含まない） */
+	private final Duration duration;
+	/** ウォームアップ時間（この間の結果は集計しない） */
+	private final Duration warmup;
+	/** 送信中のリクエスト数の上限（超えた分は送信せずにdroppedとして集計する） */
+	private final int maxInflight;
+	/** 試験時間の終了後に、送信中のリクエストの完了を待つ時間 */
+	private final Duration drainTimeout;
+	/** レスポンスキャッシュ・同一リクエストの共有を有効にするか（無効の場合は全てのリクエストを接続先に送信する） */
+	private final boolean clientCacheEnabled;
+	/** リクエストの構成 */
+	private final List<Entry> entries;
+
+	/**
+	 * リクエストのテンプレートと重み
+	 */
+	@Getter
+	@ToString
+	@AllArgsConstructor
+	public static class Entry {
+		/** 名前（集計のラベル） */
+		private final String name;
+		/** 重み（全体の重みの合計に対する割合で送信する） */
+		private final int weight;
+		/** リクエスト（送信ごとに使い回す） */
+		private final WebClientRequest request;
+	}
+
+	/**
+	 * プロパティからシナリオを生成する
+	 * リクエストは「loadtest.requests」に名前をカンマ区切りで指定し、「loadtest.request.{名前}.〜」を設定する
+	 * @param props
+	 * @return
+	 */
+	public static LoadTestScenario fromProperties(Properties props) {
+		List<Entry> entries = new ArrayList<>();
+		for (String name : StringUtils.commaDelimitedListToSet(props.getProperty(PREFIX + "requests", ""))) {
+			entries.add(entry(props, name.trim()));
+		}
+		if (entries.isEmpty()) {
+			throw new IllegalArgumentException("loadtest.requests must not be empty.");
+		}
+
+		double rate = Double.parseDouble(props.getProperty(PREFIX + "rate-per-second", "100"));
+		if (rate <= 0) {
+			throw new IllegalArgumentException("loadtest.rate-per-second must be positive.");
+		}
+		return new LoadTestScenario(rate,
+				Duration.ofSeconds(Long.parseLong(props.getProperty(PREFIX + "duration-seconds", "30"))),
+				Duration.ofSeconds(Long.parseLong(props.getProperty(PREFIX + "warmup-seconds", "5"))),
+				Integer.parseInt(props.getProperty(PREFIX + "max-inflight", "10000")),
+				Duration.ofSeconds(Long.parseLong(props.getProperty(PREFIX + "drain-timeout-seconds", "30"))),
+				Boolean.parseBoolean(props.getProperty(PREFIX + "client-cache.enabled", "false").trim()),
+				Collections.unmodifiableList(entries));
+	}
+
+	/**
+	 * 1リクエスト分のテンプレートを生成する
+	 *  - method / url（URIテンプレート） / weight
+	 *  - path-param.{名前} / query-param.{名前} / header.{名前}
+	 *  - body（文字列のまま送信する。Content-Typeはheader.Content-Typeで指定する）
+	 * @param props
+	 * @param name
+	 * @return
+	 */
+	private static Entry entry(Properties props, String name) {
+		String prefix = PREFIX + "request." + name + ".";
+		String url = props.getProperty(prefix + "url");
+		if (url == null) {
+			throw new IllegalArgumentException(prefix + "url must not be null.");
+		}
+
+		WebClientRequest.Builder builder = WebClientRequest.builder()
+				.method(HttpMethod.valueOf(props.getProperty(prefix + "method", "GET").trim().toUpperCase()))
+				.url(url.trim());
+		for (String key : props.stringPropertyNames()) {
+			if (key.startsWith(prefix + "path-param.")) {
+				builder.pathParam(key.substring((prefix + "path-param.").length()), props.getProperty(key));
+			} else if (key.startsWith(prefix + "query-param.")) {
+				builder.queryParam(key.substring((prefix + "query-param.").length()), props.getProperty(key));
+			} else if (key.startsWith(prefix + "header.")) {
+				builder.header(key.substring((prefix + "header.").length()), props.getProperty(key));
+			}
+		}
+		if (props.getProperty(prefix + "body") != null) {
+			builder.body(props.getProperty(prefix + "body"));
+		}
+
+		int weight = Integer.parseInt(props.getProperty(prefix + "weight", "1").trim());
+		if (weight <= 0) {
+			throw new IllegalArgumentException(prefix + "weight must be positive.");
+		}
+		return new Entry(name, weight, builder.build());
+	}
+}
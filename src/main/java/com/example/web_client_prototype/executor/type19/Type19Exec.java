@@ -0,0 +1,28 @@
+package com.example.web_client_prototype.executor.type19;
+
+import java.net.URI;
+import java.nio.file.Path;
+
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.example.web_client_prototype.biz.transfer.DownloadResult;
+import com.example.web_client_prototype.biz.transfer.FileTransferClient;
+
+public class Type19Exec {
+	public static void main(String args[]) {
+		try (var context = new ClassPathXmlApplicationContext("/META-INF/spring/applicationContext.xml")) {
+			var client = context.getBean(FileTransferClient.class);
+
+			// URI定義
+			URI uri = UriComponentsBuilder
+					.fromUriString("http://localhost:8080/rest_prototype/type11/xml")
+					.build()
+					.toUri();
+
+			// API導通（レスポンスボディをメモリに保持せず、ファイルに直接書き込む）
+			DownloadResult result = client.download(uri, Path.of(System.getProperty("java.io.tmpdir"), "type19.xml"));
+			System.out.println(result);
+		}
+	}
+}